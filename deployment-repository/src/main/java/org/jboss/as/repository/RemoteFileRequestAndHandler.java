@@ -176,7 +176,8 @@ public abstract class RemoteFileRequestAndHandler {
 
     private void getChildFiles(final File base, final List<File> childFiles) {
         for (File child : base.listFiles()) {
-            childFiles.add(child);
+            // Non-empty directories are recreated on the receiving side from the paths of their children,
+            // so only regular files and empty directories need an entry of their own
             if (child.isFile() || isEmpty(child)) {
                 childFiles.add(child);
             } else {
@@ -40,6 +40,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.security.AccessController;
+import java.security.MessageDigest;
 import java.security.PrivilegedAction;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -49,6 +50,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.hamcrest.CoreMatchers;
@@ -125,6 +130,46 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test of addContent method with a file backed stream, of class ContentRepository.
+     */
+    @Test
+    public void testAddContentFromFile() throws Exception {
+        Path source = new File(getClass().getClassLoader().getResource("overlay.xhtml").toURI()).toPath();
+        try (InputStream stream = new FileInputStream(source.toFile())) {
+            byte[] result = repository.addContent(stream);
+            assertThat(result, is(notNullValue()));
+            byte[] expected = Files.readAllBytes(source);
+            assertThat(HashUtil.bytesToHexString(result), is(HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(expected))));
+            assertThat(Files.readAllBytes(repository.getContent(result).getPhysicalFile().toPath()), is(expected));
+        }
+    }
+
+    /**
+     * Test of addContent method with concurrent uploads, of class ContentRepository.
+     */
+    @Test
+    public void testAddContentConcurrently() throws Exception {
+        final int count = 8;
+        final List<Callable<String>> uploads = new ArrayList<>(count);
+        final List<String> expected = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final byte[] content = ("content-" + i).getBytes(StandardCharsets.UTF_8);
+            uploads.add(() -> HashUtil.bytesToHexString(repository.addContent(new ByteArrayInputStream(content))));
+            expected.add(HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(content)));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            final List<Future<String>> results = executor.invokeAll(uploads);
+            for (int i = 0; i < count; i++) {
+                assertThat(results.get(i).get(), is(expected.get(i)));
+                assertTrue(repository.hasContent(HashUtil.hexStringToByteArray(expected.get(i))));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Test of explodeContent method, of class ContentRepository.
      */
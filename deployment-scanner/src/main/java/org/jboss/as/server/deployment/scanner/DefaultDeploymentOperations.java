@@ -23,24 +23,35 @@
 package org.jboss.as.server.deployment.scanner;
 
 import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OWNER;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_RESOURCES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.server.deployment.scanner.logging.DeploymentScannerLogger.ROOT_LOGGER;
 
 import java.io.IOException;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -52,6 +63,7 @@ import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.server.deployment.scanner.api.DeploymentOperations;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
+import org.jboss.threads.AsyncFuture;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -61,6 +73,18 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 */
 final class DefaultDeploymentOperations implements DeploymentOperations {
 
+    /**
+     * Maximum number of scanner updates executed in a single composite operation; {@code 0} executes all of them
+     * in one composite. Each batch commits or rolls back on its own, so a batch size of {@code 1} isolates every
+     * deployment from failures of the others.
+     */
+    static final int BATCH_SIZE = getIntProperty("org.jboss.as.server.deployment.scanner.batch-size", 0, 0);
+
+    /**
+     * Maximum number of batches submitted to the controller at the same time
+     */
+    static final int BATCH_PARALLELISM = getIntProperty("org.jboss.as.server.deployment.scanner.batch-parallelism", 1, 1);
+
     private final LocalModelControllerClient controllerClient;
 
     DefaultDeploymentOperations(final ModelControllerClientFactory clientFactory, final Executor executor) {
@@ -70,6 +94,15 @@ final class DefaultDeploymentOperations implements DeploymentOperations {
 
     @Override
     public Future<ModelNode> deploy(final ModelNode operation, final ExecutorService executorService) {
+        if (BATCH_SIZE > 0 && COMPOSITE.equals(operation.get(OP).asString()) && operation.hasDefined(STEPS)) {
+            final List<ModelNode> steps = operation.get(STEPS).asList();
+            if (steps.size() > BATCH_SIZE) {
+                final BatchedDeployment deployment = new BatchedDeployment(operation, steps, BATCH_SIZE, BATCH_PARALLELISM,
+                        batch -> privilegedExecution().execute(controllerClient::executeAsync, batch));
+                deployment.start();
+                return deployment;
+            }
+        }
         return privilegedExecution().execute(controllerClient::executeAsync, operation);
     }
 
@@ -120,6 +153,176 @@ final class DefaultDeploymentOperations implements DeploymentOperations {
         return deployments;
     }
 
+    /**
+     * Executes the steps of a composite operation as a series of smaller composites, at most
+     * {@code parallelism} at a time, and combines their responses into the response the single
+     * composite would have produced. Batches are submitted from completion callbacks so no executor
+     * thread is blocked waiting on them.
+     */
+    static final class BatchedDeployment extends CompletableFuture<ModelNode> implements AsyncFuture.Listener<ModelNode, Integer> {
+
+        private final int parallelism;
+        private final Function<ModelNode, AsyncFuture<ModelNode>> executor;
+        private final List<ModelNode> batches = new ArrayList<>();
+        private final int[] batchSizes;
+        private final ModelNode[] responses;
+        private final List<AsyncFuture<ModelNode>> submitted = new ArrayList<>();
+        private int next;
+        private int remaining;
+
+        BatchedDeployment(final ModelNode operation, final List<ModelNode> steps, final int batchSize, final int parallelism,
+                          final Function<ModelNode, AsyncFuture<ModelNode>> executor) {
+            this.parallelism = parallelism;
+            this.executor = executor;
+            final int count = (steps.size() + batchSize - 1) / batchSize;
+            this.batchSizes = new int[count];
+            this.responses = new ModelNode[count];
+            this.remaining = count;
+            for (int i = 0; i < count; i++) {
+                final ModelNode batch = Util.getEmptyOperation(COMPOSITE, new ModelNode());
+                if (operation.hasDefined(OPERATION_HEADERS)) {
+                    batch.get(OPERATION_HEADERS).set(operation.get(OPERATION_HEADERS));
+                }
+                final ModelNode batchSteps = batch.get(STEPS).setEmptyList();
+                for (ModelNode step : steps.subList(i * batchSize, Math.min(steps.size(), (i + 1) * batchSize))) {
+                    batchSteps.add(step);
+                    batchSizes[i]++;
+                }
+                batches.add(batch);
+            }
+            ROOT_LOGGER.debugf("Executing %d deployment scanner updates in %d batches", steps.size(), count);
+        }
+
+        void start() {
+            for (int i = 0; i < parallelism; i++) {
+                submitNext();
+            }
+        }
+
+        private void submitNext() {
+            final int index;
+            synchronized (this) {
+                if (next == batches.size() || isDone()) {
+                    return;
+                }
+                index = next++;
+            }
+            final AsyncFuture<ModelNode> future;
+            try {
+                future = executor.apply(batches.get(index));
+            } catch (RuntimeException e) {
+                completeExceptionally(e);
+                return;
+            }
+            synchronized (this) {
+                submitted.add(future);
+            }
+            if (isCancelled()) {
+                future.cancel(true);
+            }
+            future.addListener(this, index);
+        }
+
+        @Override
+        public void handleComplete(final AsyncFuture<? extends ModelNode> future, final Integer index) {
+            ModelNode response;
+            try {
+                response = future.getUninterruptibly();
+            } catch (CancellationException e) {
+                response = outcome(CANCELLED, null);
+            } catch (ExecutionException e) {
+                response = outcome(FAILED, e.getCause());
+            }
+            batchComplete(index, response);
+        }
+
+        @Override
+        public void handleFailed(final AsyncFuture<? extends ModelNode> future, final Throwable cause, final Integer index) {
+            batchComplete(index, outcome(FAILED, cause));
+        }
+
+        @Override
+        public void handleCancelled(final AsyncFuture<? extends ModelNode> future, final Integer index) {
+            batchComplete(index, outcome(CANCELLED, null));
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            final List<AsyncFuture<ModelNode>> toCancel;
+            synchronized (this) {
+                toCancel = new ArrayList<>(submitted);
+            }
+            for (AsyncFuture<ModelNode> future : toCancel) {
+                future.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+
+        private void batchComplete(final int index, final ModelNode response) {
+            final boolean last;
+            synchronized (this) {
+                responses[index] = response;
+                last = --remaining == 0;
+            }
+            if (last) {
+                complete(combineResponses());
+            } else {
+                submitNext();
+            }
+        }
+
+        /** Gets the composite operations the steps were split into */
+        List<ModelNode> getBatches() {
+            return batches;
+        }
+
+        /** Invoked once all batches are complete */
+        private ModelNode combineResponses() {
+            final ModelNode combined = new ModelNode();
+            combined.get(OUTCOME).set(SUCCESS);
+            final ModelNode stepResults = combined.get(RESULT).setEmptyObject();
+            int step = 0;
+            for (int i = 0; i < responses.length; i++) {
+                final ModelNode response = responses[i];
+                if (!SUCCESS.equals(response.get(OUTCOME).asString()) && SUCCESS.equals(combined.get(OUTCOME).asString())) {
+                    combined.get(OUTCOME).set(response.get(OUTCOME));
+                    if (response.hasDefined(FAILURE_DESCRIPTION)) {
+                        combined.get(FAILURE_DESCRIPTION).set(response.get(FAILURE_DESCRIPTION));
+                    }
+                }
+                for (int j = 1; j <= batchSizes[i]; j++) {
+                    final String batchStep = "step-" + j;
+                    // A batch that failed before executing its steps carries no per-step results
+                    final ModelNode stepResult = response.hasDefined(RESULT, batchStep) ? response.get(RESULT, batchStep) : response;
+                    stepResults.get("step-" + (++step)).set(stepResult);
+                }
+            }
+            return combined;
+        }
+
+        private ModelNode outcome(final String outcome, final Throwable cause) {
+            final ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(outcome);
+            if (cause != null) {
+                response.get(FAILURE_DESCRIPTION).set(cause.toString());
+            }
+            return response;
+        }
+    }
+
+    private static int getIntProperty(final String name, final int defaultValue, final int min) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(name, null);
+        if (value != null) {
+            try {
+                return Math.max(min, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                ROOT_LOGGER.debugf("Ignoring invalid value %s of %s", value, name);
+            }
+        }
+        return defaultValue;
+    }
+
     /** Provides function execution in a doPrivileged block if a security manager is checking privileges */
     private static Execution privilegedExecution() {
         return WildFlySecurityManager.isChecking() ? Execution.PRIVILEGED : Execution.NON_PRIVILEGED;
@@ -0,0 +1,233 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.jboss.as.server.deployment.scanner.logging.DeploymentScannerLogger.ROOT_LOGGER;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Watches a deployment directory tree for changes using a {@link WatchService}, so the
+ * {@link FileSystemDeploymentService} only needs to scan when something has actually changed.
+ * <p>
+ * The watcher also caches the computed timestamps of exploded deployments, discarding an entry as soon as
+ * anything below that deployment changes, so that unchanged exploded content does not need to be walked
+ * on every scan.
+ */
+final class DeploymentDirectoryWatcher implements Closeable {
+
+    private final Path root;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> keys = new ConcurrentHashMap<WatchKey, Path>();
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    /** Guarded by this */
+    private final Map<Path, Long> timestamps = new HashMap<Path, Long>();
+    /** Guarded by this */
+    private long modificationCount;
+    private final Thread thread;
+    private volatile boolean active = true;
+
+    private DeploymentDirectoryWatcher(final Path root, final WatchService watchService) {
+        this.root = root;
+        this.watchService = watchService;
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                processEvents();
+            }
+        }, "DeploymentScanner-watcher-" + root.getFileName());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Creates and starts a watcher for the given directory tree.
+     *
+     * @param directory the deployment directory
+     * @return the watcher, or {@code null} if the directory cannot be watched
+     */
+    static DeploymentDirectoryWatcher create(final File directory) {
+        final Path root = directory.toPath().toAbsolutePath();
+        WatchService watchService = null;
+        try {
+            watchService = root.getFileSystem().newWatchService();
+            final DeploymentDirectoryWatcher watcher = new DeploymentDirectoryWatcher(root, watchService);
+            watcher.registerTree(root);
+            watcher.thread.start();
+            ROOT_LOGGER.debugf("Watching %s for deployment content changes", root);
+            return watcher;
+        } catch (IOException | RuntimeException e) {
+            ROOT_LOGGER.cannotWatchDirectory(e, root.toString());
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException ignored) {
+                    //
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Whether change notifications are still being delivered for the whole tree. Once a watcher becomes
+     * inactive the caller should fall back to scanning on every interval.
+     */
+    boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Returns whether anything changed since the last call, clearing the flag.
+     */
+    boolean consumeChanges() {
+        return changed.getAndSet(false) || !active;
+    }
+
+    /**
+     * Clears the change flag and forgets all cached timestamps, so the next scan examines everything.
+     */
+    synchronized void reset() {
+        changed.set(false);
+        timestamps.clear();
+        modificationCount++;
+    }
+
+    long getModificationCount() {
+        synchronized (this) {
+            return modificationCount;
+        }
+    }
+
+    synchronized Long getCachedTimestamp(final File deployment) {
+        return active ? timestamps.get(deployment.toPath().toAbsolutePath()) : null;
+    }
+
+    /**
+     * Caches a timestamp computed for an exploded deployment, provided nothing changed since the given
+     * {@link #getModificationCount() modification count} was read.
+     */
+    synchronized void cacheTimestamp(final File deployment, final long timestamp, final long expectedModificationCount) {
+        if (active && expectedModificationCount == modificationCount) {
+            timestamps.put(deployment.toPath().toAbsolutePath(), timestamp);
+        }
+    }
+
+    @Override
+    public void close() {
+        active = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Failed to close watch service for %s", root);
+        }
+        thread.interrupt();
+    }
+
+    private void processEvents() {
+        while (active) {
+            final WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+            final Path dir = keys.get(key);
+            if (dir != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        ROOT_LOGGER.tracef("Watch events overflowed for %s", dir);
+                        invalidateAll();
+                    } else {
+                        final Path child = dir.resolve((Path) event.context());
+                        invalidate(child);
+                        if (event.kind() == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                            try {
+                                registerTree(child);
+                            } catch (IOException e) {
+                                // Changes in this subtree would go unnoticed; revert to plain scanning
+                                ROOT_LOGGER.cannotWatchDirectory(e, child.toString());
+                                active = false;
+                            }
+                        }
+                    }
+                }
+                // Mark the change only after invalidating, so a scan triggered by the flag cannot see stale timestamps
+                changed.set(true);
+            }
+            if (!key.reset()) {
+                keys.remove(key);
+                if (root.equals(dir)) {
+                    // The deployment directory itself is gone
+                    active = false;
+                    changed.set(true);
+                }
+            }
+        }
+    }
+
+    private void registerTree(final Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                keys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private synchronized void invalidate(final Path changedPath) {
+        modificationCount++;
+        final Iterator<Path> it = timestamps.keySet().iterator();
+        while (it.hasNext()) {
+            if (changedPath.startsWith(it.next())) {
+                it.remove();
+            }
+        }
+    }
+
+    private synchronized void invalidateAll() {
+        modificationCount++;
+        timestamps.clear();
+    }
+}
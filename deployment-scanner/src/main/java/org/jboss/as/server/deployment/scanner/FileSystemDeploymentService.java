@@ -60,6 +60,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -92,6 +93,7 @@ import org.jboss.as.server.deployment.scanner.api.DeploymentScanner;
 import org.jboss.as.server.deployment.scanner.logging.DeploymentScannerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Service that monitors the filesystem for deployment content and if found deploys it.
@@ -124,6 +126,31 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
      */
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 600;
 
+    /**
+     * Maximum number of archive completion results remembered between scans
+     */
+    static final int MAX_ZIP_COMPLETION_CACHE_SIZE = 1024;
+
+    /**
+     * Minimum age in ms of an archive's timestamp before its completion result is remembered, allowing for
+     * file systems with coarse timestamps where a write may not change the timestamp
+     */
+    static final long ZIP_COMPLETION_CACHE_MIN_AGE = 2000;
+
+    /**
+     * Whether to watch the deployment directory for changes and skip scans when nothing has changed
+     */
+    static final boolean WATCH_ENABLED = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.scanner.watch", "false"));
+
+    private static final long DEFAULT_WATCH_RESCAN_INTERVAL = 60000;
+
+    /**
+     * Period in ms after which a full scan is performed even if no change was reported by the watcher
+     */
+    static final long WATCH_RESCAN_INTERVAL = resolveWatchRescanInterval(
+            WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.scanner.watch.rescan-interval", null));
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
@@ -141,6 +168,15 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     private final HashSet<String> prematureExplodedContentDeletionLogged = new HashSet<String>();
     private final HashSet<File> nonscannableLogged = new HashSet<File>();
     private final Map<File, IncompleteDeploymentStatus> incompleteDeployments = new HashMap<File, IncompleteDeploymentStatus>();
+    /** Guarded by scanLock */
+    private final Map<File, ZipCompletionStatus> zipCompletionCache = new LinkedHashMap<File, ZipCompletionStatus>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, ZipCompletionStatus> eldest) {
+            return size() > MAX_ZIP_COMPLETION_CACHE_SIZE;
+        }
+    };
 
     private final ScheduledExecutorService scheduledExecutor;
     private final ControlledProcessStateService processStateService;
@@ -164,6 +200,10 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     private volatile boolean deploymentDirAccessible = true;
     private volatile boolean lastScanSuccessful = true;
 
+    private volatile DeploymentDirectoryWatcher watcher;
+    /** Guarded by scanLock */
+    private long lastFullScan;
+
     @Override
     public void handleNotification(Notification notification) {
         if (acquireScanLock()) {
@@ -409,6 +449,10 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     public synchronized void stopScanner() {
         this.scanEnabled = false;
         cancelScan();
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
         safeClose(deploymentOperations);
         this.deploymentOperations = null;
         if (undeployScanTask != null) {
@@ -490,7 +534,11 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         if (acquireScanLock()) {
             boolean scheduleRescan = false;
             try {
-                scheduleRescan = scan(false, deploymentOperations);
+                if (isScanRequired()) {
+                    scheduleRescan = scan(false, deploymentOperations);
+                } else {
+                    ROOT_LOGGER.tracef("No changes reported for directory %s, skipping scan", deploymentDir.getAbsolutePath());
+                }
             } finally {
                 try {
                     if (scheduleRescan) {
@@ -507,6 +555,26 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         }
     }
 
+    /**
+     * Whether a periodic scan needs to examine the deployment directory. Without a watcher every scan does;
+     * with one, only scans following a reported change, scans retrying incomplete content and the periodic
+     * safety rescan do. Invoke with the scan lock held.
+     */
+    private boolean isScanRequired() {
+        final DeploymentDirectoryWatcher watcher = this.watcher;
+        if (watcher == null || !watcher.isActive() || firstScan || !lastScanSuccessful || !incompleteDeployments.isEmpty()) {
+            return true;
+        }
+        final long now = System.currentTimeMillis();
+        if (now - lastFullScan >= WATCH_RESCAN_INTERVAL) {
+            // Don't rely solely on notifications; some file systems (e.g. network mounts) don't deliver them reliably
+            lastFullScan = now;
+            watcher.reset();
+            return true;
+        }
+        return watcher.consumeChanges();
+    }
+
     /**
      * Perform a post-boot scan to remove any deployments added during boot that failed to deploy properly.
      * This method isn't private solely to allow a unit test in the same package to call it.
@@ -1091,12 +1159,29 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             }
             return true;
         } else if (isEEArchive(file.getName())) {
-            try {
-                return ZipCompletionScanner.isCompleteZip(file);
-            } catch (IOException e) {
-                ROOT_LOGGER.failedCheckingZipFile(e, file.getPath());
-                return false;
+            // Archives that have not changed since they were last checked don't need to be read again
+            final long size = file.length();
+            final long lastModified = file.lastModified();
+            ZipCompletionStatus status = zipCompletionCache.get(file);
+            if (status == null || status.size != size || status.lastModified != lastModified) {
+                try {
+                    status = new ZipCompletionStatus(size, lastModified, ZipCompletionScanner.isCompleteZip(file), null);
+                } catch (NonScannableZipException e) {
+                    status = new ZipCompletionStatus(size, lastModified, false, e);
+                } catch (IOException e) {
+                    ROOT_LOGGER.failedCheckingZipFile(e, file.getPath());
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastModified >= ZIP_COMPLETION_CACHE_MIN_AGE) {
+                    zipCompletionCache.put(file, status);
+                } else {
+                    zipCompletionCache.remove(file);
+                }
+            }
+            if (status.exception != null) {
+                throw status.exception;
             }
+            return status.complete;
         } else {
             // A non-zip child
             return true;
@@ -1110,11 +1195,27 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     }
 
     private long getDeploymentTimestamp(File deploymentFile) {
+        final DeploymentDirectoryWatcher watcher = this.watcher;
+        if (watcher != null && deploymentFile.isDirectory()) {
+            // Exploded content only needs to be walked again once the watcher reports a change beneath it
+            final Long cached = watcher.getCachedTimestamp(deploymentFile);
+            if (cached != null) {
+                return cached;
+            }
+            final long modificationCount = watcher.getModificationCount();
+            final long timestamp = getContentTimestamp(deploymentFile);
+            watcher.cacheTimestamp(deploymentFile, timestamp, modificationCount);
+            return timestamp;
+        }
+        return getContentTimestamp(deploymentFile);
+    }
+
+    private long getContentTimestamp(File deploymentFile) {
         if (deploymentFile.isDirectory()) {
             // Scan for most recent file
             long latest = deploymentFile.lastModified();
             for (File child : listDirectoryChildren(deploymentFile)) {
-                long childTimestamp = getDeploymentTimestamp(child);
+                long childTimestamp = getContentTimestamp(child);
                 if (childTimestamp > latest) {
                     latest = childTimestamp;
                 }
@@ -1247,6 +1348,9 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
 
     private synchronized void startScan() {
         if (scanEnabled) {
+            if (WATCH_ENABLED && watcher == null && scanInterval > 0 && deploymentDir.isDirectory()) {
+                watcher = DeploymentDirectoryWatcher.create(deploymentDir);
+            }
             if (scanInterval > 0) {
                 scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
             } else {
@@ -1342,6 +1446,21 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         }
     }
 
+    static long resolveWatchRescanInterval(String value) {
+        if (value != null) {
+            try {
+                final long result = Long.parseLong(value.trim());
+                if (result > 0) {
+                    return result;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall back to the default
+            }
+            ROOT_LOGGER.debugf("Ignoring invalid deployment directory watch rescan interval %s", value);
+        }
+        return DEFAULT_WATCH_RESCAN_INTERVAL;
+    }
+
     private static List<File> listDirectoryChildren(File directory) {
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath())) {
             final List<File> result = new ArrayList<>();
@@ -1714,6 +1833,20 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         }
     }
 
+    private static class ZipCompletionStatus {
+        private final long size;
+        private final long lastModified;
+        private final boolean complete;
+        private final NonScannableZipException exception;
+
+        private ZipCompletionStatus(long size, long lastModified, boolean complete, NonScannableZipException exception) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.complete = complete;
+            this.exception = exception;
+        }
+    }
+
     /**
      * Possible overall scan behaviors following return from handling auto-deploy failures
      */
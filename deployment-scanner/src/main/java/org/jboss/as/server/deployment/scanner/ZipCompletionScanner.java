@@ -48,6 +48,10 @@ public class ZipCompletionScanner {
     public static final long CENSIG = 0x02014b50L;
     /** End of central directory record marker */
     public static final long ENDSIG = 0x06054b50L;
+    /** Zip64 end of central directory record marker */
+    public static final long ZIP64_ENDSIG = 0x06064b50L;
+    /** Zip64 end of central directory locator marker */
+    public static final long ZIP64_LOCSIG = 0x07064b50L;
 
     /** Length of the fixed portion of a local file header */
     public static final int LOCLEN = 30;
@@ -55,6 +59,10 @@ public class ZipCompletionScanner {
     public static final int CENLEN = 46;
     /** Length of the fixed portion of an End of central directory record */
     public static final int ENDLEN = 22;
+    /** Length of the fixed portion of a Zip64 end of central directory record */
+    public static final int ZIP64_ENDLEN = 56;
+    /** Length of a Zip64 end of central directory locator */
+    public static final int ZIP64_LOCLEN = 20;
 
     /** Position of the filename length in a local file header */
     public static final int LOC_FILENAMELEN = 26;
@@ -63,8 +71,16 @@ public class ZipCompletionScanner {
 
     /** Position of the associated local file's compressed size in the central directory file header */
     public static final int CENSIZ = 20;
+    /** Position of the associated local file's uncompressed size in the central directory file header */
+    public static final int CENLEN_UNCOMPRESSED = 24;
+    /** Position of the filename length in a central directory file header */
+    public static final int CEN_FILENAMELEN = 28;
+    /** Position of the extra field length in a central directory file header */
+    public static final int CEN_EXTFLDLEN = 30;
     /** Position of the associated local file's offset in the central directory file header */
     public static final int CEN_LOC_OFFSET = 32;
+    /** Header id of the Zip64 extended information extra field */
+    public static final int ZIP64_EXTID = 0x0001;
 
     /** Position of the 'start of central directory' field in an end of central directory record */
     public static final int END_CENSTART = 16;
@@ -72,10 +88,14 @@ public class ZipCompletionScanner {
     public static final long ZIP64_MARKER = 0xFFFFFFFFL;
     /** Position of the comment length in an end of central directory record */
     public static final int END_COMMENTLEN = 20;
+    /** Position of the Zip64 end of central directory record offset in a Zip64 end of central directory locator */
+    public static final int ZIP64_LOC_ENDOFFSET = 8;
+    /** Position of the 'start of central directory' field in a Zip64 end of central directory record */
+    public static final int ZIP64_END_CENSTART = 48;
 
 
     private static final int MAX_REVERSE_SCAN = (1 << 16) + ENDLEN;
-    private static final int CHUNK_SIZE = 4096;
+    private static final int CHUNK_SIZE = 64 * 1024;
     private static final int ALPHABET_SIZE = 256;
 
     private static final byte[] ENDSIG_PATTERN = new byte[]{0x06, 0x05, 0x4b, 0x50};
@@ -159,17 +179,30 @@ public class ZipCompletionScanner {
             }
 
             long pos = getUnsignedInt(endDirHeader, END_CENSTART);
-            // TODO deal with Zip64
             if (pos == ZIP64_MARKER) {
-                throw new NonScannableZipException(file, true);
+                pos = getZip64CentralDirectoryStart(file, channel, startEndRecord);
+                if (pos < 0) {
+                    return false;
+                }
             }
 
             ByteBuffer cdfhBuffer = getByteBuffer(CENLEN);
             read(cdfhBuffer, channel, pos);
+            if (cdfhBuffer.limit() < CENLEN) {
+                return false;
+            }
             long header = getUnsignedInt(cdfhBuffer, 0);
             if (header == CENSIG) {
                 long firstLoc = getUnsignedInt(cdfhBuffer, CEN_LOC_OFFSET);
                 long firstSize = getUnsignedInt(cdfhBuffer, CENSIZ);
+                if (firstLoc == ZIP64_MARKER || firstSize == ZIP64_MARKER) {
+                    long[] zip64Values = readZip64ExtraField(channel, pos, cdfhBuffer);
+                    if (zip64Values == null) {
+                        return false;
+                    }
+                    firstSize = zip64Values[0];
+                    firstLoc = zip64Values[1];
+                }
                 if (firstLoc == 0) {
                     // normal case -- first bytes are the first local file
                     if (!validateLocalFileRecord(channel, 0, firstSize)) {
@@ -210,80 +243,144 @@ public class ZipCompletionScanner {
     }
 
     /**
-     * Boyer Moore scan that proceeds backwards from the end of the file looking for ENDSIG
-     * @throws NonScannableZipException
+     * Reads the location of the central directory from the Zip64 end of central directory record referenced
+     * by the locator that immediately precedes the end of central directory record.
+     *
+     * @return the start of the central directory, or -1 if the Zip64 records are not (yet) valid
+     * @throws NonScannableZipException if the end record requires Zip64 but no locator is present
      */
-    private static boolean scanForEndSig(File file, FileChannel channel) throws IOException, NonScannableZipException {
-
-        // TODO Consider just reading in MAX_REVERSE_SCAN bytes -- increased peak memory cost but less complex
+    private static long getZip64CentralDirectoryStart(File file, FileChannel channel, long startEndRecord) throws IOException, NonScannableZipException {
+        long startLocator = startEndRecord - ZIP64_LOCLEN;
+        if (startLocator < 0) {
+            throw new NonScannableZipException(file, true);
+        }
+        ByteBuffer locator = getByteBuffer(ZIP64_LOCLEN);
+        read(locator, channel, startLocator);
+        if (locator.limit() < ZIP64_LOCLEN || getUnsignedInt(locator, 0) != ZIP64_LOCSIG) {
+            throw new NonScannableZipException(file, true);
+        }
+        long startZip64EndRecord = locator.getLong(ZIP64_LOC_ENDOFFSET);
+        if (startZip64EndRecord < 0 || startZip64EndRecord > startLocator - ZIP64_ENDLEN) {
+            return -1;
+        }
+        ByteBuffer zip64EndRecord = getByteBuffer(ZIP64_ENDLEN);
+        read(zip64EndRecord, channel, startZip64EndRecord);
+        if (zip64EndRecord.limit() < ZIP64_ENDLEN || getUnsignedInt(zip64EndRecord, 0) != ZIP64_ENDSIG) {
+            return -1;
+        }
+        long pos = zip64EndRecord.getLong(ZIP64_END_CENSTART);
+        return pos < 0 || pos > startZip64EndRecord ? -1 : pos;
+    }
 
-        ByteBuffer bb = getByteBuffer(CHUNK_SIZE);
-        long start = channel.size();
-        long end = Math.max(0, start - MAX_REVERSE_SCAN);
-        long channelPos = Math.max(0, start - CHUNK_SIZE);
-        long lastChannelPos = channelPos;
-        boolean firstRead = true;
-        while (lastChannelPos >= end) {
-
-            read(bb, channel, channelPos);
-
-            int actualRead = bb.limit();
-            if (firstRead) {
-                long expectedRead = Math.min(CHUNK_SIZE, start);
-                if (actualRead > expectedRead) {
-                    // File is still growing
-                    return false;
+    /**
+     * Reads the compressed size and local file offset of a central directory file header from its Zip64
+     * extended information extra field, falling back to the values in the header where they are not
+     * stored in the extra field.
+     *
+     * @return the compressed size and the local file offset, or {@code null} if the extra field is invalid
+     */
+    private static long[] readZip64ExtraField(FileChannel channel, long startCenRecord, ByteBuffer cdfhBuffer) throws IOException {
+        long uncompressedSize = getUnsignedInt(cdfhBuffer, CENLEN_UNCOMPRESSED);
+        long compressedSize = getUnsignedInt(cdfhBuffer, CENSIZ);
+        long locOffset = getUnsignedInt(cdfhBuffer, CEN_LOC_OFFSET);
+        int fnLen = getUnsignedShort(cdfhBuffer, CEN_FILENAMELEN);
+        int extFieldLen = getUnsignedShort(cdfhBuffer, CEN_EXTFLDLEN);
+
+        ByteBuffer extra = getByteBuffer(extFieldLen);
+        read(extra, channel, startCenRecord + CENLEN + fnLen);
+        if (extra.limit() < extFieldLen) {
+            return null;
+        }
+        int fieldPos = 0;
+        while (fieldPos + 4 <= extFieldLen) {
+            int id = getUnsignedShort(extra, fieldPos);
+            int dataLen = getUnsignedShort(extra, fieldPos + 2);
+            int dataPos = fieldPos + 4;
+            if (dataPos + dataLen > extFieldLen) {
+                return null;
+            }
+            if (id == ZIP64_EXTID) {
+                // Fields are only present if the corresponding header value is set to the marker, in this order
+                int dataEnd = dataPos + dataLen;
+                if (uncompressedSize == ZIP64_MARKER) {
+                    dataPos += 8;
+                }
+                if (compressedSize == ZIP64_MARKER) {
+                    if (dataPos + 8 > dataEnd) {
+                        return null;
+                    }
+                    compressedSize = extra.getLong(dataPos);
+                    dataPos += 8;
+                }
+                if (locOffset == ZIP64_MARKER) {
+                    if (dataPos + 8 > dataEnd) {
+                        return null;
+                    }
+                    locOffset = extra.getLong(dataPos);
                 }
-                firstRead = false;
+                return compressedSize < 0 || locOffset < 0 ? null : new long[] {compressedSize, locOffset};
             }
+            fieldPos = dataPos + dataLen;
+        }
+        return null;
+    }
+
+    /**
+     * Boyer Moore scan that proceeds backwards from the end of the file looking for ENDSIG. The end
+     * record must start within the last {@code MAX_REVERSE_SCAN} bytes, so that region is read with
+     * a single positional read rather than chunk by chunk.
+     * @throws NonScannableZipException
+     */
+    private static boolean scanForEndSig(File file, FileChannel channel) throws IOException, NonScannableZipException {
 
-            int bufferPos = actualRead -1;
-            while (bufferPos >= SIG_PATTERN_LENGTH) {
+        long size = channel.size();
+        int length = (int) Math.min(size, MAX_REVERSE_SCAN);
+        long tailStart = size - length;
+        ByteBuffer bb = getByteBuffer(length);
+        readFully(bb, channel, tailStart);
+        if (bb.limit() < length || channel.size() != size) {
+            // File is changing
+            return false;
+        }
 
-                // Following is based on the Boyer Moore algorithm but simplified to reflect
-                // a) the pattern is static
-                // b) the pattern has no repeating bytes
+        int bufferPos = length - 1;
+        while (bufferPos >= SIG_PATTERN_LENGTH - 1) {
 
-                int patternPos;
-                for (patternPos = SIG_PATTERN_LENGTH - 1;
-                     patternPos >= 0 && ENDSIG_PATTERN[patternPos] == bb.get(bufferPos - patternPos);
-                     --patternPos) {
-                    // empty loop while bytes match
-                }
+            // Following is based on the Boyer Moore algorithm but simplified to reflect
+            // a) the pattern is static
+            // b) the pattern has no repeating bytes
 
-                // Switch gives same results as checking the "good suffix array" in the Boyer Moore algorithm
-                switch (patternPos) {
-                    case -1: {
-                        // Pattern matched. Confirm is this is the start of a valid end of central dir record
-                        long startEndRecord = channelPos + bufferPos - SIG_PATTERN_LENGTH + 1;
-                        if (validateEndRecord(file, channel, startEndRecord)) {
-                            return true;
-                        }
-                        // wasn't a valid end record; continue scan
-                        bufferPos -= 4;
-                        break;
-                    }
-                    case 3: {
-                        // No bytes matched; the common case.
-                        // With our pattern, this is the only case where the Boyer Moore algorithm's "bad char array" may
-                        // produce a shift greater than the "good suffix array" (which would shift 1 byte)
-                        int idx = bb.get(bufferPos - patternPos) - Byte.MIN_VALUE;
-                        bufferPos -= END_BAD_BYTE_SKIP[idx];
-                        break;
-                    }
-                    default:
-                        // 1 or more bytes matched
-                        bufferPos -= 4;
-                }
+            int patternPos;
+            for (patternPos = SIG_PATTERN_LENGTH - 1;
+                 patternPos >= 0 && ENDSIG_PATTERN[patternPos] == bb.get(bufferPos - patternPos);
+                 --patternPos) {
+                // empty loop while bytes match
             }
 
-            // Move back a full chunk. If we didn't read a full chunk, that's ok,
-            // it means we read all data and the outer while loop will terminate
-            if (channelPos <= bufferPos) {
-                break;
+            // Switch gives same results as checking the "good suffix array" in the Boyer Moore algorithm
+            switch (patternPos) {
+                case -1: {
+                    // Pattern matched. Confirm is this is the start of a valid end of central dir record
+                    long startEndRecord = tailStart + bufferPos - SIG_PATTERN_LENGTH + 1;
+                    if (validateEndRecord(file, channel, startEndRecord)) {
+                        return true;
+                    }
+                    // wasn't a valid end record; continue scan
+                    bufferPos -= 4;
+                    break;
+                }
+                case 3: {
+                    // No bytes matched; the common case.
+                    // With our pattern, this is the only case where the Boyer Moore algorithm's "bad char array" may
+                    // produce a shift greater than the "good suffix array" (which would shift 1 byte)
+                    int idx = bb.get(bufferPos - patternPos) - Byte.MIN_VALUE;
+                    bufferPos -= END_BAD_BYTE_SKIP[idx];
+                    break;
+                }
+                default:
+                    // 1 or more bytes matched
+                    bufferPos -= 4;
             }
-            lastChannelPos = channelPos;
-            channelPos -= Math.min(channelPos - bufferPos, CHUNK_SIZE - bufferPos);
         }
 
         return false;
@@ -395,6 +492,14 @@ public class ZipCompletionScanner {
         bb.flip();
     }
 
+    private static void readFully(ByteBuffer bb, FileChannel ch, long pos) throws IOException {
+        bb.clear();
+        while (bb.hasRemaining() && ch.read(bb, pos + bb.position()) > 0) {
+            // keep reading
+        }
+        bb.flip();
+    }
+
     private static long getUnsignedInt(ByteBuffer bb, int offset) {
         return (bb.getInt(offset) & 0xffffffffL);
     }
@@ -33,6 +33,12 @@ import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.END_CO
 import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.EXTSIG;
 import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.LOCLEN;
 import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.LOCSIG;
+import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.ZIP64_ENDLEN;
+import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.ZIP64_ENDSIG;
+import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.ZIP64_END_CENSTART;
+import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.ZIP64_LOCLEN;
+import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.ZIP64_LOCSIG;
+import static org.jboss.as.server.deployment.scanner.ZipCompletionScanner.ZIP64_LOC_ENDOFFSET;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -149,12 +155,15 @@ public class AutoDeployTestSupport {
             ch.position(leadingBytes);
             int locPos = leadingBytes + (extraLoc ? (LOCLEN + (useExt ? EXTLEN : 0)) : 0);
             int cenPos = locPos + LOCLEN + (useExt ? EXTLEN : 0);
-            int endPos = cenPos + CENLEN;
+            int endPos = cenPos + CENLEN + (useZip64 ? ZIP64_ENDLEN + ZIP64_LOCLEN : 0);
             if (extraLoc) {
                 addLocFile(ch, leadingBytes, useExt);
             }
             addLocFile(ch, locPos, useExt);
             addCenDir(ch, cenPos, locPos);
+            if (useZip64) {
+                addZip64EndRecord(ch, cenPos + CENLEN, cenPos);
+            }
             addEndRecord(ch, endPos, cenPos, trailingByte, useZip64);
         }
         finally {
@@ -202,6 +211,20 @@ public class AutoDeployTestSupport {
 
     }
 
+    private void addZip64EndRecord(FileChannel ch, int zip64EndPos, int cenPos) throws IOException {
+
+        ByteBuffer bb = getByteBuffer(ZIP64_ENDLEN + ZIP64_LOCLEN);
+
+        putUnsignedInt(bb, ZIP64_ENDSIG, 0);
+        bb.putLong(ZIP64_END_CENSTART, cenPos);
+        putUnsignedInt(bb, ZIP64_LOCSIG, ZIP64_ENDLEN);
+        bb.putLong(ZIP64_ENDLEN + ZIP64_LOC_ENDOFFSET, zip64EndPos);
+
+//        bb.flip(); // don't flip as we never moved the position
+        ch.write(bb, zip64EndPos);
+
+    }
+
     private void addEndRecord(FileChannel ch, int endPos, int cenPos, boolean trailingByte, boolean useZip64) throws IOException {
 
         ByteBuffer bb = getByteBuffer(ENDLEN + (trailingByte ? 1 : 0));
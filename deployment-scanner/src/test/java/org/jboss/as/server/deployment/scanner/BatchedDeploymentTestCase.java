@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DefaultDeploymentOperations.BatchedDeployment}
+ */
+public class BatchedDeploymentTestCase {
+
+    private final List<ModelNode> executed = new ArrayList<>();
+    private final List<TestFuture> futures = new ArrayList<>();
+
+    @Test
+    public void testBatchSplitting() throws Exception {
+        final ModelNode operation = composite(5);
+        operation.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).set(false);
+        final DefaultDeploymentOperations.BatchedDeployment deployment = batched(operation, 2, 1);
+
+        final List<ModelNode> batches = deployment.getBatches();
+        Assert.assertEquals(3, batches.size());
+        assertBatch(batches.get(0), 1, 2);
+        assertBatch(batches.get(1), 3, 4);
+        assertBatch(batches.get(2), 5);
+        for (ModelNode batch : batches) {
+            Assert.assertEquals(COMPOSITE, batch.get(OP).asString());
+            Assert.assertEquals(operation.get(OPERATION_HEADERS), batch.get(OPERATION_HEADERS));
+        }
+    }
+
+    @Test
+    public void testSuccessfulResponsesAreMerged() throws Exception {
+        final DefaultDeploymentOperations.BatchedDeployment deployment = batched(composite(5), 2, 1);
+        deployment.start();
+        completeAll();
+
+        final ModelNode response = deployment.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(SUCCESS, response.get(OUTCOME).asString());
+        Assert.assertFalse(response.hasDefined(FAILURE_DESCRIPTION));
+        Assert.assertEquals(5, response.get(RESULT).keys().size());
+        for (int i = 1; i <= 5; i++) {
+            final ModelNode step = response.get(RESULT, "step-" + i);
+            Assert.assertEquals(SUCCESS, step.get(OUTCOME).asString());
+            // Each step keeps the result of the operation it came from
+            Assert.assertEquals("d" + i, step.get(RESULT).asString());
+        }
+    }
+
+    @Test
+    public void testFailureInOneBatch() throws Exception {
+        final DefaultDeploymentOperations.BatchedDeployment deployment = batched(composite(5), 2, 1);
+        deployment.start();
+
+        futures.get(0).done(response(executed.get(0)));
+        // The second batch rolls back, but the third is still executed
+        final ModelNode failed = response(executed.get(1));
+        failed.get(OUTCOME).set(FAILED);
+        failed.get(FAILURE_DESCRIPTION).set("d4 failed");
+        failed.get(RESULT, "step-2", OUTCOME).set(FAILED);
+        futures.get(1).done(failed);
+        Assert.assertEquals(3, executed.size());
+        futures.get(2).done(response(executed.get(2)));
+
+        final ModelNode response = deployment.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(FAILED, response.get(OUTCOME).asString());
+        Assert.assertEquals("d4 failed", response.get(FAILURE_DESCRIPTION).asString());
+        Assert.assertEquals(SUCCESS, response.get(RESULT, "step-1", OUTCOME).asString());
+        Assert.assertEquals(SUCCESS, response.get(RESULT, "step-2", OUTCOME).asString());
+        Assert.assertEquals("d3", response.get(RESULT, "step-3", RESULT).asString());
+        Assert.assertEquals(FAILED, response.get(RESULT, "step-4", OUTCOME).asString());
+        Assert.assertEquals("d4", response.get(RESULT, "step-4", RESULT).asString());
+        Assert.assertEquals(SUCCESS, response.get(RESULT, "step-5", OUTCOME).asString());
+    }
+
+    @Test
+    public void testBatchThatFailedToExecute() throws Exception {
+        final DefaultDeploymentOperations.BatchedDeployment deployment = batched(composite(3), 2, 1);
+        deployment.start();
+
+        futures.get(0).fail(new IllegalStateException("no controller"));
+        futures.get(1).done(response(executed.get(1)));
+
+        final ModelNode response = deployment.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(FAILED, response.get(OUTCOME).asString());
+        Assert.assertTrue(response.get(FAILURE_DESCRIPTION).asString().contains("no controller"));
+        // Without per-step results each step of the batch gets the batch's failure
+        for (String step : new String[] {"step-1", "step-2"}) {
+            Assert.assertEquals(FAILED, response.get(RESULT, step, OUTCOME).asString());
+            Assert.assertTrue(response.get(RESULT, step, FAILURE_DESCRIPTION).asString().contains("no controller"));
+        }
+        Assert.assertEquals(SUCCESS, response.get(RESULT, "step-3", OUTCOME).asString());
+    }
+
+    @Test
+    public void testBatchParallelism() throws Exception {
+        final DefaultDeploymentOperations.BatchedDeployment deployment = batched(composite(5), 1, 2);
+        deployment.start();
+        Assert.assertEquals(2, executed.size());
+
+        // Completing a batch submits the next one
+        futures.get(1).done(response(executed.get(1)));
+        Assert.assertEquals(3, executed.size());
+        Assert.assertFalse(deployment.isDone());
+
+        completeAll();
+        Assert.assertEquals(5, executed.size());
+        final ModelNode response = deployment.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(SUCCESS, response.get(OUTCOME).asString());
+        for (int i = 1; i <= 5; i++) {
+            Assert.assertEquals("d" + i, response.get(RESULT, "step-" + i, RESULT).asString());
+        }
+    }
+
+    private DefaultDeploymentOperations.BatchedDeployment batched(final ModelNode operation, final int batchSize, final int parallelism) {
+        return new DefaultDeploymentOperations.BatchedDeployment(operation, operation.get(STEPS).asList(), batchSize, parallelism, this::execute);
+    }
+
+    private AsyncFuture<ModelNode> execute(final ModelNode operation) {
+        final TestFuture future = new TestFuture();
+        executed.add(operation);
+        futures.add(future);
+        return future;
+    }
+
+    /** Completes every batch that is still running, including those submitted while doing so */
+    private void completeAll() {
+        for (int i = 0; i < futures.size(); i++) {
+            if (futures.get(i).getStatus() == AsyncFuture.Status.WAITING) {
+                futures.get(i).done(response(executed.get(i)));
+            }
+        }
+    }
+
+    private static ModelNode composite(final int count) {
+        final ModelNode operation = Util.getEmptyOperation(COMPOSITE, new ModelNode());
+        final ModelNode steps = operation.get(STEPS).setEmptyList();
+        for (int i = 1; i <= count; i++) {
+            steps.add(Util.createEmptyOperation(ADD, PathAddress.pathAddress(PathElement.pathElement(DEPLOYMENT, "d" + i))));
+        }
+        return operation;
+    }
+
+    /** The response of a successful composite, with the name of each step's deployment as its result */
+    private static ModelNode response(final ModelNode batch) {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        int i = 0;
+        for (ModelNode step : batch.get(STEPS).asList()) {
+            final ModelNode stepResponse = response.get(RESULT, "step-" + (++i));
+            stepResponse.get(OUTCOME).set(SUCCESS);
+            stepResponse.get(RESULT).set(PathAddress.pathAddress(step.get(ADDRESS)).getLastElement().getValue());
+        }
+        return response;
+    }
+
+    private static void assertBatch(final ModelNode batch, final int... deployments) {
+        final List<ModelNode> steps = batch.get(STEPS).asList();
+        Assert.assertEquals(deployments.length, steps.size());
+        for (int i = 0; i < deployments.length; i++) {
+            Assert.assertEquals("d" + deployments[i], PathAddress.pathAddress(steps.get(i).get(ADDRESS)).getLastElement().getValue());
+        }
+    }
+
+    private static class TestFuture extends AsyncFutureTask<ModelNode> {
+        TestFuture() {
+            super(null);
+        }
+
+        void done(final ModelNode result) {
+            setResult(result);
+        }
+
+        void fail(final Throwable cause) {
+            setFailed(cause);
+        }
+    }
+}
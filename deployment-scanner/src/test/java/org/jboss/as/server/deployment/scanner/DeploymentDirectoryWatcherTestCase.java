@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DeploymentDirectoryWatcher}.
+ */
+public class DeploymentDirectoryWatcherTestCase {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private AutoDeployTestSupport testSupport;
+    private DeploymentDirectoryWatcher watcher;
+
+    @Before
+    public void setUp() {
+        testSupport = new AutoDeployTestSupport(DeploymentDirectoryWatcherTestCase.class.getSimpleName());
+    }
+
+    @After
+    public void tearDown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+        testSupport.cleanupFiles();
+    }
+
+    @Test
+    public void testChangeInExplodedDeploymentInvalidatesTimestamp() throws Exception {
+        final File exploded = new File(testSupport.getTempDir(), "exploded.war");
+        final File webInf = new File(exploded, "WEB-INF");
+        assertTrue(webInf.mkdirs());
+
+        watcher = DeploymentDirectoryWatcher.create(testSupport.getTempDir());
+        assertNotNull(watcher);
+        watcher.reset();
+
+        watcher.cacheTimestamp(exploded, 1L, watcher.getModificationCount());
+        assertEquals(Long.valueOf(1L), watcher.getCachedTimestamp(exploded));
+
+        assertTrue(new File(webInf, "web.xml").createNewFile());
+        awaitChange();
+        assertNull(watcher.getCachedTimestamp(exploded));
+    }
+
+    @Test
+    public void testNewDirectoriesAreWatched() throws Exception {
+        watcher = DeploymentDirectoryWatcher.create(testSupport.getTempDir());
+        assertNotNull(watcher);
+        watcher.reset();
+
+        final File nested = new File(testSupport.getTempDir(), "nested");
+        assertTrue(nested.mkdir());
+        awaitChange();
+
+        assertTrue(new File(nested, "test.jar").createNewFile());
+        awaitChange();
+    }
+
+    @Test
+    public void testStaleTimestampNotCached() throws Exception {
+        final File exploded = new File(testSupport.getTempDir(), "exploded.war");
+        assertTrue(exploded.mkdir());
+
+        watcher = DeploymentDirectoryWatcher.create(testSupport.getTempDir());
+        assertNotNull(watcher);
+
+        final long modificationCount = watcher.getModificationCount();
+        watcher.reset();
+        watcher.cacheTimestamp(exploded, 1L, modificationCount);
+        assertNull(watcher.getCachedTimestamp(exploded));
+    }
+
+    private void awaitChange() throws InterruptedException {
+        final long end = System.currentTimeMillis() + TIMEOUT;
+        while (!watcher.consumeChanges()) {
+            assertTrue("No change reported", System.currentTimeMillis() < end);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -1920,6 +1920,16 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertNotEquals(deploymentHash, ts.controller.deployed.get("foo.war")); // should have been redeployed
     }
 
+    @Test
+    public void testResolveWatchRescanInterval() {
+        assertEquals(60000, FileSystemDeploymentService.resolveWatchRescanInterval(null));
+        assertEquals(30000, FileSystemDeploymentService.resolveWatchRescanInterval(" 30000 "));
+        assertEquals(60000, FileSystemDeploymentService.resolveWatchRescanInterval(""));
+        assertEquals(60000, FileSystemDeploymentService.resolveWatchRescanInterval("1m"));
+        assertEquals(60000, FileSystemDeploymentService.resolveWatchRescanInterval("0"));
+        assertEquals(60000, FileSystemDeploymentService.resolveWatchRescanInterval("-1"));
+    }
+
     private void testIgnoreExternalDeployment(ExternalDeployment externalDeployment) throws Exception {
         File war = createFile("foo.war");
         File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
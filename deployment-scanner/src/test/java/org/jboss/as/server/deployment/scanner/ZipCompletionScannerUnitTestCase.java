@@ -25,6 +25,7 @@ import static org.jboss.as.server.deployment.scanner.AutoDeployTestSupport.getBy
 import static org.jboss.as.server.deployment.scanner.AutoDeployTestSupport.putUnsignedShort;
 
 import java.io.File;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
@@ -262,17 +263,45 @@ public class ZipCompletionScannerUnitTestCase {
         }
     }
 
-    // This test should be reworked if Zip64 support is added
     @Test
     public void testZip64() throws Exception {
 
-        File zip = testSupport.getFile("leadingbyte.jar");
+        File zip = testSupport.getFile("zip64.jar");
 
         testSupport.createZip(zip, 0, false, false, false, true);
 
+        Assert.assertTrue(ZipCompletionScanner.isCompleteZip(zip));
+
+        File truncated = testSupport.getFile("zip64truncated.jar");
+
+        testSupport.createZip(truncated, 0, true, false, false, true);
+
+        Assert.assertTrue(ZipCompletionScanner.isCompleteZip(truncated));
+
+        // Remove the comment byte
+        try (RandomAccessFile raf = new RandomAccessFile(truncated, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+
+        Assert.assertFalse(ZipCompletionScanner.isCompleteZip(truncated));
+    }
+
+    @Test
+    public void testZip64MissingLocator() throws Exception {
+
+        File zip = testSupport.getFile("zip64nolocator.jar");
+
+        testSupport.createZip(zip, 0, false, false, false, true);
+
+        // Wipe out the Zip64 end of central directory locator signature
+        try (RandomAccessFile raf = new RandomAccessFile(zip, "rw")) {
+            raf.seek(raf.length() - ZipCompletionScanner.ENDLEN - ZipCompletionScanner.ZIP64_LOCLEN);
+            raf.writeInt(0);
+        }
+
         try {
             ZipCompletionScanner.isCompleteZip(zip);
-            Assert.fail("Scan of Zip64 file did not fail");
+            Assert.fail("Scan of Zip64 file without a locator did not fail");
         }
         catch (NonScannableZipException good) {
         }
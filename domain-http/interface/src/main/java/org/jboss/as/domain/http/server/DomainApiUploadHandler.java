@@ -29,7 +29,6 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUC
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USER;
 import static org.jboss.as.domain.http.server.logging.HttpServerLogger.ROOT_LOGGER;
 
-import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.PrintWriter;
@@ -71,7 +70,8 @@ class DomainApiUploadHandler implements HttpHandler {
             FormValue value = data.getFirst(fieldName);
             if (value.isFile()) {
                 ModelNode response = null;
-                InputStream in = new BufferedInputStream(new FileInputStream(value.getPath().toFile()));
+                // Hand over the spooled file unbuffered so the content repository can copy it channel to channel
+                InputStream in = new FileInputStream(value.getPath().toFile());
                 try {
                     final ModelNode dmr = new ModelNode();
                     dmr.get("operation").set("upload-deployment-stream");
@@ -42,9 +42,16 @@ import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -106,6 +113,7 @@ import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.PathUtil;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.DidNotReadEntireFileException;
 import org.jboss.as.version.ProductConfig;
@@ -736,26 +744,70 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 }
                 case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
                     byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                    localPath = localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                    final File deploymentRoot = localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                    // Download beside the deployment root and only move it into place once it is complete, so that
+                    // nothing checking for the root can see partial content
+                    localPath = new File(deploymentRoot.getParentFile(), deploymentRoot.getName() + ".download-" + UUID.randomUUID());
+                    resultHandler = new DeploymentDownloadResultHandler(resultHandler, deploymentRoot);
                     break;
                 }
                 default: {
                     localPath = null;
                 }
             }
+            boolean complete = false;
             try {
                 DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ROOT_LOGGER, resultHandler, context);
+                complete = true;
             } catch (CannotCreateLocalDirectoryException e) {
                 throw HostControllerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(e.getDir());
             } catch (DidNotReadEntireFileException e) {
                 throw HostControllerLogger.ROOT_LOGGER.didNotReadEntireFile(e.getMissing());
+            } finally {
+                if (!complete && rootId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT) {
+                    RemoteFileRepository.deleteDownload(localPath);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves downloaded deployment content into place before passing on the result.
+     */
+    private static final class DeploymentDownloadResultHandler implements ActiveOperation.ResultHandler<File> {
+        private final ActiveOperation.ResultHandler<File> delegate;
+        private final File deploymentRoot;
+
+        private DeploymentDownloadResultHandler(final ActiveOperation.ResultHandler<File> delegate, final File deploymentRoot) {
+            this.delegate = delegate;
+            this.deploymentRoot = deploymentRoot;
+        }
+
+        @Override
+        public boolean done(final File download) {
+            try {
+                return delegate.done(RemoteFileRepository.moveIntoPlace(download, deploymentRoot));
+            } catch (IOException e) {
+                return delegate.failed(e);
             }
         }
+
+        @Override
+        public boolean failed(final Throwable t) {
+            return delegate.failed(t);
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+        }
     }
 
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
+        /** Guards in-flight deployment content fetches, keyed by content hash */
+        private final ConcurrentMap<String, Object> pendingDeploymentFetches = new ConcurrentHashMap<>();
 
         RemoteFileRepository(final HostFileRepository localFileRepository) {
             this.localFileRepository = localFileRepository;
@@ -781,7 +833,22 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         public File getDeploymentRoot(ContentReference reference) {
             File file = localFileRepository.getDeploymentRoot(reference);
             if(! file.exists()) {
-                return getFile(reference.getHexHash(), DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+                // Content is addressed by its hash, so concurrent requests for the same hash (e.g. several servers
+                // booting with the same deployment) only need to pull the bytes from the master once
+                final String hash = reference.getHexHash();
+                final Object fetchLock = new Object();
+                final Object existing = pendingDeploymentFetches.putIfAbsent(hash, fetchLock);
+                final Object lock = existing == null ? fetchLock : existing;
+                synchronized (lock) {
+                    try {
+                        file = localFileRepository.getDeploymentRoot(reference);
+                        if (! file.exists()) {
+                            return getFile(hash, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+                        }
+                    } finally {
+                        pendingDeploymentFetches.remove(hash, lock);
+                    }
+                }
             }
             return file;
         }
@@ -790,6 +857,40 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
             return remoteFileRepositoryExecutor.getFile(relativePath, repoId, localFileRepository);
         }
 
+        /**
+         * Moves a completed download of deployment content to the deployment root. The move is atomic, so the root
+         * either doesn't exist or has all of the content.
+         *
+         * @param download the downloaded content, which doesn't exist if the content wasn't found
+         * @param deploymentRoot the deployment root
+         * @return the deployment root
+         */
+        static File moveIntoPlace(final File download, final File deploymentRoot) throws IOException {
+            if (!download.exists()) {
+                return deploymentRoot;
+            }
+            try {
+                Files.move(download.toPath(), deploymentRoot.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Put in place by someone else; the content is the same as it is addressed by its hash
+                deleteDownload(download);
+            } catch (IOException e) {
+                deleteDownload(download);
+                throw e;
+            }
+            return deploymentRoot;
+        }
+
+        static void deleteDownload(final File download) {
+            if (download != null && download.exists()) {
+                try {
+                    PathUtil.deleteRecursively(download.toPath());
+                } catch (IOException e) {
+                    ROOT_LOGGER.debugf(e, "Failed to delete %s", download);
+                }
+            }
+        }
+
         void setRemoteFileRepositoryExecutor(RemoteFileRepositoryExecutor remoteFileRepositoryExecutor) {
             this.remoteFileRepositoryExecutor = remoteFileRepositoryExecutor;
         }
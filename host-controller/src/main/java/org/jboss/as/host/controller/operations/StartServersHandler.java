@@ -24,7 +24,13 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
 import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationDefinition;
@@ -43,6 +49,8 @@ import org.jboss.as.host.controller.resources.ServerConfigResourceDefinition;
 import org.jboss.as.process.ProcessInfo;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.common.cpu.ProcessorInfo;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -53,6 +61,11 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 public class StartServersHandler implements OperationStepHandler {
 
     public static final boolean START_BLOCKING = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.host.start.servers.sequential", "false"));
+    /**
+     * Maximum number of servers that may be booting at the same time. {@code 0} (the default) launches all auto-start
+     * servers at once, {@code auto} uses the number of available processors.
+     */
+    public static final int START_CONCURRENCY = resolveStartConcurrency(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.host.start.servers.concurrency", "0"));
     public static final String OPERATION_NAME = "start-servers";
 
   //Private method does not need resources for description
@@ -109,33 +122,79 @@ public class StartServersHandler implements OperationStepHandler {
     }
 
     private void cleanStartServers(final ModelNode servers, final ModelNode domainModel, OperationContext context) throws OperationFailedException {
+        final List<String> toStart = new ArrayList<>();
         for(final Property serverProp : servers.asPropertyList()) {
             String serverName = serverProp.getName();
             if (ServerConfigResourceDefinition.AUTO_START.resolveModelAttribute(context, serverProp.getValue()).asBoolean(true)) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING, false);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                toStart.add(serverName);
             }
         }
+        startServers(toStart, domainModel);
     }
 
     private void restartedHcStartOrReconnectServers(final ModelNode servers, final ModelNode domainModel, final OperationContext context){
         Map<String, ProcessInfo> processInfos = serverInventory.determineRunningProcesses();
+        final List<String> toStart = new ArrayList<>();
         for(final String serverName : servers.keys()) {
             ProcessInfo info = processInfos.get(serverInventory.getServerProcessName(serverName));
             boolean auto = servers.get(serverName, AUTO_START).asBoolean(true);
             if (info == null && auto) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING, false);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                toStart.add(serverName);
             } else if (info != null){
                 // Reconnect the server using the current authKey
                 serverInventory.reconnectServer(serverName, domainModel, info.getAuthKey(), info.isRunning(), info.isStopping());
             }
         }
+        startServers(toStart, domainModel);
+    }
+
+    private void startServers(final List<String> serverNames, final ModelNode domainModel) {
+        if (START_BLOCKING || START_CONCURRENCY <= 0 || serverNames.size() <= START_CONCURRENCY) {
+            // Either strictly sequential or everything at once; no need for a throttle
+            for (final String serverName : serverNames) {
+                startServer(serverName, domainModel, START_BLOCKING);
+            }
+            return;
+        }
+        // Only allow START_CONCURRENCY servers to boot at any one time, without holding up the boot of the host
+        // controller while they do
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("start-servers-threads"), Boolean.TRUE, null, "%G - %t", null, null);
+        launchServers(serverNames, START_CONCURRENCY, serverName -> startServer(serverName, domainModel, true), threadFactory);
+    }
+
+    /**
+     * Launches servers in the given order, at most {@code concurrency} at a time. Each launch is expected to block until
+     * its server has started, at which point the next server is launched. Returns without waiting for any launch.
+     *
+     * @return the executor running the launches, which has already been shut down
+     */
+    static ExecutorService launchServers(final List<String> serverNames, final int concurrency, final Consumer<String> launcher,
+                                         final ThreadFactory threadFactory) {
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        for (final String serverName : serverNames) {
+            executor.execute(() -> launcher.accept(serverName));
+        }
+        // Let the threads go once every server has been launched
+        executor.shutdown();
+        return executor;
+    }
+
+    private void startServer(final String serverName, final ModelNode domainModel, final boolean blocking) {
+        try {
+            serverInventory.startServer(serverName, domainModel, blocking, false);
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToStartServer(e, serverName);
+        }
+    }
+
+    static int resolveStartConcurrency(final String value) {
+        if ("auto".equalsIgnoreCase(value)) {
+            return ProcessorInfo.availableProcessors();
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
+import org.jboss.as.repository.ContentReference;
+import org.jboss.as.repository.LocalFileRepository;
+import org.jboss.as.repository.PathUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RemoteFileRepositoryTestCase {
+
+    private static final String HASH = "0123456789abcdef0123456789abcdef01234567";
+    private static final int CONTENT_SIZE = 64 * 1024;
+
+    private File root;
+    private LocalFileRepository localRepository;
+
+    @Before
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("remote-file-repository").toFile();
+        localRepository = new LocalFileRepository(root, new File(root, "content"), new File(root, "configuration"));
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        PathUtil.deleteRecursively(root.toPath());
+    }
+
+    @Test
+    public void testConcurrentFetchesOfSameHash() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        final RemoteDomainConnectionService.RemoteFileRepository repository = new RemoteDomainConnectionService.RemoteFileRepository(localRepository);
+        repository.setRemoteFileRepositoryExecutor((relativePath, repoId, localFileRepository) -> {
+            Assert.assertEquals(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, repoId);
+            fetches.incrementAndGet();
+            return download(localFileRepository.getDeploymentRoot(reference()));
+        });
+
+        final ContentReference reference = reference();
+        final File deploymentRoot = localRepository.getDeploymentRoot(reference);
+        final AtomicBoolean partialContentSeen = new AtomicBoolean();
+        final AtomicBoolean done = new AtomicBoolean();
+        final Thread observer = new Thread(() -> {
+            // Anything that sees the deployment root must see all of its content
+            while (!done.get()) {
+                if (deploymentRoot.exists() && new File(deploymentRoot, "content").length() != CONTENT_SIZE) {
+                    partialContentSeen.set(true);
+                }
+            }
+        });
+        observer.start();
+
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<File>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return repository.getDeploymentRoot(reference);
+                }));
+            }
+            start.countDown();
+            for (Future<File> result : results) {
+                final File file = result.get(30, TimeUnit.SECONDS);
+                Assert.assertEquals(deploymentRoot, file);
+                Assert.assertEquals(CONTENT_SIZE, new File(file, "content").length());
+            }
+        } finally {
+            done.set(true);
+            observer.join();
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, fetches.get());
+        Assert.assertFalse(partialContentSeen.get());
+        // Nothing is left behind from the download
+        Assert.assertArrayEquals(new String[] {deploymentRoot.getName()}, deploymentRoot.getParentFile().list());
+    }
+
+    @Test
+    public void testMoveIntoPlaceWhenAlreadyPresent() throws Exception {
+        final File deploymentRoot = localRepository.getDeploymentRoot(reference());
+        download(deploymentRoot);
+        final File second = new File(deploymentRoot.getParentFile(), deploymentRoot.getName() + ".download-" + UUID.randomUUID());
+        writeContent(second);
+        Assert.assertEquals(deploymentRoot, RemoteDomainConnectionService.RemoteFileRepository.moveIntoPlace(second, deploymentRoot));
+        Assert.assertFalse(second.exists());
+        Assert.assertEquals(CONTENT_SIZE, new File(deploymentRoot, "content").length());
+    }
+
+    @Test
+    public void testMoveIntoPlaceWhenNotFound() throws Exception {
+        final File deploymentRoot = localRepository.getDeploymentRoot(reference());
+        final File download = new File(deploymentRoot.getParentFile(), deploymentRoot.getName() + ".download-" + UUID.randomUUID());
+        Assert.assertEquals(deploymentRoot, RemoteDomainConnectionService.RemoteFileRepository.moveIntoPlace(download, deploymentRoot));
+        Assert.assertFalse(deploymentRoot.exists());
+    }
+
+    private static ContentReference reference() {
+        return new ContentReference(HASH, HashUtil.hexStringToByteArray(HASH));
+    }
+
+    /**
+     * Does what a GetFileRequest does with deployment content: writes it beside the deployment root and moves it into
+     * place once complete.
+     */
+    private static File download(final File deploymentRoot) {
+        final File download = new File(deploymentRoot.getParentFile(), deploymentRoot.getName() + ".download-" + UUID.randomUUID());
+        try {
+            writeContent(download);
+            return RemoteDomainConnectionService.RemoteFileRepository.moveIntoPlace(download, deploymentRoot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeContent(final File dir) throws IOException {
+        Files.createDirectories(dir.toPath());
+        final byte[] chunk = new byte[1024];
+        try (OutputStream out = Files.newOutputStream(new File(dir, "content").toPath())) {
+            for (int i = 0; i < CONTENT_SIZE / chunk.length; i++) {
+                out.write(chunk);
+                // Give the other threads a chance to see partial content
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.common.cpu.ProcessorInfo;
+
+public class StartServersHandlerTestCase {
+
+    private static final List<String> SERVERS = Arrays.asList("one", "two", "three", "four", "five");
+
+    @Test
+    public void testResolveStartConcurrency() {
+        Assert.assertEquals(0, StartServersHandler.resolveStartConcurrency("0"));
+        Assert.assertEquals(4, StartServersHandler.resolveStartConcurrency("4"));
+        Assert.assertEquals(4, StartServersHandler.resolveStartConcurrency(" 4 "));
+        Assert.assertEquals(ProcessorInfo.availableProcessors(), StartServersHandler.resolveStartConcurrency("auto"));
+        Assert.assertEquals(ProcessorInfo.availableProcessors(), StartServersHandler.resolveStartConcurrency("AUTO"));
+        Assert.assertEquals(0, StartServersHandler.resolveStartConcurrency("-2"));
+        Assert.assertEquals(0, StartServersHandler.resolveStartConcurrency("many"));
+        Assert.assertEquals(0, StartServersHandler.resolveStartConcurrency(""));
+    }
+
+    @Test
+    public void testSequentialLaunchOrder() throws Exception {
+        final List<String> launched = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService executor = StartServersHandler.launchServers(SERVERS, 1, launched::add, Executors.defaultThreadFactory());
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(SERVERS, launched);
+    }
+
+    @Test
+    public void testLaunchesAreThrottledWithoutBlocking() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<String> launched = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService executor = StartServersHandler.launchServers(SERVERS, 2, serverName -> {
+            final int count = running.incrementAndGet();
+            maxRunning.accumulateAndGet(count, Math::max);
+            launched.add(serverName);
+            try {
+                // Servers only finish starting once the caller has got control back
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        }, Executors.defaultThreadFactory());
+
+        // The caller isn't held up by servers that are still starting, and only the first two have been launched
+        Assert.assertFalse(executor.isTerminated());
+        final long end = System.currentTimeMillis() + 10000;
+        while (running.get() < 2) {
+            Assert.assertTrue(System.currentTimeMillis() < end);
+            Thread.yield();
+        }
+        Thread.sleep(100);
+        Assert.assertEquals(2, launched.size());
+        Assert.assertTrue(launched.containsAll(SERVERS.subList(0, 2)));
+        started.countDown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, maxRunning.get());
+        Assert.assertTrue(launched.containsAll(SERVERS));
+    }
+}
@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -39,12 +40,16 @@ import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.wildfly.extension.io.logging.IOLogger;
 import org.xnio.Pool;
 
 /**
@@ -95,6 +100,33 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
             .setAllowExpression(true)
             .build();
+    static final SimpleAttributeDefinition THREAD_LOCAL_CACHE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.THREAD_LOCAL_CACHE_SIZE, ModelType.INT, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setDefaultValue(new ModelNode(SlicedBufferPool.DEFAULT_THREAD_LOCAL_CACHE_SIZE))
+            .build();
+    static final SimpleAttributeDefinition ADAPTIVE_THREAD_LOCAL_CACHE = new SimpleAttributeDefinitionBuilder(Constants.ADAPTIVE_THREAD_LOCAL_CACHE, ModelType.BOOLEAN, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
+    static final SimpleAttributeDefinition ALLOCATIONS = new SimpleAttributeDefinitionBuilder(Constants.ALLOCATIONS, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).build();
+    static final SimpleAttributeDefinition HITS = new SimpleAttributeDefinitionBuilder(Constants.HITS, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).build();
+    static final SimpleAttributeDefinition THREAD_LOCAL_HITS = new SimpleAttributeDefinitionBuilder(Constants.THREAD_LOCAL_HITS, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).build();
+    static final SimpleAttributeDefinition MISSES = new SimpleAttributeDefinitionBuilder(Constants.MISSES, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).build();
+    static final SimpleAttributeDefinition OUTSTANDING_BUFFERS = new SimpleAttributeDefinitionBuilder(Constants.OUTSTANDING_BUFFERS, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).build();
+    static final SimpleAttributeDefinition LEAKED_BUFFERS = new SimpleAttributeDefinitionBuilder(Constants.LEAKED_BUFFERS, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L)).build();
+    static final SimpleAttributeDefinition ALLOCATED_MEMORY = new SimpleAttributeDefinitionBuilder(Constants.ALLOCATED_MEMORY, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setUndefinedMetricValue(new ModelNode(0L)).build();
 
 
     /*<buffer-pool name="default" buffer-size="1024" buffers-per-slice="1024"/>*/
@@ -102,7 +134,19 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
     static List<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             BUFFER_SIZE,
             BUFFER_PER_SLICE,
-            DIRECT_BUFFERS
+            DIRECT_BUFFERS,
+            THREAD_LOCAL_CACHE_SIZE,
+            ADAPTIVE_THREAD_LOCAL_CACHE
+    );
+
+    static final List<SimpleAttributeDefinition> METRICS = Arrays.asList(
+            ALLOCATIONS,
+            HITS,
+            THREAD_LOCAL_HITS,
+            MISSES,
+            OUTSTANDING_BUFFERS,
+            LEAKED_BUFFERS,
+            ALLOCATED_MEMORY
     );
 
 
@@ -123,6 +167,14 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
         return (Collection) ATTRIBUTES;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (SimpleAttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, BufferPoolMetricsHandler.INSTANCE);
+        }
+    }
+
     @Override
     public void registerCapabilities(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerCapability(IO_POOL_RUNTIME_CAPABILITY);
@@ -145,12 +197,48 @@ class BufferPoolResourceDefinition extends PersistentResourceDefinition {
             final int bufferSize = bufferSizeModel.isDefined() ? bufferSizeModel.asInt() : defaultBufferSize;
             final int bufferPerSlice = bufferPerSliceModel.isDefined() ? bufferPerSliceModel.asInt() : defaultBuffersPerRegion;
             final boolean direct = directModel.isDefined() ? directModel.asBoolean() : defaultDirectBuffers;
+            final int threadLocalCacheSize = THREAD_LOCAL_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
+            final boolean adaptive = ADAPTIVE_THREAD_LOCAL_CACHE.resolveModelAttribute(context, model).asBoolean();
 
-            final BufferPoolService service = new BufferPoolService(bufferSize, bufferPerSlice, direct);
+            final BufferPoolService service = new BufferPoolService(bufferSize, bufferPerSlice, direct, threadLocalCacheSize, adaptive);
             context.getCapabilityServiceTarget().addCapability(IO_POOL_RUNTIME_CAPABILITY, service)
                     .setInitialMode(ServiceController.Mode.ACTIVE)
                     .install();
 
         }
     }
+
+    private static class BufferPoolMetricsHandler extends AbstractRuntimeOnlyHandler {
+        static final BufferPoolMetricsHandler INSTANCE = new BufferPoolMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final ServiceName serviceName = IO_POOL_RUNTIME_CAPABILITY.getCapabilityServiceName(context.getCurrentAddressValue(), Pool.class);
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+            if (controller == null || controller.getState() != ServiceController.State.UP
+                    || !(controller.getValue() instanceof SlicedBufferPool)) {
+                return;
+            }
+            final SlicedBufferPool pool = (SlicedBufferPool) controller.getValue();
+            final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+            final ModelNode result = context.getResult();
+            if (ALLOCATIONS.getName().equals(name)) {
+                result.set(pool.getAllocations());
+            } else if (HITS.getName().equals(name)) {
+                result.set(pool.getAllocations() - pool.getMisses());
+            } else if (THREAD_LOCAL_HITS.getName().equals(name)) {
+                result.set(pool.getThreadLocalHits());
+            } else if (MISSES.getName().equals(name)) {
+                result.set(pool.getMisses());
+            } else if (OUTSTANDING_BUFFERS.getName().equals(name)) {
+                result.set(pool.getOutstandingBuffers());
+            } else if (LEAKED_BUFFERS.getName().equals(name)) {
+                result.set(pool.getLeakedBuffers());
+            } else if (ALLOCATED_MEMORY.getName().equals(name)) {
+                result.set(pool.getAllocatedMemory());
+            } else {
+                throw new OperationFailedException(IOLogger.ROOT_LOGGER.noMetrics());
+            }
+        }
+    }
 }
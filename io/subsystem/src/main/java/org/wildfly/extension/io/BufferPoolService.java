@@ -31,7 +31,6 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.xnio.BufferAllocator;
-import org.xnio.ByteBufferSlicePool;
 import org.xnio.Pool;
 
 /**
@@ -43,16 +42,26 @@ public class BufferPoolService implements Service<Pool<ByteBuffer>> {
     private final int bufferSize;
     private final int buffersPerSlice;
     private final boolean directBuffers;
+    private final int threadLocalCacheSize;
+    private final boolean adaptiveThreadLocalCache;
 
     public BufferPoolService(int bufferSize, int buffersPerSlice, final boolean directBuffers) {
+        this(bufferSize, buffersPerSlice, directBuffers, SlicedBufferPool.DEFAULT_THREAD_LOCAL_CACHE_SIZE, false);
+    }
+
+    public BufferPoolService(int bufferSize, int buffersPerSlice, final boolean directBuffers, final int threadLocalCacheSize,
+                             final boolean adaptiveThreadLocalCache) {
         this.bufferSize = bufferSize;
         this.buffersPerSlice = buffersPerSlice;
         this.directBuffers = directBuffers;
+        this.threadLocalCacheSize = threadLocalCacheSize;
+        this.adaptiveThreadLocalCache = adaptiveThreadLocalCache;
     }
 
     @Override
     public void start(StartContext context) throws StartException {
-        bufferPool = new ByteBufferSlicePool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR, bufferSize, buffersPerSlice * bufferSize);
+        bufferPool = new SlicedBufferPool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR,
+                bufferSize, buffersPerSlice, directBuffers, threadLocalCacheSize, adaptiveThreadLocalCache);
     }
 
     @Override
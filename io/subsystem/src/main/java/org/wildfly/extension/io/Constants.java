@@ -32,12 +32,27 @@ interface Constants {
     String BUFFER_SIZE = "buffer-size";
     String BUFFER_PER_SLICE = "buffers-per-slice";
     String DIRECT_BUFFERS = "direct-buffers";
+    String THREAD_LOCAL_CACHE_SIZE = "thread-local-cache-size";
+    String ADAPTIVE_THREAD_LOCAL_CACHE = "adaptive-thread-local-cache";
+    String ALLOCATIONS = "allocations";
+    String HITS = "hits";
+    String THREAD_LOCAL_HITS = "thread-local-hits";
+    String MISSES = "misses";
+    String OUTSTANDING_BUFFERS = "outstanding-buffers";
+    String LEAKED_BUFFERS = "leaked-buffers";
+    String ALLOCATED_MEMORY = "allocated-memory";
     String WORKER = "worker";
     String WORKER_IO_THREADS = "io-threads";
     String WORKER_TASK_CORE_THREADS = "task-core-threads";
     String WORKER_TASK_KEEPALIVE = "task-keepalive";
     String WORKER_TASK_LIMIT = "task-limit";
     String WORKER_TASK_MAX_THREADS = "task-max-threads";
+    String CPU_PARTITION = "cpu-partition";
+    String IO_THREAD_LOAD = "io-thread-load";
+    String IO_THREAD_IMBALANCE = "io-thread-imbalance";
+    String CPU_TIME = "cpu-time";
+    String LOAD = "load";
+    String WORKER_TASK_VIRTUAL_THREADS = "task-virtual-threads";
     String THREAD_DAEMON = "thread-daemon";
     String STACK_SIZE = "stack-size";
 }
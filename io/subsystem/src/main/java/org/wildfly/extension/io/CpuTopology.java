@@ -0,0 +1,265 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.List;
+
+import org.wildfly.common.cpu.ProcessorInfo;
+
+/**
+ * The processors this process may run on, used to size workers.
+ * <p/>
+ * A worker may be sized for a partition of the processors rather than for all of them, given either as a NUMA node,
+ * such as {@code node1}, or as a list of CPUs in the format Linux uses, such as {@code 0-23,48-71}. The processor count
+ * of a partition is the number of its CPUs that the process may run on, reduced to the partition's share of the CPU
+ * quota of the process's cgroup, if there is one.
+ * <p/>
+ * The topology is read from {@code /proc} and {@code /sys}. Where those aren't available all the processors reported by
+ * the JVM are assumed to be CPUs {@code 0} to {@code n - 1}, and no NUMA nodes are known.
+ */
+final class CpuTopology {
+
+    private static final String NODE_PREFIX = "node";
+    private static final Path PROC_STATUS = Paths.get("/proc/self/status");
+    private static final Path PROC_CGROUP = Paths.get("/proc/self/cgroup");
+    private static final Path NODES = Paths.get("/sys/devices/system/node");
+    private static final Path CGROUP = Paths.get("/sys/fs/cgroup");
+    /** The highest number of CPUs Linux can be configured for, which bounds the CPU indexes of a list */
+    static final int MAX_CPUS = 8192;
+
+    /** The CPUs the process may run on */
+    private final BitSet available;
+    /** The CPU quota of the process in processors, or {@code 0} if it has none */
+    private final double quota;
+
+    CpuTopology(final BitSet available, final double quota) {
+        this.available = available;
+        this.quota = quota;
+    }
+
+    /**
+     * Reads the current topology.
+     *
+     * @return the topology
+     */
+    static CpuTopology read() {
+        return read(PROC_STATUS, PROC_CGROUP, CGROUP);
+    }
+
+    static CpuTopology read(final Path procStatus, final Path procCgroup, final Path cgroupRoot) {
+        BitSet available = null;
+        final List<String> status = readLines(procStatus);
+        if (status != null) {
+            for (String line : status) {
+                if (line.startsWith("Cpus_allowed_list:")) {
+                    try {
+                        available = parseCpuList(line.substring(line.indexOf(':') + 1));
+                    } catch (IllegalArgumentException e) {
+                        available = null;
+                    }
+                    break;
+                }
+            }
+        }
+        if (available == null || available.isEmpty()) {
+            available = new BitSet();
+            available.set(0, ProcessorInfo.availableProcessors());
+        }
+        return new CpuTopology(available, readQuota(procCgroup, cgroupRoot));
+    }
+
+    /**
+     * Gets the number of processors available to the process.
+     *
+     * @return the processor count, at least {@code 1}
+     */
+    int getCpuCount() {
+        return getCpuCount(available);
+    }
+
+    /**
+     * Gets the number of processors of a partition that are available to the process.
+     *
+     * @param partition the CPUs of the partition
+     * @return the processor count, or {@code 0} if none of the CPUs of the partition are available to the process
+     */
+    int getCpuCount(final BitSet partition) {
+        final BitSet cpus = (BitSet) partition.clone();
+        cpus.and(available);
+        final int count = cpus.cardinality();
+        if (count == 0 || quota <= 0) {
+            return count;
+        }
+        final int limit = (int) Math.ceil(quota * count / available.cardinality());
+        return Math.max(1, Math.min(count, limit));
+    }
+
+    /**
+     * Resolves the CPUs of a partition.
+     *
+     * @param partition a NUMA node such as {@code node1}, or a list of CPUs such as {@code 0-23,48-71}
+     * @return the CPUs, or {@code null} if the partition is a NUMA node that isn't known
+     * @throws IllegalArgumentException if the partition is neither a NUMA node nor a list of CPUs
+     */
+    static BitSet getPartition(final String partition) {
+        return getPartition(partition, NODES);
+    }
+
+    static BitSet getPartition(final String partition, final Path nodes) {
+        final String value = partition.trim();
+        if (value.startsWith(NODE_PREFIX)) {
+            final int node;
+            try {
+                node = Integer.parseInt(value.substring(NODE_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(partition);
+            }
+            if (node < 0) {
+                throw new IllegalArgumentException(partition);
+            }
+            final List<String> cpuList = readLines(nodes.resolve(NODE_PREFIX + node).resolve("cpulist"));
+            return cpuList == null || cpuList.isEmpty() ? null : parseCpuList(cpuList.get(0));
+        }
+        final BitSet cpus = parseCpuList(value);
+        if (cpus.isEmpty()) {
+            throw new IllegalArgumentException(partition);
+        }
+        return cpus;
+    }
+
+    /**
+     * Parses a list of CPUs such as {@code 0-3,8,10-11}.
+     *
+     * @throws IllegalArgumentException if the list is malformed or has a CPU index of {@link #MAX_CPUS} or more
+     */
+    static BitSet parseCpuList(final String list) {
+        final BitSet cpus = new BitSet();
+        for (String range : list.trim().split(",")) {
+            range = range.trim();
+            if (range.isEmpty()) {
+                continue;
+            }
+            final int idx = range.indexOf('-');
+            try {
+                final int first = Integer.parseInt(idx < 0 ? range : range.substring(0, idx).trim());
+                final int last = idx < 0 ? first : Integer.parseInt(range.substring(idx + 1).trim());
+                if (first < 0 || last < first || last >= MAX_CPUS) {
+                    throw new IllegalArgumentException(list);
+                }
+                cpus.set(first, last + 1);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(list);
+            }
+        }
+        return cpus;
+    }
+
+    /**
+     * Reads the lowest CPU quota of the cgroup of the process and its ancestors, which is where the kernel enforces
+     * it. Inside a container the cgroup is usually mounted as the root, in which case it is read from there instead.
+     */
+    static double readQuota(final Path procCgroup, final Path cgroupRoot) {
+        final List<String> cgroups = readLines(procCgroup);
+        if (cgroups == null) {
+            return 0;
+        }
+        double quota = 0;
+        for (String line : cgroups) {
+            // hierarchy-id:controllers:path
+            final String[] fields = line.split(":", 3);
+            if (fields.length != 3) {
+                continue;
+            }
+            final boolean v2 = fields[1].isEmpty();
+            Path mount = null;
+            if (v2) {
+                mount = cgroupRoot;
+            } else {
+                for (String controller : fields[1].split(",")) {
+                    if (controller.equals("cpu")) {
+                        mount = Files.isDirectory(cgroupRoot.resolve(fields[1])) ? cgroupRoot.resolve(fields[1]) : cgroupRoot.resolve("cpu");
+                        break;
+                    }
+                }
+            }
+            if (mount == null) {
+                continue;
+            }
+            Path dir = mount.resolve(fields[2].startsWith("/") ? fields[2].substring(1) : fields[2]).normalize();
+            if (!dir.startsWith(mount) || !Files.isDirectory(dir)) {
+                dir = mount;
+            }
+            for (; dir != null && dir.startsWith(mount); dir = dir.getParent()) {
+                final double limit = v2 ? readQuotaV2(dir) : readQuotaV1(dir);
+                if (limit > 0 && (quota <= 0 || limit < quota)) {
+                    quota = limit;
+                }
+            }
+        }
+        return quota;
+    }
+
+    static double readQuotaV2(final Path dir) {
+        // "max 100000" or "<quota> <period>"
+        final List<String> lines = readLines(dir.resolve("cpu.max"));
+        if (lines == null || lines.isEmpty()) {
+            return 0;
+        }
+        final String[] fields = lines.get(0).trim().split("\\s+");
+        return fields.length == 2 ? divide(fields[0], fields[1]) : 0;
+    }
+
+    static double readQuotaV1(final Path dir) {
+        final List<String> quota = readLines(dir.resolve("cpu.cfs_quota_us"));
+        final List<String> period = readLines(dir.resolve("cpu.cfs_period_us"));
+        if (quota == null || quota.isEmpty() || period == null || period.isEmpty()) {
+            return 0;
+        }
+        return divide(quota.get(0).trim(), period.get(0).trim());
+    }
+
+    private static double divide(final String quota, final String period) {
+        try {
+            final long q = Long.parseLong(quota);
+            final long p = Long.parseLong(period);
+            return q > 0 && p > 0 ? (double) q / p : 0;
+        } catch (NumberFormatException e) {
+            // "max" or "-1", no quota
+            return 0;
+        }
+    }
+
+    private static List<String> readLines(final Path path) {
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+}
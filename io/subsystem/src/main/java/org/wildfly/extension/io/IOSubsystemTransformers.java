@@ -24,15 +24,18 @@ import org.jboss.as.controller.transform.ExtensionTransformerRegistration;
 import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
 import org.jboss.as.controller.transform.description.AttributeConverter;
 import org.jboss.as.controller.transform.description.ChainedTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.dmr.ModelNode;
 
 /**
  * @author Tomaz Cerar (c) 2017 Red Hat Inc.
  */
 public class IOSubsystemTransformers implements ExtensionTransformerRegistration {
     static final ModelVersion VERSION_2_0 = ModelVersion.create(2, 0);
+    static final ModelVersion VERSION_4_0 = ModelVersion.create(4, 0);
 
 
     @Override
@@ -44,10 +47,28 @@ public class IOSubsystemTransformers implements ExtensionTransformerRegistration
     public void registerTransformers(SubsystemTransformerRegistration registration) {
         ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(registration.getCurrentSubsystemVersion());
 
-        // Current 3.0.0 to 2.0.0, aka EAP 7.0.0
-        buildTransformers_2_0(chainedBuilder.createBuilder(registration.getCurrentSubsystemVersion(), VERSION_2_0));
+        // Current 4.1.0 to 4.0.0
+        buildTransformers_4_0(chainedBuilder.createBuilder(registration.getCurrentSubsystemVersion(), VERSION_4_0));
+        // 4.0.0 to 2.0.0, aka EAP 7.0.0
+        buildTransformers_2_0(chainedBuilder.createBuilder(VERSION_4_0, VERSION_2_0));
 
-        chainedBuilder.buildAndRegister(registration, new ModelVersion[]{VERSION_2_0});
+        chainedBuilder.buildAndRegister(registration, new ModelVersion[]{VERSION_2_0, VERSION_4_0});
+    }
+
+    private void buildTransformers_4_0(ResourceTransformationDescriptionBuilder builder) {
+        builder.addChildResource(WorkerResourceDefinition.INSTANCE.getPathElement())
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), WorkerResourceDefinition.WORKER_TASK_VIRTUAL_THREADS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, WorkerResourceDefinition.WORKER_TASK_VIRTUAL_THREADS)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, WorkerResourceDefinition.CPU_PARTITION)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, WorkerResourceDefinition.CPU_PARTITION)
+                .end();
+        builder.addChildResource(BufferPoolResourceDefinition.INSTANCE.getPathElement())
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(SlicedBufferPool.DEFAULT_THREAD_LOCAL_CACHE_SIZE)), BufferPoolResourceDefinition.THREAD_LOCAL_CACHE_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), BufferPoolResourceDefinition.ADAPTIVE_THREAD_LOCAL_CACHE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, BufferPoolResourceDefinition.THREAD_LOCAL_CACHE_SIZE, BufferPoolResourceDefinition.ADAPTIVE_THREAD_LOCAL_CACHE)
+                .end();
     }
 
     private void buildTransformers_2_0(ResourceTransformationDescriptionBuilder builder) {
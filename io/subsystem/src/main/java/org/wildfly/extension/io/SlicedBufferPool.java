@@ -0,0 +1,387 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.extension.io.logging.IOLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+import org.xnio.BufferAllocator;
+import org.xnio.Pool;
+import org.xnio.Pooled;
+
+/**
+ * A pool of buffers sliced from larger regions of memory, like {@link org.xnio.ByteBufferSlicePool}, which also
+ * records how it is used.
+ * <p/>
+ * Freed buffers are kept in a cache of the freeing thread, up to the thread's cache size, and otherwise returned to a
+ * queue shared by all threads. A buffer is allocated from the allocating thread's cache if possible, then from the
+ * shared queue, and only if both are empty is a new region allocated. If the cache size is adaptive, each thread's
+ * cache starts small and every {@link #ADAPT_INTERVAL} allocations grows if the thread found its cache empty, or
+ * shrinks to release the buffers that stayed unused to the shared queue. Buffers cached by threads that have died
+ * are returned to the shared queue before a new region is allocated.
+ * <p/>
+ * If leak tracking is enabled, a buffer whose {@link Pooled} is garbage collected without having been freed is counted
+ * as leaked. The buffer is not returned to the pool, as whoever dropped the {@link Pooled} may still be using the
+ * buffer itself. Tracking costs a reference per allocation, so it is off unless the
+ * {@code org.wildfly.io.buffer-pool.track-leaks} system property is {@code true}.
+ */
+final class SlicedBufferPool implements Pool<ByteBuffer> {
+
+    /** The default maximum number of buffers cached by each thread, the same as that of the XNIO pool */
+    static final int DEFAULT_THREAD_LOCAL_CACHE_SIZE = 12;
+    /** The number of allocations by a thread between adjustments of its cache size, if the size is adaptive */
+    static final int ADAPT_INTERVAL = 64;
+    private static final boolean TRACK_LEAKS = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("org.wildfly.io.buffer-pool.track-leaks", "false"));
+
+    private final BufferAllocator<ByteBuffer> allocator;
+    private final int bufferSize;
+    private final int buffersPerRegion;
+    private final boolean direct;
+    private final int threadLocalCacheSize;
+    private final boolean adaptive;
+    private final boolean trackLeaks;
+
+    private final Queue<ByteBuffer> sharedQueue = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Cache> localCache = new ThreadLocal<>();
+    /** The caches of all threads, so the buffers of threads that have died can be recovered */
+    private final Queue<Cache> caches = new ConcurrentLinkedQueue<>();
+    /** Keeps the references tracking allocated buffers reachable until their buffers are freed */
+    private final Set<Ref> refs = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<PooledBuffer> leakQueue = new ReferenceQueue<>();
+    private final Object regionLock = new Object();
+
+    private volatile int regions;
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder threadLocalHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    /**
+     * @param direct whether the allocator allocates direct buffers
+     * @param threadLocalCacheSize the maximum number of buffers cached by each thread
+     * @param adaptive whether each thread's cache size adapts to the thread's demand, up to {@code threadLocalCacheSize}
+     */
+    SlicedBufferPool(final BufferAllocator<ByteBuffer> allocator, final int bufferSize, final int buffersPerRegion,
+                     final boolean direct, final int threadLocalCacheSize, final boolean adaptive) {
+        this(allocator, bufferSize, buffersPerRegion, direct, threadLocalCacheSize, adaptive, TRACK_LEAKS);
+    }
+
+    SlicedBufferPool(final BufferAllocator<ByteBuffer> allocator, final int bufferSize, final int buffersPerRegion,
+                     final boolean direct, final int threadLocalCacheSize, final boolean adaptive, final boolean trackLeaks) {
+        this.allocator = allocator;
+        this.bufferSize = bufferSize;
+        this.buffersPerRegion = buffersPerRegion;
+        this.direct = direct;
+        this.threadLocalCacheSize = threadLocalCacheSize;
+        this.adaptive = adaptive;
+        this.trackLeaks = trackLeaks;
+    }
+
+    @Override
+    public Pooled<ByteBuffer> allocate() {
+        if (trackLeaks) {
+            countLeaks();
+        }
+        allocations.increment();
+        final Cache cache = getCache();
+        ByteBuffer buffer = cache.poll();
+        if (buffer != null) {
+            threadLocalHits.increment();
+        } else {
+            buffer = sharedQueue.poll();
+            if (buffer == null) {
+                buffer = allocateRegion();
+            }
+        }
+        final PooledBuffer pooled = new PooledBuffer(buffer);
+        if (pooled.ref != null) {
+            refs.add(pooled.ref);
+        }
+        return pooled;
+    }
+
+    private Cache getCache() {
+        Cache cache = localCache.get();
+        if (cache == null) {
+            cache = new Cache(Thread.currentThread(), adaptive ? Math.min(2, threadLocalCacheSize) : threadLocalCacheSize);
+            localCache.set(cache);
+            // Threads come and go, so drop the caches of dead threads as new ones are created
+            recoverDeadThreadCaches();
+            caches.add(cache);
+        }
+        return cache;
+    }
+
+    private ByteBuffer allocateRegion() {
+        synchronized (regionLock) {
+            // Another thread may have allocated a region, or buffers may be stranded in dead threads' caches
+            ByteBuffer buffer = sharedQueue.poll();
+            if (buffer == null) {
+                recoverDeadThreadCaches();
+                buffer = sharedQueue.poll();
+            }
+            if (buffer != null) {
+                return buffer;
+            }
+            misses.increment();
+            final ByteBuffer region = allocator.allocate(bufferSize * buffersPerRegion);
+            for (int i = 1; i < buffersPerRegion; i++) {
+                sharedQueue.add(slice(region, i));
+            }
+            regions++;
+            return slice(region, 0);
+        }
+    }
+
+    private ByteBuffer slice(final ByteBuffer region, final int index) {
+        region.limit((index + 1) * bufferSize).position(index * bufferSize);
+        return region.slice();
+    }
+
+    private void recoverDeadThreadCaches() {
+        synchronized (regionLock) {
+            final Iterator<Cache> iterator = caches.iterator();
+            while (iterator.hasNext()) {
+                final Cache cache = iterator.next();
+                final Thread owner = cache.owner.get();
+                // A dead thread's cache is safe to use, as the thread's actions happen before it is seen to have died
+                if (owner == null || !owner.isAlive()) {
+                    iterator.remove();
+                    ByteBuffer buffer;
+                    while ((buffer = cache.buffers.poll()) != null) {
+                        sharedQueue.add(buffer);
+                    }
+                }
+            }
+        }
+    }
+
+    private void countLeaks() {
+        Reference<? extends PooledBuffer> reference;
+        while ((reference = leakQueue.poll()) != null) {
+            if (refs.remove(reference)) {
+                leaks.increment();
+                releases.increment();
+            }
+        }
+    }
+
+    private void untrack(final Ref ref) {
+        if (ref != null) {
+            refs.remove(ref);
+            ref.clear();
+        }
+    }
+
+    private void release(final ByteBuffer buffer) {
+        releases.increment();
+        buffer.clear();
+        if (!getCache().offer(buffer)) {
+            sharedQueue.add(buffer);
+        }
+    }
+
+    /**
+     * Gets the number of buffers allocated.
+     */
+    long getAllocations() {
+        return allocations.sum();
+    }
+
+    /**
+     * Gets the number of allocations served by the allocating thread's cache.
+     */
+    long getThreadLocalHits() {
+        return threadLocalHits.sum();
+    }
+
+    /**
+     * Gets the number of allocations that had to allocate a new region of memory.
+     */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of buffers allocated and neither freed, discarded nor leaked.
+     */
+    long getOutstandingBuffers() {
+        if (trackLeaks) {
+            countLeaks();
+        }
+        return Math.max(0L, allocations.sum() - releases.sum());
+    }
+
+    /**
+     * Gets the number of buffers that were never freed, if leaks are tracked.
+     */
+    long getLeakedBuffers() {
+        if (trackLeaks) {
+            countLeaks();
+        }
+        return leaks.sum();
+    }
+
+    /**
+     * Gets the size in bytes of the memory allocated by the pool.
+     */
+    long getAllocatedMemory() {
+        return (long) regions * bufferSize * buffersPerRegion;
+    }
+
+    boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * The buffers cached by a thread. Only used by its owner, unless the owner has died.
+     */
+    private final class Cache {
+        private final WeakReference<Thread> owner;
+        private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+        private int size;
+        private int allocations;
+        private int empty;
+        /** The fewest buffers left in the cache by an allocation since the last adjustment */
+        private int lowWater = Integer.MAX_VALUE;
+
+        Cache(final Thread owner, final int size) {
+            this.owner = new WeakReference<>(owner);
+            this.size = size;
+        }
+
+        ByteBuffer poll() {
+            final ByteBuffer buffer = buffers.pollFirst();
+            if (adaptive) {
+                if (buffer == null) {
+                    empty++;
+                } else if (buffers.size() < lowWater) {
+                    lowWater = buffers.size();
+                }
+                if (++allocations == ADAPT_INTERVAL) {
+                    adapt();
+                }
+            }
+            return buffer;
+        }
+
+        boolean offer(final ByteBuffer buffer) {
+            if (buffers.size() < size) {
+                buffers.addFirst(buffer);
+                return true;
+            }
+            return false;
+        }
+
+        private void adapt() {
+            if (empty > 0) {
+                // Demand exceeded the cache
+                size = Math.min(threadLocalCacheSize, Math.max(1, size * 2));
+            } else if (lowWater > 0) {
+                // Some buffers were never needed; release half of them
+                size = Math.max(1, size - (lowWater + 1) / 2);
+                while (buffers.size() > size) {
+                    sharedQueue.add(buffers.pollLast());
+                }
+            }
+            allocations = 0;
+            empty = 0;
+            lowWater = Integer.MAX_VALUE;
+        }
+    }
+
+    private final class PooledBuffer implements Pooled<ByteBuffer> {
+        private final ByteBuffer buffer;
+        /** The leak tracking reference, if leaks are tracked */
+        private final Ref ref;
+        // Not private, so the field updater can access it
+        volatile int freed;
+
+        PooledBuffer(final ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.ref = trackLeaks ? new Ref(this, leakQueue) : null;
+        }
+
+        @Override
+        public void discard() {
+            if (FREED_UPDATER.compareAndSet(this, 0, 1)) {
+                untrack(ref);
+                releases.increment();
+            }
+        }
+
+        @Override
+        public void free() {
+            if (FREED_UPDATER.compareAndSet(this, 0, 1)) {
+                untrack(ref);
+                release(buffer);
+            }
+        }
+
+        @Override
+        public ByteBuffer getResource() throws IllegalStateException {
+            if (freed != 0) {
+                throw IOLogger.ROOT_LOGGER.bufferFreed();
+            }
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            free();
+        }
+
+        @Override
+        public String toString() {
+            return "Pooled buffer " + buffer;
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<PooledBuffer> FREED_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(PooledBuffer.class, "freed");
+
+    /**
+     * Tracks a {@link PooledBuffer}, so it can be counted as leaked if it is collected without being freed. It does not
+     * hold the buffer, which may still be in use.
+     */
+    private static final class Ref extends PhantomReference<PooledBuffer> {
+        Ref(final PooledBuffer referent, final ReferenceQueue<? super PooledBuffer> queue) {
+            super(referent, queue);
+        }
+    }
+}
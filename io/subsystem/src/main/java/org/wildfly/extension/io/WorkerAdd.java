@@ -25,12 +25,15 @@
 package org.wildfly.extension.io;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
-import static org.wildfly.extension.io.WorkerResourceDefinition.ATTRIBUTES;
+import static org.wildfly.extension.io.WorkerResourceDefinition.CPU_PARTITION;
+import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_ATTRIBUTES;
 import static org.wildfly.extension.io.WorkerResourceDefinition.IO_WORKER_RUNTIME_CAPABILITY;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_IO_THREADS;
 import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_TASK_MAX_THREADS;
+import static org.wildfly.extension.io.WorkerResourceDefinition.WORKER_TASK_VIRTUAL_THREADS;
 
 import java.lang.management.ManagementFactory;
+import java.util.BitSet;
 
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
@@ -45,7 +48,6 @@ import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
-import org.wildfly.common.cpu.ProcessorInfo;
 import org.wildfly.extension.io.logging.IOLogger;
 import org.xnio.Option;
 import org.xnio.OptionMap;
@@ -59,7 +61,7 @@ class WorkerAdd extends AbstractAddStepHandler {
     static final WorkerAdd INSTANCE = new WorkerAdd();
 
     private WorkerAdd() {
-        super(ATTRIBUTES);
+        super(WORKER_ATTRIBUTES);
     }
 
     private static int getMaxDescriptorCount() {
@@ -77,24 +79,54 @@ class WorkerAdd extends AbstractAddStepHandler {
         IOLogger.ROOT_LOGGER.tracef("We cannot get MaxFileDescriptorCount from system, not applying any limits");
         return -1;
     }
-    private static int getCpuCount(){
-        return ProcessorInfo.availableProcessors();
+    /**
+     * Gets the number of processors to size a worker for, which are those of its CPU partition if it has one.
+     *
+     * @param workerName the name of the worker, or {@code null} to not log anything
+     */
+    private static int getCpuCount(final CpuTopology topology, final String partition, final String workerName) throws OperationFailedException {
+        final int cpuCount = topology.getCpuCount();
+        if (partition == null) {
+            return cpuCount;
+        }
+        final BitSet cpus;
+        try {
+            cpus = CpuTopology.getPartition(partition);
+        } catch (IllegalArgumentException e) {
+            throw IOLogger.ROOT_LOGGER.invalidCpuPartition(partition);
+        }
+        final int partitionCpuCount = cpus == null ? 0 : topology.getCpuCount(cpus);
+        if (partitionCpuCount == 0) {
+            if (workerName != null) {
+                IOLogger.ROOT_LOGGER.cpuPartitionNotAvailable(partition, workerName, cpuCount);
+            }
+            return cpuCount;
+        }
+        if (workerName != null) {
+            IOLogger.ROOT_LOGGER.cpuPartition(workerName, partitionCpuCount, partition);
+        }
+        return partitionCpuCount;
+    }
+
+    private static String getCpuPartition(final OperationContext context, final ModelNode worker) throws OperationFailedException {
+        final ModelNode partition = CPU_PARTITION.resolveModelAttribute(context, worker);
+        return partition.isDefined() ? partition.asString() : null;
     }
 
     private static int getMaxPossibleThreadCount(int maxFD) {
         return (maxFD - 600) / 3; //each thread uses two FDs + some overhead;
     }
 
-    private static int getSuggestedTaskCount() {
-        return getCpuCount() * 16;
+    private static int getSuggestedTaskCount(int cpuCount) {
+        return cpuCount * 16;
     }
 
-    private static int getSuggestedIoThreadCount() {
-        return getCpuCount() * 2;
+    private static int getSuggestedIoThreadCount(int cpuCount) {
+        return cpuCount * 2;
     }
 
-    private static int getWorkerThreads(String workerName, int totalWorkerCount) {
-        int suggestedCount = getSuggestedTaskCount();
+    private static int getWorkerThreads(String workerName, int totalWorkerCount, int cpuCount) {
+        int suggestedCount = getSuggestedTaskCount(cpuCount);
         int count = suggestedCount;
         int maxFD = getMaxDescriptorCount();
         if (maxFD > -1) {
@@ -104,7 +136,7 @@ class WorkerAdd extends AbstractAddStepHandler {
                 count = 5;
             } else if (maxPossible < suggestedCount) {
                 count = maxPossible;
-                IOLogger.ROOT_LOGGER.lowFD(workerName, suggestedCount, getCpuCount());
+                IOLogger.ROOT_LOGGER.lowFD(workerName, suggestedCount, cpuCount);
             }
         }
         return count;
@@ -115,19 +147,21 @@ class WorkerAdd extends AbstractAddStepHandler {
         if (!workers.isDefined()){
             return count;
         }
+        final CpuTopology topology = CpuTopology.read();
         for (Property property : workers.asPropertyList()) {
             ModelNode worker = property.getValue();
+            int cpuCount = getCpuCount(topology, getCpuPartition(context, worker), null);
             ModelNode ioThreadsModel = WORKER_IO_THREADS.resolveModelAttribute(context, worker);
             ModelNode maxTaskThreadsModel = WORKER_TASK_MAX_THREADS.resolveModelAttribute(context, worker);
             if (ioThreadsModel.isDefined()) {
                 count += ioThreadsModel.asInt();
             } else {
-                count += getSuggestedIoThreadCount();
+                count += getSuggestedIoThreadCount(cpuCount);
             }
             if (maxTaskThreadsModel.isDefined()) {
                 count += maxTaskThreadsModel.asInt();
             } else {
-                count += getSuggestedTaskCount();
+                count += getSuggestedTaskCount(cpuCount);
             }
         }
         return count;
@@ -183,11 +217,11 @@ class WorkerAdd extends AbstractAddStepHandler {
 
         ModelNode ioThreadsModel = WORKER_IO_THREADS.resolveModelAttribute(context, model);
         ModelNode maxTaskThreadsModel = WORKER_TASK_MAX_THREADS.resolveModelAttribute(context, model);
-        int cpuCount = getCpuCount();
-        int ioThreadsCalculated = getSuggestedIoThreadCount();
+        int cpuCount = getCpuCount(CpuTopology.read(), getCpuPartition(context, model), name);
+        int ioThreadsCalculated = getSuggestedIoThreadCount(cpuCount);
         int workerThreads = builder.getMaxWorkerPoolSize();
         if (!ioThreadsModel.isDefined() && !maxTaskThreadsModel.isDefined()) {
-            workerThreads = getWorkerThreads(name, allWorkerCount);
+            workerThreads = getWorkerThreads(name, allWorkerCount, cpuCount);
             builder.setWorkerIoThreads(ioThreadsCalculated);
             builder.setCoreWorkerPoolSize(workerThreads);
             builder.setMaxWorkerPoolSize(workerThreads);
@@ -198,7 +232,7 @@ class WorkerAdd extends AbstractAddStepHandler {
                 IOLogger.ROOT_LOGGER.printDefaultsIoThreads(name, ioThreadsCalculated, cpuCount);
             }
             if (!maxTaskThreadsModel.isDefined()) {
-                workerThreads = getWorkerThreads(name, allWorkerCount);
+                workerThreads = getWorkerThreads(name, allWorkerCount, cpuCount);
                 builder.setCoreWorkerPoolSize(workerThreads);
                 builder.setMaxWorkerPoolSize(workerThreads);
                 IOLogger.ROOT_LOGGER.printDefaultsWorkerThreads(name, workerThreads, cpuCount);
@@ -207,7 +241,8 @@ class WorkerAdd extends AbstractAddStepHandler {
 
         registerMax(context, name, workerThreads);
 
-        final WorkerService workerService = new WorkerService(builder);
+        final boolean virtualTaskThreads = WORKER_TASK_VIRTUAL_THREADS.resolveModelAttribute(context, model).asBoolean();
+        final WorkerService workerService = new WorkerService(builder, virtualTaskThreads);
         context.getCapabilityServiceTarget().addCapability(IO_WORKER_RUNTIME_CAPABILITY, workerService)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
                 .install();
@@ -27,15 +27,22 @@ package org.wildfly.extension.io;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.jboss.as.controller.AbstractWriteAttributeHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -43,11 +50,15 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.DelegatingResource;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -97,6 +108,18 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
             .setAllowExpression(true)
             .build();
 
+    static final SimpleAttributeDefinition WORKER_TASK_VIRTUAL_THREADS = new SimpleAttributeDefinitionBuilder(Constants.WORKER_TASK_VIRTUAL_THREADS, ModelType.BOOLEAN, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .build();
+
+    static final SimpleAttributeDefinition CPU_PARTITION = new SimpleAttributeDefinitionBuilder(Constants.CPU_PARTITION, ModelType.STRING, true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setValidator(new StringLengthValidator(1, true, true))
+            .setAllowExpression(true)
+            .build();
+
     static final OptionAttributeDefinition[] ATTRIBUTES = new OptionAttributeDefinition[]{
             WORKER_IO_THREADS,
             WORKER_TASK_KEEPALIVE,
@@ -116,16 +139,36 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
             .setUndefinedMetricValue(new ModelNode(0)).build();
     private static final AttributeDefinition BUSY_WORKER_THREAD_COUNT = new SimpleAttributeDefinitionBuilder("busy-task-thread-count", ModelType.INT).setStorageRuntime()
             .setUndefinedMetricValue(new ModelNode(0)).build();
+    private static final AttributeDefinition IO_THREAD_LOAD = ObjectListAttributeDefinition.Builder.of(Constants.IO_THREAD_LOAD,
+            ObjectTypeAttributeDefinition.Builder.of(Constants.IO_THREAD_LOAD,
+                    new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.NAME, ModelType.STRING).build(),
+                    new SimpleAttributeDefinitionBuilder(Constants.CPU_TIME, ModelType.LONG, true)
+                            .setMeasurementUnit(MeasurementUnit.MILLISECONDS).build(),
+                    new SimpleAttributeDefinitionBuilder(Constants.LOAD, ModelType.DOUBLE, true)
+                            .setMeasurementUnit(MeasurementUnit.PERCENTAGE).build())
+                    .build())
+            .setRequired(false)
+            .setStorageRuntime()
+            .build();
+    private static final AttributeDefinition IO_THREAD_IMBALANCE = new SimpleAttributeDefinitionBuilder(Constants.IO_THREAD_IMBALANCE, ModelType.DOUBLE).setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0.0)).build();
 
 
     static final Map<String, OptionAttributeDefinition> ATTRIBUTES_BY_XMLNAME;
 
+    /** The XNIO option attributes plus the attributes that aren't XNIO options */
+    static final Collection<AttributeDefinition> WORKER_ATTRIBUTES;
+
     static {
         Map<String, OptionAttributeDefinition> attrs = new HashMap<>();
         for (AttributeDefinition attr : ATTRIBUTES) {
             attrs.put(attr.getXmlName(), (OptionAttributeDefinition) attr);
         }
         ATTRIBUTES_BY_XMLNAME = Collections.unmodifiableMap(attrs);
+        List<AttributeDefinition> workerAttrs = new ArrayList<>(Arrays.asList(ATTRIBUTES));
+        workerAttrs.add(WORKER_TASK_VIRTUAL_THREADS);
+        workerAttrs.add(CPU_PARTITION);
+        WORKER_ATTRIBUTES = Collections.unmodifiableList(workerAttrs);
     }
 
 
@@ -140,10 +183,9 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         );
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return (Collection) ATTRIBUTES_BY_XMLNAME.values();
+        return WORKER_ATTRIBUTES;
     }
 
     @Override
@@ -185,6 +227,8 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
                         return worker.setOption(Options.WORKER_IO_THREADS, value.asInt()) == null;
                     }
                 });
+        resourceRegistration.registerReadWriteAttribute(WORKER_TASK_VIRTUAL_THREADS, null, new ReloadRequiredWriteAttributeHandler(WORKER_TASK_VIRTUAL_THREADS));
+        resourceRegistration.registerReadWriteAttribute(CPU_PARTITION, null, new ReloadRequiredWriteAttributeHandler(CPU_PARTITION));
 
         WorkerMetricsHandler metricsHandler = new WorkerMetricsHandler();
         resourceRegistration.registerMetric(SHUTDOWN_REQUESTED, metricsHandler);
@@ -193,6 +237,9 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         resourceRegistration.registerMetric(IO_THREAD_COUNT, metricsHandler);
         resourceRegistration.registerMetric(QUEUE_SIZE, metricsHandler);
         resourceRegistration.registerMetric(BUSY_WORKER_THREAD_COUNT, metricsHandler);
+        IoThreadMetricsHandler ioThreadMetricsHandler = new IoThreadMetricsHandler();
+        resourceRegistration.registerMetric(IO_THREAD_LOAD, ioThreadMetricsHandler);
+        resourceRegistration.registerMetric(IO_THREAD_IMBALANCE, ioThreadMetricsHandler);
     }
 
     @Override
@@ -294,6 +341,55 @@ class WorkerResourceDefinition extends PersistentResourceDefinition {
         }
     }
 
+    /**
+     * Reports the CPU time used by each of the worker's I/O threads. Connections are assigned to I/O threads when they
+     * are accepted or opened, so a few busy connections can leave one thread doing most of the work while the others
+     * are idle.
+     */
+    private static class IoThreadMetricsHandler extends AbstractWorkerAttributeHandler {
+
+        @Override
+        void executeWithWorker(OperationContext context, ModelNode operation, XnioWorker worker) throws OperationFailedException {
+            final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+                return;
+            }
+            final int count = worker.getIoThreadCount();
+            final Set<Thread> threads = new LinkedHashSet<>();
+            for (int i = 0; i < count; i++) {
+                threads.add(worker.getIoThread(i));
+            }
+            final List<String> names = new ArrayList<>(threads.size());
+            final List<Long> cpuTimes = new ArrayList<>(threads.size());
+            long total = 0;
+            long max = 0;
+            for (Thread thread : threads) {
+                final long cpuTime = threadMXBean.getThreadCpuTime(thread.getId());
+                if (cpuTime < 0) {
+                    // Terminated
+                    continue;
+                }
+                names.add(thread.getName());
+                cpuTimes.add(cpuTime);
+                total += cpuTime;
+                max = Math.max(max, cpuTime);
+            }
+            final ModelNode result = context.getResult();
+            if (IO_THREAD_LOAD.getName().equals(operation.require(ModelDescriptionConstants.NAME).asString())) {
+                result.setEmptyList();
+                for (int i = 0; i < names.size(); i++) {
+                    final ModelNode thread = result.add();
+                    thread.get(ModelDescriptionConstants.NAME).set(names.get(i));
+                    thread.get(Constants.CPU_TIME).set(cpuTimes.get(i) / 1_000_000L);
+                    thread.get(Constants.LOAD).set(total == 0 ? 0.0 : 100.0 * cpuTimes.get(i) / total);
+                }
+            } else {
+                // The busiest thread's CPU time relative to the mean, 1 when the load is even
+                result.set(total == 0 ? 0.0 : (double) max * names.size() / total);
+            }
+        }
+    }
+
     static XnioWorker getXnioWorker(OperationContext context) {
         String name = context.getCurrentAddressValue();
         if (!context.getCurrentAddress().getLastElement().getKey().equals(IOExtension.WORKER_PATH.getKey())) { //we are somewhere deeper, lets find worker name
@@ -25,12 +25,16 @@
 package org.wildfly.extension.io;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.wildfly.common.net.CidrAddressTable;
+import org.wildfly.extension.io.logging.IOLogger;
 import org.xnio.OptionMap;
 import org.xnio.Xnio;
 import org.xnio.XnioWorker;
@@ -40,7 +44,9 @@ import org.xnio.XnioWorker;
  */
 public class WorkerService implements Service<XnioWorker> {
     private final XnioWorker.Builder builder;
+    private final boolean virtualTaskThreads;
     private XnioWorker worker;
+    private ExecutorService taskExecutor;
     private volatile StopContext stopContext;
 
     /**
@@ -51,12 +57,30 @@ public class WorkerService implements Service<XnioWorker> {
     }
 
     public WorkerService(XnioWorker.Builder builder) {
+        this(builder, false);
+    }
+
+    /**
+     * @param builder the builder of the worker
+     * @param virtualTaskThreads whether the worker's tasks run on virtual threads instead of its task thread pool
+     */
+    public WorkerService(XnioWorker.Builder builder, boolean virtualTaskThreads) {
         this.builder = builder;
+        this.virtualTaskThreads = virtualTaskThreads;
     }
 
     @Override
     public void start(StartContext startContext) throws StartException {
         builder.setTerminationTask(this::stopDone);
+        if (virtualTaskThreads) {
+            taskExecutor = VirtualThreads.createExecutor(builder.getWorkerName() + " task");
+            if (taskExecutor != null) {
+                builder.setExternalExecutorService(taskExecutor);
+                IOLogger.ROOT_LOGGER.virtualTaskThreads(builder.getWorkerName());
+            } else {
+                IOLogger.ROOT_LOGGER.virtualTaskThreadsNotSupported(builder.getWorkerName());
+            }
+        }
         worker = builder.build();
     }
 
@@ -72,7 +96,31 @@ public class WorkerService implements Service<XnioWorker> {
         final StopContext stopContext = this.stopContext;
         this.stopContext = null;
         assert stopContext != null;
-        stopContext.complete();
+        final ExecutorService taskExecutor = this.taskExecutor;
+        if (taskExecutor == null) {
+            stopContext.complete();
+            return;
+        }
+        // Tasks may still be running on their own threads once the worker has terminated
+        this.taskExecutor = null;
+        taskExecutor.shutdown();
+        if (taskExecutor.isTerminated()) {
+            stopContext.complete();
+            return;
+        }
+        final Thread thread = new Thread(() -> {
+            try {
+                while (!taskExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // keep waiting for the running tasks
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stopContext.complete();
+            }
+        }, builder.getWorkerName() + " task termination");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     CidrAddressTable<InetSocketAddress> getBindingsTable() {
@@ -75,4 +75,26 @@ public interface IOLogger extends BasicLogger {
 
     @Message(id = 7, value = "Unexpected bind address conflict in resource \"%s\" when attempting to establish binding for destination %s to %s: a binding of %s already existed")
     OperationFailedException unexpectedBindAddressConflict(PathAddress currentAddress, CidrAddress cidrAddress, InetSocketAddress bindAddress, InetSocketAddress existing);
+
+    @LogMessage(level = INFO)
+    @Message(id = 8, value = "Worker '%s' runs its tasks on virtual threads")
+    void virtualTaskThreads(String workerName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 9, value = "Virtual threads are not supported by this JVM; worker '%s' will run its tasks on its task thread pool instead")
+    void virtualTaskThreadsNotSupported(String workerName);
+
+    @Message(id = 10, value = "Buffer was already freed")
+    IllegalStateException bufferFreed();
+
+    @Message(id = 11, value = "Invalid CPU partition '%s', expected a NUMA node such as node0 or a list of CPUs such as 0-23,48-71")
+    OperationFailedException invalidCpuPartition(String partition);
+
+    @LogMessage(level = WARN)
+    @Message(id = 12, value = "None of the processors of CPU partition '%s' of worker '%s' are available, the worker will be sized for all %d available processors")
+    void cpuPartitionNotAvailable(String partition, String workerName, int cpuCount);
+
+    @LogMessage(level = INFO)
+    @Message(id = 13, value = "Worker '%s' is sized for the %d available processors of CPU partition '%s'")
+    void cpuPartition(String workerName, int cpuCount, String partition);
 }
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.common.cpu.ProcessorInfo;
+
+/**
+ * Tests of reading the {@link CpuTopology}, using copies of the {@code /proc} and {@code /sys} files it reads.
+ */
+public class CpuTopologyTestCase {
+
+    private Path fixtures;
+
+    @Before
+    public void setUp() throws Exception {
+        fixtures = Paths.get(CpuTopologyTestCase.class.getResource("cpu-topology").toURI());
+    }
+
+    @Test
+    public void testParseCpuList() {
+        assertEquals(cpus(0, 1, 2, 3, 8, 10, 11), CpuTopology.parseCpuList("0-3,8,10-11"));
+        assertEquals(cpus(0, 1, 3), CpuTopology.parseCpuList(" 0 - 1 , 3 \n"));
+        assertEquals(cpus(5), CpuTopology.parseCpuList("5"));
+        assertEquals(cpus(CpuTopology.MAX_CPUS - 1), CpuTopology.parseCpuList(Integer.toString(CpuTopology.MAX_CPUS - 1)));
+        assertEquals(cpus(), CpuTopology.parseCpuList(""));
+        assertEquals(cpus(1, 2), CpuTopology.parseCpuList("1,,2,"));
+    }
+
+    @Test
+    public void testParseInvalidCpuList() {
+        for (String list : new String[] {"3-1", "-1", "a", "0-", "1-a", "0-1-2", "2147483647", "0-2147483647",
+                "0-99999999999", Integer.toString(CpuTopology.MAX_CPUS), "0-" + CpuTopology.MAX_CPUS}) {
+            try {
+                CpuTopology.parseCpuList(list);
+                fail("invalid CPU list " + list);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testGetPartition() {
+        final Path nodes = fixtures.resolve("nodes");
+        assertEquals(cpus(0, 1, 2, 3), CpuTopology.getPartition(" 0-3 ", nodes));
+        assertEquals(cpus(4, 5, 6, 7), CpuTopology.getPartition("node1", nodes));
+        assertNull(CpuTopology.getPartition("node7", nodes));
+        for (String partition : new String[] {"", ",", "node", "nodex", "node-1", "cpu1", "0-" + CpuTopology.MAX_CPUS}) {
+            try {
+                CpuTopology.getPartition(partition, nodes);
+                fail("invalid partition " + partition);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testCpuCount() {
+        final BitSet available = CpuTopology.parseCpuList("0-7");
+        final CpuTopology topology = new CpuTopology(available, 0);
+        assertEquals(8, topology.getCpuCount());
+        assertEquals(4, topology.getCpuCount(CpuTopology.parseCpuList("4-11")));
+        assertEquals(0, topology.getCpuCount(CpuTopology.parseCpuList("16-17")));
+    }
+
+    @Test
+    public void testCpuCountWithQuota() {
+        final BitSet available = CpuTopology.parseCpuList("0-7");
+        CpuTopology topology = new CpuTopology(available, 2);
+        assertEquals(2, topology.getCpuCount());
+        // half of the CPUs get half of the quota
+        assertEquals(1, topology.getCpuCount(CpuTopology.parseCpuList("4-11")));
+        assertEquals(0, topology.getCpuCount(CpuTopology.parseCpuList("16-17")));
+
+        topology = new CpuTopology(available, 0.5);
+        assertEquals(1, topology.getCpuCount());
+        assertEquals(1, topology.getCpuCount(CpuTopology.parseCpuList("7")));
+
+        topology = new CpuTopology(available, 6.5);
+        assertEquals(7, topology.getCpuCount());
+        assertEquals(4, topology.getCpuCount(CpuTopology.parseCpuList("0-3")));
+
+        // a quota above the CPU count doesn't add CPUs
+        topology = new CpuTopology(available, 32);
+        assertEquals(8, topology.getCpuCount());
+    }
+
+    @Test
+    public void testReadQuotaV1() {
+        assertEquals(2.5, CpuTopology.readQuotaV1(fixtures.resolve("cgroup-v1/fs/cpu,cpuacct/docker/abc")), 0);
+        assertEquals(0, CpuTopology.readQuotaV1(fixtures.resolve("cgroup-v1/fs/cpu,cpuacct")), 0);
+        assertEquals(0, CpuTopology.readQuotaV1(fixtures.resolve("missing")), 0);
+        // the lowest quota of the cgroup and its ancestors applies
+        assertEquals(2.5, CpuTopology.readQuota(fixtures.resolve("cgroup-v1/cgroup"), fixtures.resolve("cgroup-v1/fs")), 0);
+        // inside a container the cgroup is mounted as the root
+        assertEquals(0.5, CpuTopology.readQuota(fixtures.resolve("cgroup-v1-container/cgroup"),
+                fixtures.resolve("cgroup-v1-container/fs")), 0);
+    }
+
+    @Test
+    public void testReadQuotaV2() {
+        assertEquals(1.5, CpuTopology.readQuotaV2(fixtures.resolve("cgroup-v2/fs/system.slice/app.service")), 0);
+        assertEquals(4, CpuTopology.readQuotaV2(fixtures.resolve("cgroup-v2/fs/system.slice")), 0);
+        assertEquals(0, CpuTopology.readQuotaV2(fixtures.resolve("cgroup-v2/fs")), 0);
+        assertEquals(0, CpuTopology.readQuotaV2(fixtures.resolve("missing")), 0);
+        assertEquals(1.5, CpuTopology.readQuota(fixtures.resolve("cgroup-v2/cgroup"), fixtures.resolve("cgroup-v2/fs")), 0);
+        assertEquals(0, CpuTopology.readQuota(fixtures.resolve("cgroup-v2-unlimited/cgroup"),
+                fixtures.resolve("cgroup-v2-unlimited/fs")), 0);
+        assertEquals(0, CpuTopology.readQuota(fixtures.resolve("missing"), fixtures.resolve("cgroup-v2/fs")), 0);
+    }
+
+    @Test
+    public void testRead() {
+        final CpuTopology topology = CpuTopology.read(fixtures.resolve("status"), fixtures.resolve("cgroup-v2/cgroup"),
+                fixtures.resolve("cgroup-v2/fs"));
+        // 8 CPUs allowed, but a quota of 1.5 processors
+        assertEquals(2, topology.getCpuCount());
+        assertEquals(1, topology.getCpuCount(CpuTopology.parseCpuList("0-3")));
+        assertEquals(0, topology.getCpuCount(CpuTopology.parseCpuList("4-7")));
+
+        final CpuTopology unknown = CpuTopology.read(fixtures.resolve("missing"), fixtures.resolve("missing"),
+                fixtures.resolve("missing"));
+        assertEquals(ProcessorInfo.availableProcessors(), unknown.getCpuCount());
+    }
+
+    private static BitSet cpus(int... indexes) {
+        final BitSet cpus = new BitSet();
+        for (int index : indexes) {
+            cpus.set(index);
+        }
+        return cpus;
+    }
+}
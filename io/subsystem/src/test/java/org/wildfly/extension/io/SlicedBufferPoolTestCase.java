@@ -0,0 +1,238 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.xnio.BufferAllocator;
+import org.xnio.Pooled;
+
+/**
+ * Tests of the {@link SlicedBufferPool}.
+ */
+public class SlicedBufferPoolTestCase {
+
+    private static final int BUFFER_SIZE = 16;
+
+    @Test
+    public void testFreedBufferIsReused() {
+        final SlicedBufferPool pool = pool(4, 12, false);
+        final Pooled<ByteBuffer> pooled = pool.allocate();
+        final ByteBuffer buffer = pooled.getResource();
+        assertEquals(BUFFER_SIZE, buffer.capacity());
+        assertEquals(1, pool.getMisses());
+        assertEquals(4 * BUFFER_SIZE, pool.getAllocatedMemory());
+        assertEquals(1, pool.getOutstandingBuffers());
+        buffer.put((byte) 1);
+        pooled.free();
+        assertEquals(0, pool.getOutstandingBuffers());
+        try {
+            pooled.getResource();
+            fail("a freed buffer can't be used");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        final Pooled<ByteBuffer> next = pool.allocate();
+        assertSame(buffer, next.getResource());
+        assertEquals(0, next.getResource().position());
+        assertEquals(1, pool.getThreadLocalHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(2, pool.getAllocations());
+        next.free();
+    }
+
+    @Test
+    public void testFreeingTwiceReleasesOnce() {
+        final SlicedBufferPool pool = pool(4, 12, false);
+        final Pooled<ByteBuffer> pooled = pool.allocate();
+        pooled.free();
+        pooled.free();
+        pooled.close();
+        assertEquals(0, pool.getOutstandingBuffers());
+        final Pooled<ByteBuffer> first = pool.allocate();
+        final Pooled<ByteBuffer> second = pool.allocate();
+        assertNotSame(first.getResource(), second.getResource());
+    }
+
+    @Test
+    public void testDiscardedBufferIsNotReused() {
+        final SlicedBufferPool pool = pool(4, 12, false);
+        final Pooled<ByteBuffer> pooled = pool.allocate();
+        final ByteBuffer buffer = pooled.getResource();
+        pooled.discard();
+        assertEquals(0, pool.getOutstandingBuffers());
+        assertNotSame(buffer, pool.allocate().getResource());
+        assertEquals(0, pool.getThreadLocalHits());
+    }
+
+    @Test
+    public void testBuffersDoNotOverlap() {
+        final SlicedBufferPool pool = pool(4, 12, false);
+        final List<Pooled<ByteBuffer>> allocated = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Pooled<ByteBuffer> pooled = pool.allocate();
+            final ByteBuffer buffer = pooled.getResource();
+            assertEquals(BUFFER_SIZE, buffer.remaining());
+            while (buffer.hasRemaining()) {
+                buffer.put((byte) i);
+            }
+            allocated.add(pooled);
+        }
+        assertEquals(3, pool.getMisses());
+        assertEquals(3 * 4 * BUFFER_SIZE, pool.getAllocatedMemory());
+        for (int i = 0; i < allocated.size(); i++) {
+            final ByteBuffer buffer = allocated.get(i).getResource();
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                assertEquals(i, buffer.get());
+            }
+        }
+    }
+
+    @Test
+    public void testBuffersOfDeadThreadAreRecovered() throws Exception {
+        final SlicedBufferPool pool = pool(1, 12, false);
+        final AtomicReference<ByteBuffer> freed = new AtomicReference<>();
+        final Thread thread = new Thread(() -> {
+            final Pooled<ByteBuffer> pooled = pool.allocate();
+            freed.set(pooled.getResource());
+            // the buffer stays in this thread's cache
+            pooled.free();
+        });
+        thread.start();
+        thread.join();
+
+        assertSame(freed.get(), pool.allocate().getResource());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void testLeakedBufferIsCountedButNotReused() throws Exception {
+        final SlicedBufferPool pool = pool(1, 12, false, true);
+        // the caller keeps using the buffer after dropping the pooled wrapper
+        final ByteBuffer leaked = leak(pool);
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (pool.getLeakedBuffers() == 0) {
+            assertTrue("leak was not detected", System.nanoTime() < end);
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.getLeakedBuffers());
+        assertEquals(0, pool.getOutstandingBuffers());
+        assertNotSame(leaked, pool.allocate().getResource());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    public void testLeaksAreNotTrackedByDefault() {
+        final SlicedBufferPool pool = pool(1, 12, false);
+        leak(pool);
+        System.gc();
+        assertEquals(0, pool.getLeakedBuffers());
+        assertEquals(1, pool.getOutstandingBuffers());
+    }
+
+    @Test
+    public void testFixedCacheSize() {
+        final SlicedBufferPool pool = pool(64, 8, false);
+        allocateAndFree(pool, 12);
+        final long hits = pool.getThreadLocalHits();
+        allocateAndFree(pool, 12);
+        assertEquals(8, pool.getThreadLocalHits() - hits);
+    }
+
+    @Test
+    public void testAdaptiveCacheGrowsWithDemand() {
+        final SlicedBufferPool pool = pool(64, 8, true);
+        allocateAndFree(pool, 8);
+        long hits = pool.getThreadLocalHits();
+        allocateAndFree(pool, 8);
+        // the cache starts small
+        assertEquals(2, pool.getThreadLocalHits() - hits);
+
+        for (int i = 0; i < 4 * SlicedBufferPool.ADAPT_INTERVAL / 8; i++) {
+            allocateAndFree(pool, 12);
+        }
+        hits = pool.getThreadLocalHits();
+        allocateAndFree(pool, 12);
+        // but never exceeds its maximum size
+        assertEquals(8, pool.getThreadLocalHits() - hits);
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void testAdaptiveCacheShrinksWhenIdle() {
+        final SlicedBufferPool pool = pool(64, 8, true);
+        for (int i = 0; i < 4 * SlicedBufferPool.ADAPT_INTERVAL / 8; i++) {
+            allocateAndFree(pool, 8);
+        }
+        long hits = pool.getThreadLocalHits();
+        allocateAndFree(pool, 8);
+        assertEquals(8, pool.getThreadLocalHits() - hits);
+
+        for (int i = 0; i < 4 * SlicedBufferPool.ADAPT_INTERVAL; i++) {
+            allocateAndFree(pool, 1);
+        }
+        hits = pool.getThreadLocalHits();
+        allocateAndFree(pool, 8);
+        assertTrue(pool.getThreadLocalHits() - hits < 8);
+        // the buffers released by the cache are reused rather than lost
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.getOutstandingBuffers());
+    }
+
+    private static SlicedBufferPool pool(int buffersPerRegion, int threadLocalCacheSize, boolean adaptive) {
+        return pool(buffersPerRegion, threadLocalCacheSize, adaptive, false);
+    }
+
+    private static SlicedBufferPool pool(int buffersPerRegion, int threadLocalCacheSize, boolean adaptive, boolean trackLeaks) {
+        return new SlicedBufferPool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, buffersPerRegion, false,
+                threadLocalCacheSize, adaptive, trackLeaks);
+    }
+
+    private static ByteBuffer leak(SlicedBufferPool pool) {
+        return pool.allocate().getResource();
+    }
+
+    private static void allocateAndFree(SlicedBufferPool pool, int count) {
+        final List<Pooled<ByteBuffer>> allocated = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            allocated.add(pool.allocate());
+        }
+        for (Pooled<ByteBuffer> pooled : allocated) {
+            pooled.free();
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.wildfly.extension.io;
 import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_0_0;
 import static org.jboss.as.model.test.ModelTestControllerVersion.EAP_7_1_0;
 import static org.junit.Assert.assertTrue;
+import static org.wildfly.extension.io.IOExtension.BUFFER_POOL_PATH;
 import static org.wildfly.extension.io.IOExtension.SUBSYSTEM_PATH;
 import static org.wildfly.extension.io.IOExtension.WORKER_PATH;
 
@@ -99,25 +100,30 @@ public class IOSubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
     }
 
     @Test
-    public void testRejectingTransformersEAP_7_0_0() throws Exception {
-        testRejectingTransformers(EAP_7_0_0);
-    }
+    public void testDiscardingTransformersEAP710() throws Exception {
+        final ModelVersion version = EAP_7_1_0.getSubsystemModelVersion(getMainSubsystemName());
 
-    private void testRejectingTransformers(ModelTestControllerVersion controllerVersion) throws Exception {
-        ModelVersion modelVersion = controllerVersion.getSubsystemModelVersion(getMainSubsystemName());
-        //Boot up empty controllers with the resources needed for the ops coming from the xml to work
-        KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization());
-        builder.createLegacyKernelServicesBuilder(createAdditionalInitialization(), controllerVersion, modelVersion)
-                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-io:" + controllerVersion.getCoreVersion())
-                .dontPersistXml();
+        KernelServices services = this.buildKernelServices(readResource("io-3.0-transformer.xml"), EAP_7_1_0, version,
+                EAP_7_1_0.getCoreMavenGroupId() + ":wildfly-io:" + EAP_7_1_0.getCoreVersion());
 
-        KernelServices mainServices = builder.build();
-        assertTrue(mainServices.isSuccessfulBoot());
-        assertTrue(mainServices.getLegacyServices(modelVersion).isSuccessfulBoot());
+        checkSubsystemModelTransformation(services, version, null, false);
 
-        List<ModelNode> ops = builder.parseXmlResource("io-1.1-reject.xml");
+        // attributes set to the values the legacy version has built in are dropped instead of rejected
+        ModelNode subsystem = services.readTransformedModel(version).get(SUBSYSTEM_PATH.getKey(), SUBSYSTEM_PATH.getValue());
+        ModelNode worker = subsystem.get(WORKER_PATH.getKey(), "default");
+        Assert.assertTrue(worker.isDefined());
+        Assert.assertFalse(worker.has(Constants.WORKER_TASK_VIRTUAL_THREADS));
+        Assert.assertFalse(worker.has(Constants.CPU_PARTITION));
+        ModelNode bufferPool = subsystem.get(BUFFER_POOL_PATH.getKey(), "default");
+        Assert.assertTrue(bufferPool.isDefined());
+        Assert.assertFalse(bufferPool.has(Constants.THREAD_LOCAL_CACHE_SIZE));
+        Assert.assertFalse(bufferPool.has(Constants.ADAPTIVE_THREAD_LOCAL_CACHE));
+    }
+
+    @Test
+    public void testRejectingTransformersEAP_7_0_0() throws Exception {
         PathAddress subsystemAddress = PathAddress.pathAddress(SUBSYSTEM_PATH);
-        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, ops, new FailedOperationTransformationConfig()
+        testRejectingTransformers(EAP_7_0_0, "io-1.1-reject.xml", new FailedOperationTransformationConfig()
                 .addFailedAttribute(subsystemAddress.append(WORKER_PATH),
                         new FailedOperationTransformationConfig.RejectExpressionsConfig(
                                 WorkerResourceDefinition.STACK_SIZE,
@@ -132,4 +138,39 @@ public class IOSubsystemTransformerTestCase extends AbstractSubsystemBaseTest {
         );
     }
 
+    @Test
+    public void testRejectingTransformersEAP_7_1_0() throws Exception {
+        PathAddress subsystemAddress = PathAddress.pathAddress(SUBSYSTEM_PATH);
+        testRejectingTransformers(EAP_7_1_0, "io-3.0-reject.xml", new FailedOperationTransformationConfig()
+                .addFailedAttribute(subsystemAddress.append(WORKER_PATH),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(
+                                WorkerResourceDefinition.WORKER_TASK_VIRTUAL_THREADS,
+                                WorkerResourceDefinition.CPU_PARTITION
+                        )
+                )
+                .addFailedAttribute(subsystemAddress.append(BUFFER_POOL_PATH),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(
+                                BufferPoolResourceDefinition.THREAD_LOCAL_CACHE_SIZE,
+                                BufferPoolResourceDefinition.ADAPTIVE_THREAD_LOCAL_CACHE
+                        )
+                )
+        );
+    }
+
+    private void testRejectingTransformers(ModelTestControllerVersion controllerVersion, String xml, FailedOperationTransformationConfig config) throws Exception {
+        ModelVersion modelVersion = controllerVersion.getSubsystemModelVersion(getMainSubsystemName());
+        //Boot up empty controllers with the resources needed for the ops coming from the xml to work
+        KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization());
+        builder.createLegacyKernelServicesBuilder(createAdditionalInitialization(), controllerVersion, modelVersion)
+                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-io:" + controllerVersion.getCoreVersion())
+                .dontPersistXml();
+
+        KernelServices mainServices = builder.build();
+        assertTrue(mainServices.isSuccessfulBoot());
+        assertTrue(mainServices.getLegacyServices(modelVersion).isSuccessfulBoot());
+
+        List<ModelNode> ops = builder.parseXmlResource(xml);
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, ops, config);
+    }
+
 }
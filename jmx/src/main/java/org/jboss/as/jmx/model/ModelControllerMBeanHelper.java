@@ -41,6 +41,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.management.Attribute;
 import javax.management.AttributeList;
@@ -67,6 +68,7 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.OperationEntry.Flag;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.jmx.logging.JmxLogger;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
@@ -95,6 +97,15 @@ public class ModelControllerMBeanHelper {
     private final ObjectInstance rootObjectInstance;
     private final ManagementModelIntegration.ManagementModelProvider managementModelProvider;
 
+    // Monitoring tools poll the same mbeans over and over, so avoid resolving their names and rebuilding their
+    // metadata each time. All of these are cleared by invalidateCaches() when resources are added or removed.
+    /** ObjectNames resolved to the address of an existing resource, checked against the current model before use */
+    private final Map<ObjectName, PathAddress> resolvedAddresses = new ConcurrentHashMap<>();
+    /** The MBeanInfo of each mbean, along with the registration it was created from */
+    private final Map<ObjectName, CachedMBeanInfo> mbeanInfos = new ConcurrentHashMap<>();
+    /** The description of each resource registration */
+    private final Map<ImmutableManagementResourceRegistration, ModelNode> descriptions = new ConcurrentHashMap<>();
+
     ModelControllerMBeanHelper(TypeConverters converters, ConfiguredDomains configuredDomains, String domain,
                                ModelController controller, MutabilityChecker mutabilityChecker,
                                ManagementModelIntegration.ManagementModelProvider managementModelProvider) {
@@ -236,11 +247,43 @@ public class ModelControllerMBeanHelper {
 
 
     PathAddress resolvePathAddress(final ObjectName name) {
-        return ObjectNameAddressUtil.resolvePathAddress(rootObjectInstance.getObjectName(), getRootResourceAndRegistration().getResource(), name);
+        return resolvePathAddress(name, getRootResourceAndRegistration());
     }
 
     private PathAddress resolvePathAddress(final ObjectName name, ManagementModelIntegration.ResourceAndRegistration reg) {
-        return ObjectNameAddressUtil.resolvePathAddress(rootObjectInstance.getObjectName(), reg.getResource(), name);
+        final Resource rootResource = reg.getResource();
+        final PathAddress cached = resolvedAddresses.get(name);
+        if (cached != null && exists(rootResource, cached)) {
+            return cached;
+        }
+        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(rootObjectInstance.getObjectName(), rootResource, name);
+        if (address != null) {
+            resolvedAddresses.put(name, address);
+        } else if (cached != null) {
+            resolvedAddresses.remove(name);
+        }
+        return address;
+    }
+
+    private static boolean exists(final Resource rootResource, final PathAddress address) {
+        Resource resource = rootResource;
+        for (PathElement element : address) {
+            resource = resource.getChild(element);
+            if (resource == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears the cached ObjectName resolutions, MBeanInfos and descriptions, which must be done whenever resources or
+     * their registrations are added or removed.
+     */
+    void invalidateCaches() {
+        resolvedAddresses.clear();
+        mbeanInfos.clear();
+        descriptions.clear();
     }
 
     /**
@@ -262,7 +305,13 @@ public class ModelControllerMBeanHelper {
         }
         // Ensure the resource is addressable; fail if not
         accessControlUtil.getResourceAccessWithInstanceNotFoundExceptionIfNotAccessible(name, address, true);
-        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, mutabilityChecker, address, getMBeanRegistration(address, reg));
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        CachedMBeanInfo cached = mbeanInfos.get(name);
+        if (cached == null || cached.registration != registration) {
+            cached = new CachedMBeanInfo(registration, MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, mutabilityChecker, address, registration));
+            mbeanInfos.put(name, cached);
+        }
+        return cached.info;
     }
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
@@ -295,11 +344,7 @@ public class ModelControllerMBeanHelper {
 
     private Object getAttribute(final ManagementModelIntegration.ResourceAndRegistration reg, final PathAddress address, final String attribute, final ResourceAccessControl accessControl)  throws ReflectionException, AttributeNotFoundException, InstanceNotFoundException {
         final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw JmxLogger.ROOT_LOGGER.descriptionProviderNotFound(address);
-        }
-        final ModelNode description = provider.getModelDescription(null);
+        final ModelNode description = getModelDescription(address, registration);
         final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute);
 
         if (!accessControl.isReadableAttribute(attributeName)) {
@@ -356,11 +401,7 @@ public class ModelControllerMBeanHelper {
 
     private void setAttribute(final ManagementModelIntegration.ResourceAndRegistration reg, final PathAddress address, final Attribute attribute, ResourceAccessControl accessControl)  throws InvalidAttributeValueException, AttributeNotFoundException, InstanceNotFoundException {
         final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw JmxLogger.ROOT_LOGGER.descriptionProviderNotFound(address);
-        }
-        final ModelNode description = provider.getModelDescription(null);
+        final ModelNode description = getModelDescription(address, registration);
         final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute.getName());
 
         if (!mutabilityChecker.mutable(address)) {
@@ -544,6 +585,24 @@ public class ModelControllerMBeanHelper {
         return resourceRegistration;
     }
 
+    /**
+     * Gets the description of a resource registration. The description is shared, so must only be read.
+     */
+    private ModelNode getModelDescription(PathAddress address, ImmutableManagementResourceRegistration registration) throws InstanceNotFoundException {
+        ModelNode description = descriptions.get(registration);
+        if (description == null) {
+            final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+            if (provider == null) {
+                throw JmxLogger.ROOT_LOGGER.descriptionProviderNotFound(address);
+            }
+            description = provider.getModelDescription(null);
+            // Make sure looking up the attributes doesn't modify the shared description
+            description.get(ATTRIBUTES);
+            descriptions.put(registration, description);
+        }
+        return description;
+    }
+
     private String getFailureDescription(ModelNode result) {
         if (result.hasDefined(FAILURE_DESCRIPTION)) {
             return result.get(FAILURE_DESCRIPTION).toString();
@@ -668,4 +727,14 @@ public class ModelControllerMBeanHelper {
             return result;
         }
     }
+
+    private static final class CachedMBeanInfo {
+        private final ImmutableManagementResourceRegistration registration;
+        private final MBeanInfo info;
+
+        private CachedMBeanInfo(ImmutableManagementResourceRegistration registration, MBeanInfo info) {
+            this.registration = registration;
+            this.info = info;
+        }
+    }
 }
@@ -95,6 +95,10 @@ public class ModelControllerMBeanServerPlugin extends BaseMBeanServerPlugin {
                 new ModelControllerMBeanHelper(TypeConverters.createExpressionTypeConverters(), configuredDomains,
                         configuredDomains.getExprDomain(), controller, mutabilityChecker, managementModelProvider) : null;
 
+        // The helpers cache what they resolve from the model, which adding or removing resources may change
+        ModelCacheInvalidationHandler cacheInvalidationHandler = new ModelCacheInvalidationHandler();
+        notificationRegistry.registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, cacheInvalidationHandler, cacheInvalidationHandler);
+
         // JMX notifications for MBean registration/unregistration are emitted by the MBeanServerDelegate and not by the
         // MBeans itself. If we have a reference on the delegate, we add a listener for any WildFly resource address
         // that converts the resource-added and resource-removed notifications to MBeanServerNotification and send them
@@ -437,6 +441,27 @@ public class ModelControllerMBeanServerPlugin extends BaseMBeanServerPlugin {
         }
     }
 
+    /**
+     * Invalidates the caches of the helpers when resources are added or removed
+     */
+    private class ModelCacheInvalidationHandler implements NotificationHandler, NotificationFilter {
+
+        @Override
+        public void handleNotification(Notification notification) {
+            if (legacyHelper != null) {
+                legacyHelper.invalidateCaches();
+            }
+            if (exprHelper != null) {
+                exprHelper.invalidateCaches();
+            }
+        }
+
+        @Override
+        public boolean isNotificationEnabled(Notification notification) {
+            return isResourceAddedOrRemovedNotification(notification);
+        }
+    }
+
     private static boolean isResourceAddedOrRemovedNotification(Notification notification) {
         return notification.getType().equals(RESOURCE_ADDED_NOTIFICATION) ||
                 notification.getType().equals(ModelDescriptionConstants.RESOURCE_REMOVED_NOTIFICATION);
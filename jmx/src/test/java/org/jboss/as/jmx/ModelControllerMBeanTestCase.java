@@ -22,6 +22,7 @@
 package org.jboss.as.jmx;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
@@ -79,12 +80,14 @@ import javax.management.remote.JMXConnectorServerFactory;
 import javax.management.remote.JMXServiceURL;
 
 import org.jboss.as.controller.Extension;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.capability.registry.RuntimeCapabilityRegistry;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.extension.ExtensionRegistryType;
 import org.jboss.as.controller.operations.common.ResolveExpressionHandler;
+import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.jmx.model.ModelControllerMBeanHelper;
@@ -96,6 +99,7 @@ import org.jboss.as.subsystem.test.AbstractSubsystemTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.ControllerInitializer;
 import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
@@ -1177,6 +1181,93 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
         Assert.assertTrue(names.contains(testObjectName));
     }
 
+    @Test
+    public void testMBeansFollowAddedAndRemovedResources() throws Exception {
+        final ObjectName testObjectName = createObjectName(LEGACY_DOMAIN + ":subsystem=test");
+        final ObjectName childObjectName = createObjectName(LEGACY_DOMAIN + ":subsystem=test,single=only");
+        final ObjectName exprChildObjectName = createObjectName(EXPR_DOMAIN + ":subsystem=test,single=only");
+        final PathAddress childAddress = PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, "test"), PathElement.pathElement("single", "only"));
+        KernelServices kernelServices = setup(new MBeanInfoAdditionalInitialization(ProcessType.STANDALONE_SERVER, new SubystemWithSingleFixedChildExtension()));
+        ServiceController<?> service = kernelServices.getContainer().getService(MBeanServerService.SERVICE_NAME);
+        MBeanServer mbeanServer = MBeanServer.class.cast(service.getValue());
+
+        // Read everything once, so whatever is cached is cached before the model changes
+        Assert.assertEquals(1, mbeanServer.getMBeanInfo(testObjectName).getOperations().length);
+        assertNotRegistered(mbeanServer, childObjectName);
+        assertNotRegistered(mbeanServer, exprChildObjectName);
+
+        // Change the model through the controller rather than JMX
+        kernelServices.executeForResult(createChildAddOperation(childAddress, 123));
+        checkChildMBean(mbeanServer, childObjectName, 123);
+        checkChildMBean(mbeanServer, exprChildObjectName, 123);
+        Assert.assertEquals(1, mbeanServer.getMBeanInfo(testObjectName).getOperations().length);
+
+        kernelServices.executeForResult(Util.createRemoveOperation(childAddress));
+        assertNotRegistered(mbeanServer, childObjectName);
+        assertNotRegistered(mbeanServer, exprChildObjectName);
+
+        kernelServices.executeForResult(createChildAddOperation(childAddress, 456));
+        checkChildMBean(mbeanServer, childObjectName, 456);
+        checkChildMBean(mbeanServer, exprChildObjectName, 456);
+    }
+
+    @Test
+    public void testMBeansFollowAddedAndRemovedSiblings() throws Exception {
+        final ObjectName child1ObjectName = createObjectName(LEGACY_DOMAIN + ":subsystem=test,siblings=test1");
+        final ObjectName child2ObjectName = createObjectName(LEGACY_DOMAIN + ":subsystem=test,siblings=test2");
+        final PathAddress child1Address = PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, "test"), PathElement.pathElement("siblings", "test1"));
+        final PathAddress child2Address = PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, "test"), PathElement.pathElement("siblings", "test2"));
+        KernelServices kernelServices = setup(new MBeanInfoAdditionalInitialization(ProcessType.STANDALONE_SERVER, new SubystemWithSiblingChildrenChildExtension()));
+        ServiceController<?> service = kernelServices.getContainer().getService(MBeanServerService.SERVICE_NAME);
+        MBeanServer mbeanServer = MBeanServer.class.cast(service.getValue());
+
+        kernelServices.executeForResult(createChildAddOperation(child1Address, 1));
+        checkChildMBean(mbeanServer, child1ObjectName, 1);
+        assertNotRegistered(mbeanServer, child2ObjectName);
+
+        kernelServices.executeForResult(createChildAddOperation(child2Address, 2));
+        checkChildMBean(mbeanServer, child1ObjectName, 1);
+        checkChildMBean(mbeanServer, child2ObjectName, 2);
+        Assert.assertEquals(3, mbeanServer.queryNames(createObjectName(LEGACY_DOMAIN + ":subsystem=test,*"), null).size());
+
+        kernelServices.executeForResult(Util.createRemoveOperation(child1Address));
+        assertNotRegistered(mbeanServer, child1ObjectName);
+        checkChildMBean(mbeanServer, child2ObjectName, 2);
+        Assert.assertEquals(2, mbeanServer.queryNames(createObjectName(LEGACY_DOMAIN + ":subsystem=test,*"), null).size());
+    }
+
+    private static ModelNode createChildAddOperation(PathAddress address, int attr) {
+        final ModelNode add = Util.createAddOperation(address);
+        add.get("attr").set(attr);
+        return add;
+    }
+
+    private void checkChildMBean(MBeanServer mbeanServer, ObjectName name, int attr) throws Exception {
+        Assert.assertTrue(mbeanServer.isRegistered(name));
+        MBeanInfo info = mbeanServer.getMBeanInfo(name);
+        Assert.assertEquals(1, info.getAttributes().length);
+        Assert.assertEquals("attr", info.getAttributes()[0].getName());
+        Assert.assertNotNull(findOperation(info.getOperations(), REMOVE));
+        // The expression model exposes the value as a string
+        Assert.assertEquals(String.valueOf(attr), String.valueOf(mbeanServer.getAttribute(name, "attr")));
+    }
+
+    private void assertNotRegistered(MBeanServer mbeanServer, ObjectName name) throws Exception {
+        Assert.assertFalse(mbeanServer.isRegistered(name));
+        try {
+            mbeanServer.getMBeanInfo(name);
+            Assert.fail("Should not have found " + name);
+        } catch (InstanceNotFoundException expected) {
+            //expected
+        }
+        try {
+            mbeanServer.getAttribute(name, "attr");
+            Assert.fail("Should not have found " + name);
+        } catch (InstanceNotFoundException expected) {
+            //expected
+        }
+    }
+
     @Test
     public void testResolveExpressions() throws Exception {
         MBeanServerConnection connection = setupAndGetConnection(new BaseAdditionalInitialization(ProcessType.STANDALONE_SERVER));
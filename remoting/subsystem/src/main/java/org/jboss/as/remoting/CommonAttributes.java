@@ -29,6 +29,9 @@ interface CommonAttributes {
 
     String AUTHENTICATION_CONTEXT = "authentication-context";
     String AUTHENTICATION_PROVIDER = "authentication-provider";
+    String CONNECTION_COUNT = "connection-count";
+    String CONNECTION_LIMIT_HIGH_WATER_MARK = "connection-limit-high-water-mark";
+    String CONNECTION_LIMIT_LOW_WATER_MARK = "connection-limit-low-water-mark";
     String CONNECTOR = "connector";
     String CONNECTOR_REF = "connector-ref";
     String FORWARD_SECRECY = "forward-secrecy";
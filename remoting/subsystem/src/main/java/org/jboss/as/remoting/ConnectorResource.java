@@ -21,13 +21,17 @@
  */
 package org.jboss.as.remoting;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.remoting.Capabilities.SASL_AUTHENTICATION_FACTORY_CAPABILITY;
 import static org.jboss.as.remoting.Capabilities.SSL_CONTEXT_CAPABILITY;
 import static org.jboss.as.remoting.CommonAttributes.CONNECTOR;
 import static org.jboss.as.remoting.ConnectorCommon.SASL_PROTOCOL;
 import static org.jboss.as.remoting.ConnectorCommon.SERVER_NAME;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
@@ -38,7 +42,14 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.remoting.logging.RemotingLogger;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.xnio.StreamConnection;
+import org.xnio.channels.AcceptingChannel;
+import org.xnio.management.XnioServerMXBean;
+import org.xnio.management.XnioWorkerMXBean;
 
 /**
  *
@@ -95,6 +106,20 @@ public class ConnectorResource extends SimpleResourceDefinition {
     static final AttributeDefinition[] ATTRIBUTES  = {AUTHENTICATION_PROVIDER, SOCKET_BINDING, SECURITY_REALM,
             SERVER_NAME, SASL_PROTOCOL, SASL_AUTHENTICATION_FACTORY, SSL_CONTEXT};
 
+    static final SimpleAttributeDefinition CONNECTION_COUNT = new SimpleAttributeDefinitionBuilder(CommonAttributes.CONNECTION_COUNT, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CONNECTION_LIMIT_HIGH_WATER_MARK = new SimpleAttributeDefinitionBuilder(CommonAttributes.CONNECTION_LIMIT_HIGH_WATER_MARK, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CONNECTION_LIMIT_LOW_WATER_MARK = new SimpleAttributeDefinitionBuilder(CommonAttributes.CONNECTION_LIMIT_LOW_WATER_MARK, ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition[] METRICS = {CONNECTION_COUNT, CONNECTION_LIMIT_HIGH_WATER_MARK, CONNECTION_LIMIT_LOW_WATER_MARK};
+
     static final ConnectorResource INSTANCE = new ConnectorResource();
 
     private ConnectorResource() {
@@ -110,6 +135,61 @@ public class ConnectorResource extends SimpleResourceDefinition {
         for (AttributeDefinition ad : ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(ad, null, writeHandler);
         }
+        for (AttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, ConnectorMetricsHandler.INSTANCE);
+        }
+    }
+
+    /**
+     * Reads the connection metrics of the connector's stream server from the management view of the XNIO worker it
+     * accepts connections on.
+     */
+    private static final class ConnectorMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final ConnectorMetricsHandler INSTANCE = new ConnectorMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final XnioServerMXBean metrics = getServerMetrics(context);
+            if (metrics == null) {
+                return;
+            }
+            final String name = operation.require(NAME).asString();
+            switch (name) {
+                case CommonAttributes.CONNECTION_COUNT:
+                    context.getResult().set(metrics.getConnectionCount());
+                    break;
+                case CommonAttributes.CONNECTION_LIMIT_HIGH_WATER_MARK:
+                    context.getResult().set(metrics.getConnectionLimitHighWater());
+                    break;
+                case CommonAttributes.CONNECTION_LIMIT_LOW_WATER_MARK:
+                    context.getResult().set(metrics.getConnectionLimitLowWater());
+                    break;
+                default:
+                    throw RemotingLogger.ROOT_LOGGER.unknownMetric(name);
+            }
+        }
+
+        private static XnioServerMXBean getServerMetrics(OperationContext context) {
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(RemotingServices.serverServiceName(context.getCurrentAddressValue()));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            final AcceptingChannel<StreamConnection> server = (AcceptingChannel<StreamConnection>) controller.getValue();
+            final XnioWorkerMXBean workerMetrics = server == null ? null : server.getWorker().getMXBean();
+            if (workerMetrics == null) {
+                return null;
+            }
+            // The worker identifies its servers by their bind address
+            final String bindAddress = String.valueOf(server.getLocalAddress());
+            for (XnioServerMXBean serverMetrics : workerMetrics.getServerMXBeans()) {
+                if (bindAddress.equals(serverMetrics.getBindAddress())) {
+                    return serverMetrics;
+                }
+            }
+            return null;
+        }
     }
 
 }
@@ -37,10 +37,12 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.Socket;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationFailedException;
@@ -306,6 +308,44 @@ public class RemotingSubsystemTestCase extends AbstractSubsystemBaseTest {
     }
 
 
+    @Test
+    public void testConnectorMetrics() throws Exception {
+        KernelServices services = createKernelServicesBuilder(createRuntimeAdditionalInitialization())
+                .setSubsystemXml(getSubsystemXml("remoting-with-connector-limits.xml"))
+                .build();
+        assertTrue(services.isSuccessfulBoot());
+
+        ServiceController<?> connectorController = services.getContainer().getRequiredService(RemotingServices.serverServiceName("limited-connector"));
+        connectorController.setMode(ServiceController.Mode.ACTIVE);
+        connectorController.awaitValue();
+
+        PathAddress connectorAddress = ROOT_ADDRESS.append(ConnectorResource.PATH.getKey(), "limited-connector");
+        assertEquals(0, readMetric(services, connectorAddress, CommonAttributes.CONNECTION_COUNT).asInt());
+        assertEquals(100, readMetric(services, connectorAddress, CommonAttributes.CONNECTION_LIMIT_HIGH_WATER_MARK).asInt());
+        assertEquals(90, readMetric(services, connectorAddress, CommonAttributes.CONNECTION_LIMIT_LOW_WATER_MARK).asInt());
+
+        // The metrics are those of the server bound to the connector's socket binding
+        try (Socket socket = new Socket("localhost", 27258)) {
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            int count = readMetric(services, connectorAddress, CommonAttributes.CONNECTION_COUNT).asInt();
+            while (count == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+                count = readMetric(services, connectorAddress, CommonAttributes.CONNECTION_COUNT).asInt();
+            }
+            assertEquals(1, count);
+        }
+
+        // Without a running server there is nothing to report
+        connectorController.setMode(ServiceController.Mode.NEVER);
+        services.getContainer().awaitStability();
+        Assert.assertFalse(readMetric(services, connectorAddress, CommonAttributes.CONNECTION_COUNT).isDefined());
+        Assert.assertFalse(readMetric(services, connectorAddress, CommonAttributes.CONNECTION_LIMIT_HIGH_WATER_MARK).isDefined());
+    }
+
+    private static ModelNode readMetric(KernelServices services, PathAddress address, String name) throws OperationFailedException {
+        return services.executeForResult(Util.getReadAttributeOperation(address, name));
+    }
+
     @Override
     protected void compareXml(String configId, String original, String marshalled) throws Exception {
         super.compareXml(configId, original, marshalled, true);
@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Adjusts the maximum number of active requests of a {@link RequestController} to the observed request latency.
+ * <p/>
+ * Request latency is measured without tracking individual requests. The active request count is sampled on every
+ * tick of the {@link TimeoutWheel} and requests are counted as they complete, so by Little's law the average latency
+ * over a window is the average number of active requests times the window length divided by the number of requests
+ * completed in it.
+ * <p/>
+ * At the end of each window the limit follows the gradient between a baseline latency and the latency of the window.
+ * The baseline is the lowest latency seen, slowly drifting towards higher latencies so it can follow a change in the
+ * workload. While latency stays within a tolerance of the baseline the limit grows by about the square root of
+ * itself, and as requests start to queue up inside the server and latency rises the limit shrinks in proportion, by
+ * at most half per window. The limit is only raised if it was reached during the window, so it does not grow without
+ * bound under light load. It always stays between a minimum and {@code max-requests}.
+ * <p/>
+ * The limit starts at {@code max-requests}, or at the upper bound if that is not set, so requests are not turned away
+ * before latency has been measured. Shrinking is smoothed over several windows while growth is not, so the limit
+ * recovers within seconds once latency is back to the baseline.
+ */
+final class AdaptiveLimit implements TimeoutWheel.QueuedTimeout {
+
+    private static final long TICK = 10;
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(resolveLong(
+            WildFlySecurityManager.getPropertyPrivileged("org.wildfly.request-controller.adaptive.window", null), 500));
+    static final int MIN_LIMIT = resolveInt(
+            WildFlySecurityManager.getPropertyPrivileged("org.wildfly.request-controller.adaptive.min-limit", null), 10);
+    /** Upper bound of the limit if {@code max-requests} is not set */
+    static final int MAX_LIMIT = resolveInt(
+            WildFlySecurityManager.getPropertyPrivileged("org.wildfly.request-controller.adaptive.max-limit", null), 1000);
+    /** How much the latency of a window may exceed the baseline before the limit shrinks */
+    private static final double TOLERANCE = resolveTolerance(
+            WildFlySecurityManager.getPropertyPrivileged("org.wildfly.request-controller.adaptive.tolerance", null), 1.5);
+    /** Windows with fewer completed requests are extended, as their latency estimate would be mostly noise */
+    private static final int MIN_COMPLETED = 10;
+    /** The number of windows over which the baseline latency catches up with a higher latency */
+    private static final int LONG_WINDOWS = 200;
+    private static final double SMOOTHING = 0.2;
+
+    private final RequestController controller;
+    private final LongAdder completed = new LongAdder();
+    private volatile TimeoutWheel wheel;
+    private volatile int limit;
+    private volatile long latency;
+
+    // only accessed by the timeout wheel thread
+    private long windowStart;
+    private long activeSum;
+    private int maxActive;
+    private int samples;
+    private double estimatedLimit;
+    private double baselineLatency;
+
+    AdaptiveLimit(RequestController controller, int maxRequests) {
+        this.controller = controller;
+        // start wide open, requests are only turned away once latency shows the server is overloaded
+        this.limit = clamp(Integer.MAX_VALUE, maxRequests);
+        this.estimatedLimit = limit;
+    }
+
+    /**
+     * Starts adjusting the limit.
+     *
+     * @param wheel the timeout wheel that drives the sampling
+     */
+    void start(TimeoutWheel wheel) {
+        this.wheel = wheel;
+        windowStart = System.nanoTime();
+        wheel.schedule(this, TICK);
+    }
+
+    void stop() {
+        wheel = null;
+    }
+
+    /**
+     * Records that a request has completed.
+     */
+    void requestCompleted() {
+        completed.increment();
+    }
+
+    /**
+     * @return the current limit
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Brings the limit within a new {@code max-requests}.
+     */
+    void setMaxRequests(int maxRequests) {
+        // the estimate is only touched by the wheel thread, which applies the new bound at the end of the window
+        limit = clamp(limit, maxRequests);
+    }
+
+    /**
+     * @return the average request latency of the last window in nanoseconds, or 0 if none has been measured yet
+     */
+    long getLatency() {
+        return latency;
+    }
+
+    @Override
+    public boolean isQueued() {
+        return wheel != null;
+    }
+
+    @Override
+    public void run() {
+        final TimeoutWheel wheel = this.wheel;
+        if (wheel == null) {
+            return;
+        }
+        sample(controller.getActiveRequestCount());
+        final long now = System.nanoTime();
+        final long window = now - windowStart;
+        if (window >= WINDOW) {
+            final long count = completed.sum();
+            if (count >= MIN_COMPLETED) {
+                completed.add(-count);
+                update(window, count);
+                resetWindow(now);
+            } else if (window >= WINDOW * 10) {
+                // too few requests to tell anything, start over
+                resetWindow(now);
+            }
+        }
+        wheel.schedule(this, TICK);
+    }
+
+    void sample(int active) {
+        activeSum += active;
+        maxActive = Math.max(maxActive, active);
+        samples++;
+    }
+
+    void resetWindow(long now) {
+        windowStart = now;
+        activeSum = 0;
+        maxActive = 0;
+        samples = 0;
+    }
+
+    void update(long window, long count) {
+        final double sample = (double) activeSum / samples * window / count;
+        latency = (long) sample;
+        if (sample <= 0) {
+            // requests complete faster than they can be sampled, the server is not loaded
+            return;
+        }
+        if (baselineLatency == 0 || sample < baselineLatency) {
+            baselineLatency = sample;
+        } else {
+            baselineLatency += (sample - baselineLatency) / LONG_WINDOWS;
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineLatency / sample));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (newLimit > estimatedLimit && maxActive < limit) {
+            // the limit was not reached, so there is no telling whether a higher one would help
+            return;
+        }
+        if (newLimit < estimatedLimit) {
+            // only shrinking is smoothed, so a single slow window does not cut the limit while recovery stays quick
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        }
+        final int maxRequests = controller.getMaxRequestCount();
+        final int upper = maxRequests > 0 ? maxRequests : MAX_LIMIT;
+        estimatedLimit = Math.max(Math.min(MIN_LIMIT, upper), Math.min(newLimit, upper));
+        final int previous = limit;
+        limit = (int) estimatedLimit;
+        if (limit != previous) {
+            RequestControllerLogger.ROOT_LOGGER.tracef("Adaptive request limit changed from %d to %d, latency %dns, baseline latency %dns",
+                    previous, limit, latency, (long) baselineLatency);
+            if (limit > previous) {
+                controller.limitIncreased();
+            }
+        }
+    }
+
+    private static int clamp(int limit, int maxRequests) {
+        final int upper = maxRequests > 0 ? maxRequests : MAX_LIMIT;
+        return Math.max(Math.min(MIN_LIMIT, upper), Math.min(limit, upper));
+    }
+
+    static int resolveInt(String value, int defaultValue) {
+        return (int) Math.min(Integer.MAX_VALUE, resolveLong(value, defaultValue));
+    }
+
+    static long resolveLong(String value, long defaultValue) {
+        if (value != null) {
+            try {
+                final long result = Long.parseLong(value.trim());
+                if (result > 0) {
+                    return result;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall back to the default
+            }
+            RequestControllerLogger.ROOT_LOGGER.debugf("Ignoring invalid adaptive request limit setting %s", value);
+        }
+        return defaultValue;
+    }
+
+    static double resolveTolerance(String value, double defaultValue) {
+        if (value != null) {
+            try {
+                final double result = Double.parseDouble(value.trim());
+                if (result >= 1.0 && !Double.isInfinite(result)) {
+                    return result;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall back to the default
+            }
+            RequestControllerLogger.ROOT_LOGGER.debugf("Ignoring invalid adaptive request limit tolerance %s", value);
+        }
+        return defaultValue;
+    }
+}
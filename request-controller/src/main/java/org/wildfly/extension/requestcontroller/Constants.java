@@ -29,6 +29,27 @@ package org.wildfly.extension.requestcontroller;
  */
 interface Constants {
     String MAX_REQUESTS = "max-requests";
+    String ADAPTIVE_MAX_REQUESTS = "adaptive-max-requests";
+    String CURRENT_MAX_REQUESTS = "current-max-requests";
+    String REQUEST_LATENCY = "request-latency";
     String ACTIVE_REQUESTS = "active-requests";
     String TRACK_INDIVIDUAL_ENDPOINTS = "track-individual-endpoints";
+    String CONTROL_POINT_LIMIT = "control-point-limit";
+    String DEPLOYMENT = "deployment";
+    String ENTRY_POINT = "entry-point";
+    String MAX_REQUEST_RATE = "max-request-rate";
+    String BURST = "burst";
+    String PRIORITY = "priority";
+    String QUEUE_DEPTH = "queue-depth";
+    String QUEUED_REQUESTS = "queued-requests";
+    String TOTAL_QUEUE_TIME = "total-queue-time";
+    String QUEUE_TIME_HISTOGRAM = "queue-time-histogram";
+    String MAX_QUEUE_TIME = "max-queue-time";
+    String REQUESTS = "requests";
+    String QUEUE_TIMEOUTS = "queue-timeouts";
+    String SUSPENDED_REJECTIONS = "suspended-rejections";
+    String MAX_REQUESTS_REJECTIONS = "max-requests-rejections";
+    String CONTROL_POINT_LIMIT_REJECTIONS = "control-point-limit-rejections";
+    String CONTROL_POINTS = "control-points";
+    String PAUSED = "paused";
 }
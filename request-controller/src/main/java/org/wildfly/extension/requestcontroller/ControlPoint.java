@@ -21,6 +21,7 @@
  */
 package org.wildfly.extension.requestcontroller;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.jboss.as.server.logging.ServerLogger;
@@ -64,6 +65,17 @@ public class ControlPoint {
     @SuppressWarnings("unused")
     private volatile ServerActivityCallback listener = null;
 
+    /**
+     * The limit that applies to this entry point, if any, with the number of this entry point's requests counted
+     * against it. It is replaced as a whole when the limits are reconfigured.
+     */
+    private volatile LimiterBinding limiterBinding = new LimiterBinding(null, 0);
+
+    /**
+     * The metrics of this entry point if individual control points are tracked, otherwise the overall metrics
+     */
+    private final RequestMetrics metrics;
+
     /**
      * The number of services that are using this entry point.
      * This is a deployment time measurement, not a runtime one
@@ -75,6 +87,7 @@ public class ControlPoint {
         this.deployment = deployment;
         this.entryPoint = entryPoint;
         this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.metrics = trackIndividualControlPoints ? new RequestMetrics(controller.getMetrics()) : controller.getMetrics();
     }
 
     public String getEntryPoint() {
@@ -126,14 +139,29 @@ public class ControlPoint {
      */
     public RunResult beginRequest() throws Exception {
         if (paused) {
+            metrics.requestRejectedSuspended();
+            return RunResult.REJECTED;
+        }
+        final LimiterBinding binding = enterLimiter(false);
+        if (binding == null) {
+            metrics.requestRejectedControlPointLimit();
             return RunResult.REJECTED;
         }
         if(trackIndividualControlPoints) {
             activeRequestCountUpdater.incrementAndGet(this);
         }
-        RunResult runResult = controller.beginRequest(false);
+        RunResult runResult = controller.beginRequest(false, metrics);
         if (runResult == RunResult.REJECTED) {
             decreaseRequestCount();
+            final ControlPointLimiter limiter = exitLimiter();
+            if (limiter != null) {
+                if (limiter == binding.limiter) {
+                    // the request never ran, so it should not count against the rate either
+                    limiter.cancel();
+                } else {
+                    limiter.release();
+                }
+            }
         }
         return runResult;
     }
@@ -153,7 +181,15 @@ public class ControlPoint {
         if(trackIndividualControlPoints) {
             activeRequestCountUpdater.incrementAndGet(this);
         }
-        return controller.beginRequest(true);
+        enterLimiter(true);
+        RunResult runResult = controller.beginRequest(true, metrics);
+        if (runResult == RunResult.REJECTED) {
+            final ControlPointLimiter limiter = exitLimiter();
+            if (limiter != null) {
+                limiter.release();
+            }
+        }
+        return runResult;
     }
 
     /**
@@ -163,6 +199,7 @@ public class ControlPoint {
         if(trackIndividualControlPoints) {
             activeRequestCountUpdater.incrementAndGet(this);
         }
+        enterLimiter(true);
     }
 
     /**
@@ -172,9 +209,65 @@ public class ControlPoint {
      */
     public void requestComplete() {
         decreaseRequestCount();
+        final ControlPointLimiter limiter = exitLimiter();
+        if (limiter != null) {
+            limiter.release();
+        }
         controller.requestComplete();
     }
 
+    /**
+     * Counts a request against the current limiter.
+     *
+     * @param force {@code true} if the request has already been admitted and must not be rejected
+     * @return the binding the request was counted against, or {@code null} if the limit rejected the request
+     */
+    private LimiterBinding enterLimiter(boolean force) {
+        for (;;) {
+            final LimiterBinding binding = limiterBinding;
+            final ControlPointLimiter limiter = binding.limiter;
+            if (limiter != null) {
+                if (force) {
+                    limiter.acquire(1);
+                } else if (!limiter.tryAcquire()) {
+                    return null;
+                }
+            }
+            if (binding.enter()) {
+                return binding;
+            }
+            // the limits are being reconfigured, undo and try again with the new limiter
+            if (limiter != null) {
+                if (force) {
+                    limiter.release();
+                } else {
+                    limiter.cancel();
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Stops counting a request against the limiter it is counted against.
+     *
+     * @return the limiter to release, or {@code null} if there is none
+     */
+    private ControlPointLimiter exitLimiter() {
+        for (;;) {
+            final LimiterBinding binding = limiterBinding;
+            if (binding.exit()) {
+                return binding.limiter;
+            }
+            if (!binding.isRetired()) {
+                // nothing was counted, the request was not started through this control point
+                return null;
+            }
+            // the limits are being reconfigured, the request is about to be counted against the new limiter
+            Thread.yield();
+        }
+    }
+
     private void decreaseRequestCount() {
         if (trackIndividualControlPoints) {
             int result = activeRequestCountUpdater.decrementAndGet(this);
@@ -232,6 +325,38 @@ public class ControlPoint {
         return paused;
     }
 
+    RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Switches this entry point to a different limiter. The active requests of this entry point move with it, so
+     * each limiter keeps counting exactly the requests that will release it.
+     */
+    synchronized void setLimiter(ControlPointLimiter limiter) {
+        final LimiterBinding previous = limiterBinding;
+        if (previous.limiter == limiter) {
+            return;
+        }
+        final int requests = previous.retire();
+        if (limiter != null) {
+            limiter.acquire(requests);
+        }
+        limiterBinding = new LimiterBinding(limiter, requests);
+        if (previous.limiter != null) {
+            previous.limiter.release(requests);
+        }
+    }
+
+    ControlPointLimiter getLimiter() {
+        return limiterBinding.limiter;
+    }
+
+    ControlPointLimit.Priority getPriority() {
+        final ControlPointLimiter limiter = limiterBinding.limiter;
+        return limiter == null ? ControlPointLimit.Priority.NORMAL : limiter.getPriority();
+    }
+
     public int getActiveRequestCount() {
         return activeRequestCountUpdater.get(this);
     }
@@ -243,4 +368,50 @@ public class ControlPoint {
     synchronized int decreaseReferenceCount() {
         return --referenceCount;
     }
+
+    /**
+     * A limiter and the number of this entry point's active requests counted against it. Once retired the count
+     * no longer changes, and is carried over to the binding that replaces it.
+     */
+    private static final class LimiterBinding {
+        private static final int RETIRED = -1;
+
+        private final ControlPointLimiter limiter;
+        private final AtomicInteger requests;
+
+        LimiterBinding(ControlPointLimiter limiter, int requests) {
+            this.limiter = limiter;
+            this.requests = new AtomicInteger(requests);
+        }
+
+        boolean enter() {
+            int count;
+            do {
+                count = requests.get();
+                if (count == RETIRED) {
+                    return false;
+                }
+            } while (!requests.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        boolean exit() {
+            int count;
+            do {
+                count = requests.get();
+                if (count == RETIRED || count == 0) {
+                    return false;
+                }
+            } while (!requests.compareAndSet(count, count - 1));
+            return true;
+        }
+
+        boolean isRetired() {
+            return requests.get() == RETIRED;
+        }
+
+        int retire() {
+            return requests.getAndSet(RETIRED);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+/**
+ * The configuration of a {@code control-point-limit}, which limits the requests of the {@link ControlPoint}s it
+ * matches.
+ * <p/>
+ * A limit matches control points by deployment and/or entry point name; an undefined name matches any. If several
+ * limits match a control point the most specific one applies, a limit naming a deployment being more specific than
+ * one naming only an entry point.
+ */
+final class ControlPointLimit {
+
+    /**
+     * The priority of the queued tasks of a control point. Queued tasks of a higher priority are run before those of
+     * a lower priority.
+     */
+    enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private final String name;
+    private final String deployment;
+    private final String entryPoint;
+    private final int maxRequests;
+    private final int maxRequestRate;
+    private final int burst;
+    private final Priority priority;
+
+    /**
+     * @param name the name of the limit
+     * @param deployment the deployment the limit applies to, or {@code null} for any
+     * @param entryPoint the entry point the limit applies to, or {@code null} for any
+     * @param maxRequests the maximum number of concurrent requests, or {@code -1} for no limit
+     * @param maxRequestRate the maximum number of requests per second, or {@code -1} for no limit
+     * @param burst the number of requests that may be started at once in excess of the rate, at least {@code 1}
+     * @param priority the priority of queued tasks
+     */
+    ControlPointLimit(String name, String deployment, String entryPoint, int maxRequests, int maxRequestRate, int burst, Priority priority) {
+        this.name = name;
+        this.deployment = deployment;
+        this.entryPoint = entryPoint;
+        this.maxRequests = maxRequests;
+        this.maxRequestRate = maxRequestRate;
+        this.burst = Math.max(1, burst);
+        this.priority = priority;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getMaxRequests() {
+        return maxRequests;
+    }
+
+    int getMaxRequestRate() {
+        return maxRequestRate;
+    }
+
+    int getBurst() {
+        return burst;
+    }
+
+    Priority getPriority() {
+        return priority;
+    }
+
+    boolean matches(String deployment, String entryPoint) {
+        return (this.deployment == null || this.deployment.equals(deployment))
+                && (this.entryPoint == null || this.entryPoint.equals(entryPoint));
+    }
+
+    int getSpecificity() {
+        return (deployment == null ? 0 : 2) + (entryPoint == null ? 0 : 1);
+    }
+}
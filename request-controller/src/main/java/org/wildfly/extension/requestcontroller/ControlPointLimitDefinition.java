@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Definition of a {@code control-point-limit}, which limits the concurrency and rate of requests through the control
+ * points of a deployment and/or entry point, and sets the priority of their queued tasks.
+ */
+class ControlPointLimitDefinition extends PersistentResourceDefinition {
+
+    static final PathElement PATH = PathElement.pathElement(Constants.CONTROL_POINT_LIMIT);
+
+    static final SimpleAttributeDefinition DEPLOYMENT = SimpleAttributeDefinitionBuilder.create(Constants.DEPLOYMENT, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .build();
+
+    static final SimpleAttributeDefinition ENTRY_POINT = SimpleAttributeDefinitionBuilder.create(Constants.ENTRY_POINT, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .build();
+
+    static final SimpleAttributeDefinition MAX_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.MAX_REQUESTS, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .build();
+
+    static final SimpleAttributeDefinition MAX_REQUEST_RATE = SimpleAttributeDefinitionBuilder.create(Constants.MAX_REQUEST_RATE, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setMeasurementUnit(MeasurementUnit.PER_SECOND)
+            .build();
+
+    static final SimpleAttributeDefinition BURST = SimpleAttributeDefinitionBuilder.create(Constants.BURST, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(1))
+            .setRequires(Constants.MAX_REQUEST_RATE)
+            .build();
+
+    static final SimpleAttributeDefinition PRIORITY = SimpleAttributeDefinitionBuilder.create(Constants.PRIORITY, ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setValidator(EnumValidator.create(ControlPointLimit.Priority.class, true, true))
+            .setDefaultValue(new ModelNode(ControlPointLimit.Priority.NORMAL.name()))
+            .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {DEPLOYMENT, ENTRY_POINT, MAX_REQUESTS, MAX_REQUEST_RATE, BURST, PRIORITY};
+
+    static final ControlPointLimitDefinition INSTANCE = new ControlPointLimitDefinition();
+
+    private ControlPointLimitDefinition() {
+        super(PATH,
+                RequestControllerExtension.getResolver(Constants.CONTROL_POINT_LIMIT),
+                new AbstractAddStepHandler(ATTRIBUTES) {
+                    @Override
+                    protected void performRuntime(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+                        ControlPointLimitUpdateHandler.INSTANCE.execute(context, operation);
+                    }
+                },
+                new AbstractRemoveStepHandler() {
+                    @Override
+                    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+                        ControlPointLimitUpdateHandler.INSTANCE.execute(context, operation);
+                    }
+                });
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        final WriteHandler handler = new WriteHandler();
+        for (AttributeDefinition attribute : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, handler);
+        }
+    }
+
+    /**
+     * Applies the new value to the request controller. The update step registers its own rollback, so there is
+     * nothing to revert here.
+     */
+    private static final class WriteHandler extends AbstractWriteAttributeHandler<Void> {
+
+        private WriteHandler() {
+            super(ATTRIBUTES);
+        }
+
+        @Override
+        protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName,
+                                               ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<Void> handbackHolder) throws OperationFailedException {
+            ControlPointLimitUpdateHandler.INSTANCE.execute(context, operation);
+            return false;
+        }
+
+        @Override
+        protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName,
+                                             ModelNode valueToRestore, ModelNode valueToRevert, Void handback) throws OperationFailedException {
+        }
+    }
+}
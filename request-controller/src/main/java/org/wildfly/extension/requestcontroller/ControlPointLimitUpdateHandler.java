@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Pushes the {@code control-point-limit} resources of the subsystem to the {@link RequestController} after one of
+ * them has been added, removed or modified, restoring the previous limits if the operation is rolled back.
+ */
+class ControlPointLimitUpdateHandler implements OperationStepHandler {
+
+    static final ControlPointLimitUpdateHandler INSTANCE = new ControlPointLimitUpdateHandler();
+
+    private ControlPointLimitUpdateHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress subsystemAddress = context.getCurrentAddress().getParent();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> serviceController = context.getServiceRegistry(false).getService(RequestController.SERVICE_NAME);
+                if (serviceController == null) {
+                    return;
+                }
+                final RequestController requestController = (RequestController) serviceController.getService().getValue();
+                final List<ControlPointLimit> previous = requestController.setControlPointLimits(readLimits(context, subsystemAddress));
+                context.completeStep(new OperationContext.RollbackHandler() {
+                    @Override
+                    public void handleRollback(OperationContext context, ModelNode operation) {
+                        requestController.setControlPointLimits(previous);
+                    }
+                });
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+
+    private static List<ControlPointLimit> readLimits(OperationContext context, PathAddress subsystemAddress) throws OperationFailedException {
+        final List<ControlPointLimit> limits = new ArrayList<>();
+        final Resource subsystem = context.readResourceFromRoot(subsystemAddress, false);
+        for (Resource.ResourceEntry entry : subsystem.getChildren(Constants.CONTROL_POINT_LIMIT)) {
+            final ModelNode model = entry.getModel();
+            final ModelNode deployment = ControlPointLimitDefinition.DEPLOYMENT.resolveModelAttribute(context, model);
+            final ModelNode entryPoint = ControlPointLimitDefinition.ENTRY_POINT.resolveModelAttribute(context, model);
+            final ModelNode maxRequests = ControlPointLimitDefinition.MAX_REQUESTS.resolveModelAttribute(context, model);
+            final ModelNode maxRequestRate = ControlPointLimitDefinition.MAX_REQUEST_RATE.resolveModelAttribute(context, model);
+            limits.add(new ControlPointLimit(entry.getName(),
+                    deployment.isDefined() ? deployment.asString() : null,
+                    entryPoint.isDefined() ? entryPoint.asString() : null,
+                    maxRequests.isDefined() ? maxRequests.asInt() : -1,
+                    maxRequestRate.isDefined() ? maxRequestRate.asInt() : -1,
+                    ControlPointLimitDefinition.BURST.resolveModelAttribute(context, model).asInt(),
+                    ControlPointLimit.Priority.valueOf(ControlPointLimitDefinition.PRIORITY.resolveModelAttribute(context, model).asString())));
+        }
+        return limits;
+    }
+}
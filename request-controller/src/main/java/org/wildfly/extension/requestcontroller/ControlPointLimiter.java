@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces a {@link ControlPointLimit} across all the control points it applies to.
+ * <p/>
+ * Concurrency is limited with a counter of active requests. The rate is limited with the generic cell rate
+ * algorithm, a token bucket that only stores the time at which the bucket will next have room, so that both
+ * checks are a single compare and set.
+ */
+final class ControlPointLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private volatile ControlPointLimit limit;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    /** The time at which the next request would conform to the rate if there was no burst allowance */
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+
+    ControlPointLimiter(ControlPointLimit limit) {
+        this.limit = limit;
+    }
+
+    ControlPointLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Updates the limit. Active requests and the rate history carry over to the new limit.
+     */
+    void setLimit(ControlPointLimit limit) {
+        this.limit = limit;
+    }
+
+    ControlPointLimit.Priority getPriority() {
+        return limit.getPriority();
+    }
+
+    int getActiveRequests() {
+        return activeRequests.get();
+    }
+
+    /**
+     * Attempts to start a request within the limit. If this returns {@code true} then {@link #release()} must be
+     * called once the request is complete.
+     *
+     * @return {@code true} if the request may start
+     */
+    boolean tryAcquire() {
+        final ControlPointLimit limit = this.limit;
+        final int maxRequests = limit.getMaxRequests();
+        if (maxRequests <= 0) {
+            activeRequests.incrementAndGet();
+        } else {
+            int active;
+            do {
+                active = activeRequests.get();
+                if (active >= maxRequests) {
+                    return false;
+                }
+            } while (!activeRequests.compareAndSet(active, active + 1));
+        }
+        if (!tryAcquireRate(limit)) {
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean tryAcquireRate(ControlPointLimit limit) {
+        final int rate = limit.getMaxRequestRate();
+        if (rate <= 0) {
+            return true;
+        }
+        final long interval = NANOS_PER_SECOND / rate;
+        final long tolerance = interval * (limit.getBurst() - 1);
+        for (;;) {
+            final long now = System.nanoTime();
+            final long arrival = theoreticalArrivalTime.get();
+            final long start = arrival - now > 0 ? arrival : now;
+            if (start - now > tolerance) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrival, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Starts requests regardless of the limit, because they have already been admitted elsewhere or were moved to
+     * this limiter from another one. {@link #release(int)} must be called once the requests are complete.
+     *
+     * @param requests the number of requests
+     */
+    void acquire(int requests) {
+        activeRequests.addAndGet(requests);
+    }
+
+    void release() {
+        activeRequests.decrementAndGet();
+    }
+
+    void release(int requests) {
+        activeRequests.addAndGet(-requests);
+    }
+
+    /**
+     * Undoes a successful {@link #tryAcquire()} of a request that did not run after all, giving back its share of
+     * the rate as well as its place in the concurrency limit.
+     */
+    void cancel() {
+        release();
+        final int rate = limit.getMaxRequestRate();
+        if (rate > 0) {
+            theoreticalArrivalTime.addAndGet(-NANOS_PER_SECOND / rate);
+        }
+    }
+}
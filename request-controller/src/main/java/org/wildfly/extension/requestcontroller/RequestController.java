@@ -34,14 +34,13 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
 
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -67,6 +66,11 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private volatile int maxRequestCount = -1;
 
+    /**
+     * Adjusts the request limit to the request latency, if {@code adaptive-max-requests} is enabled
+     */
+    private volatile AdaptiveLimit adaptiveLimit;
+
     private volatile int activeRequestCount = 0;
 
     private volatile boolean paused = false;
@@ -80,8 +84,13 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private final boolean trackIndividualControlPoints;
 
+    private final RequestMetrics metrics = new RequestMetrics(null);
+
     public RequestController(boolean trackIndividualControlPoints) {
         this.trackIndividualControlPoints = trackIndividualControlPoints;
+        for (int i = 0; i < ControlPointLimit.Priority.values().length; i++) {
+            taskQueues.add(new ConcurrentLinkedQueue<QueuedTask>());
+        }
     }
 
     @Override
@@ -89,9 +98,23 @@ public class RequestController implements Service<RequestController>, ServerActi
         listener.done();
     }
 
-    private Timer timer;
+    private volatile TimeoutWheel timeoutWheel;
 
-    private final Deque<QueuedTask> taskQueue = new LinkedBlockingDeque<>();
+    /**
+     * Queued tasks, one queue per {@link ControlPointLimit.Priority} in priority order
+     */
+    private final List<Queue<QueuedTask>> taskQueues = new ArrayList<>();
+
+    /**
+     * Tasks that must run even while the controller is suspended, kept apart so they can be found without
+     * searching the main queue
+     */
+    private final Queue<QueuedTask> forceRunQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The limiters of the configured control point limits, by limit name
+     */
+    private final Map<String, ControlPointLimiter> limiters = new HashMap<>();
 
     /**
      * Pause the controller. All existing requests will have a chance to finish, and once all requests are
@@ -122,8 +145,8 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
-            runQueuedTask(false);
+        while (runQueuedTask(false)) {
+            // run queued tasks until the queue is empty or the limit is reached
         }
     }
 
@@ -208,33 +231,55 @@ public class RequestController implements Service<RequestController>, ServerActi
         return new RequestControllerState(paused, activeRequestCount, maxRequestCount, eps);
     }
 
-    RunResult beginRequest(boolean force) {
-        int maxRequests = maxRequestCount;
-        int active = activeRequestCountUpdater.get(this);
-        boolean success = false;
-        while ((maxRequests <= 0 || active < maxRequests) && (!paused || force)) {
-            if (activeRequestCountUpdater.compareAndSet(this, active, active + 1)) {
-                success = true;
-                break;
-            }
-            active = activeRequestCountUpdater.get(this);
-        }
-        if (success) {
-            //re-check the paused state
-            //this is necessary because there is a race between checking paused and updating active requests
-            //if this happens we just call requestComplete(), as the listener can only be invoked once it does not
-            //matter if it has already been invoked
-            if(!force && paused) {
-                requestComplete();
-                return RunResult.REJECTED;
+    /**
+     * Begins a request, recording the reason if it is rejected.
+     */
+    RunResult beginRequest(boolean force, RequestMetrics metrics) {
+        final RunResult result = beginRequest(force);
+        if (result == RunResult.REJECTED) {
+            if (!force && paused) {
+                metrics.requestRejectedSuspended();
+            } else {
+                metrics.requestRejectedMaxRequests();
             }
-            return RunResult.RUN;
+        }
+        return result;
+    }
+
+    private RunResult beginRequest(boolean force) {
+        if (paused && !force) {
+            return RunResult.REJECTED;
+        }
+        final AdaptiveLimit adaptiveLimit = this.adaptiveLimit;
+        final int maxRequests = adaptiveLimit == null ? maxRequestCount : adaptiveLimit.getLimit();
+        if (maxRequests <= 0) {
+            //no limit, so there is nothing to compare against and a single atomic add is enough
+            activeRequestCountUpdater.incrementAndGet(this);
         } else {
+            int active;
+            do {
+                active = activeRequestCountUpdater.get(this);
+                if (active >= maxRequests) {
+                    return RunResult.REJECTED;
+                }
+            } while (!activeRequestCountUpdater.compareAndSet(this, active, active + 1));
+        }
+        //re-check the paused state
+        //this is necessary because there is a race between checking paused and updating active requests
+        //if this happens we just call requestComplete(), as the listener can only be invoked once it does not
+        //matter if it has already been invoked
+        if(!force && paused) {
+            runQueuedTask(true);
             return RunResult.REJECTED;
         }
+        return RunResult.RUN;
     }
 
     void requestComplete() {
+        final AdaptiveLimit adaptiveLimit = this.adaptiveLimit;
+        if (adaptiveLimit != null) {
+            adaptiveLimit.requestCompleted();
+        }
         runQueuedTask(true);
     }
 
@@ -269,6 +314,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         ControlPoint ep = entryPoints.get(id);
         if (ep == null) {
             ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints);
+            ep.setLimiter(findLimiter(deploymentName, entryPointName));
             entryPoints.put(id, ep);
         }
         ep.increaseReferenceCount();
@@ -287,6 +333,54 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
+    /**
+     * Replaces the control point limits. A limit that keeps its name keeps its active request count and rate
+     * history, so reconfiguring it does not let a burst of requests through.
+     *
+     * @param limits The new limits
+     * @return The previous limits
+     */
+    synchronized List<ControlPointLimit> setControlPointLimits(Collection<ControlPointLimit> limits) {
+        final List<ControlPointLimit> previous = new ArrayList<>();
+        for (ControlPointLimiter limiter : limiters.values()) {
+            previous.add(limiter.getLimit());
+        }
+        final Map<String, ControlPointLimiter> updated = new HashMap<>();
+        for (ControlPointLimit limit : limits) {
+            ControlPointLimiter limiter = limiters.get(limit.getName());
+            if (limiter == null) {
+                limiter = new ControlPointLimiter(limit);
+            } else {
+                limiter.setLimit(limit);
+            }
+            updated.put(limit.getName(), limiter);
+        }
+        limiters.clear();
+        limiters.putAll(updated);
+        for (ControlPoint controlPoint : entryPoints.values()) {
+            controlPoint.setLimiter(findLimiter(controlPoint.getDeployment(), controlPoint.getEntryPoint()));
+        }
+        return previous;
+    }
+
+    /**
+     * Finds the most specific limit that applies to a control point, preferring the lowest name between equally
+     * specific limits so the choice does not depend on the order of configuration.
+     */
+    private ControlPointLimiter findLimiter(String deployment, String entryPoint) {
+        ControlPointLimiter result = null;
+        for (ControlPointLimiter limiter : limiters.values()) {
+            final ControlPointLimit limit = limiter.getLimit();
+            if (limit.matches(deployment, entryPoint)) {
+                if (result == null || limit.getSpecificity() > result.getLimit().getSpecificity()
+                        || (limit.getSpecificity() == result.getLimit().getSpecificity() && limit.getName().compareTo(result.getLimit().getName()) < 0)) {
+                    result = limiter;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * @return The maximum number of requests that can be active at a time
      */
@@ -304,10 +398,61 @@ public class RequestController implements Service<RequestController>, ServerActi
      */
     public void setMaxRequestCount(int maxRequestCount) {
         this.maxRequestCount = maxRequestCount;
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
-            if(!runQueuedTask(false)) {
-                break;
+        final AdaptiveLimit adaptiveLimit = this.adaptiveLimit;
+        if (adaptiveLimit != null) {
+            adaptiveLimit.setMaxRequests(maxRequestCount);
+        }
+        while (runQueuedTask(false)) {
+            // run queued tasks until the queue is empty or the new limit is reached
+        }
+    }
+
+    /**
+     * Enables or disables adjusting the maximum number of active requests to the observed request latency. While
+     * enabled the limit moves between a minimum and the max request count, if one is set.
+     *
+     * @param adaptive {@code true} to adjust the limit to the request latency
+     */
+    public synchronized void setAdaptiveMaxRequests(boolean adaptive) {
+        AdaptiveLimit adaptiveLimit = this.adaptiveLimit;
+        if (adaptive && adaptiveLimit == null) {
+            adaptiveLimit = new AdaptiveLimit(this, maxRequestCount);
+            final TimeoutWheel timeoutWheel = this.timeoutWheel;
+            if (timeoutWheel != null) {
+                adaptiveLimit.start(timeoutWheel);
             }
+            this.adaptiveLimit = adaptiveLimit;
+        } else if (!adaptive && adaptiveLimit != null) {
+            adaptiveLimit.stop();
+            this.adaptiveLimit = null;
+            limitIncreased();
+        }
+    }
+
+    /**
+     * @return The maximum number of requests that can currently be active at a time, which differs from
+     * {@link #getMaxRequestCount()} if the limit adapts to the request latency
+     */
+    public int getCurrentMaxRequestCount() {
+        final AdaptiveLimit adaptiveLimit = this.adaptiveLimit;
+        return adaptiveLimit == null ? maxRequestCount : adaptiveLimit.getLimit();
+    }
+
+    /**
+     * @return The average latency of recently completed requests in nanoseconds, or 0 if the limit does not adapt to
+     * the request latency
+     */
+    public long getRequestLatency() {
+        final AdaptiveLimit adaptiveLimit = this.adaptiveLimit;
+        return adaptiveLimit == null ? 0 : adaptiveLimit.getLatency();
+    }
+
+    /**
+     * Runs the queued tasks that fit within a raised limit.
+     */
+    void limitIncreased() {
+        while (runQueuedTask(false)) {
+            // run queued tasks until the queue is empty or the new limit is reached
         }
     }
 
@@ -321,18 +466,32 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Override
     public void start(StartContext startContext) throws StartException {
         shutdownControllerInjectedValue.getValue().registerActivity(this);
-        timer = new Timer();
+        final TimeoutWheel timeoutWheel = new TimeoutWheel("RequestController timeout");
+        synchronized (this) {
+            this.timeoutWheel = timeoutWheel;
+            if (adaptiveLimit != null) {
+                adaptiveLimit.start(timeoutWheel);
+            }
+        }
     }
 
     @Override
     public void stop(StopContext stopContext) {
         shutdownControllerInjectedValue.getValue().unRegisterActivity(this);
-        timer.cancel();
-        timer = null;
-        while (!taskQueue.isEmpty()) {
-            QueuedTask t = taskQueue.poll();
-            if(t != null) {
-                t.run();
+        synchronized (this) {
+            if (adaptiveLimit != null) {
+                adaptiveLimit.stop();
+            }
+            timeoutWheel.stop();
+            timeoutWheel = null;
+        }
+        QueuedTask t;
+        while ((t = forceRunQueue.poll()) != null) {
+            t.cancel(false);
+        }
+        for (Queue<QueuedTask> taskQueue : taskQueues) {
+            while ((t = taskQueue.poll()) != null) {
+                t.cancel(false);
             }
         }
     }
@@ -350,70 +509,101 @@ public class RequestController implements Service<RequestController>, ServerActi
         return activeRequestCount;
     }
 
+    RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The control points, if individual control points are tracked, otherwise an empty list
+     */
+    synchronized List<ControlPoint> getControlPoints() {
+        return trackIndividualControlPoints ? new ArrayList<>(entryPoints.values()) : new ArrayList<ControlPoint>();
+    }
+
     void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun) {
         if(paused) {
             if(rejectOnSuspend && !forceRun) {
+                controlPoint.getMetrics().requestRejectedSuspended();
                 taskExecutor.execute(timeoutTask);
                 return;
             }
         }
-        QueuedTask queuedTask = new QueuedTask(taskExecutor, task, timeoutTask, controlPoint, forceRun);
-        taskQueue.add(queuedTask);
+        QueuedTask queuedTask = new QueuedTask(taskExecutor, task, timeoutTask, controlPoint);
+        controlPoint.getMetrics().taskQueued();
+        if (forceRun) {
+            forceRunQueue.add(queuedTask);
+        } else {
+            taskQueues.get(controlPoint.getPriority().ordinal()).add(queuedTask);
+        }
         runQueuedTask(false);
         if(queuedTask.isQueued()) {
             if(timeout > 0) {
-                timer.schedule(queuedTask, timeout);
+                timeoutWheel.schedule(queuedTask, timeout);
             }
         }
     }
 
     /**
-     * Runs a queued task, if the queue is not already empty.
+     * Runs a queued task, if there is one that can run.
      *
-     * Note that this will decrement the request count if there are no queued tasks to be run
+     * Note that if the caller holds a permit it is handed over to the task that is run, or released if there
+     * is no task to run.
      *
      * @param hasPermit If the caller has already called {@link #beginRequest(boolean force)}
+     * @return {@code true} if a task was run
      */
     private boolean runQueuedTask(boolean hasPermit) {
-        QueuedTask task = null;
-        if(!hasPermit) {
-            if(!paused) {
-                if (beginRequest(false) == RunResult.REJECTED) {
+        for (;;) {
+            //while suspended only force queued tasks may run, and they may exceed the suspension but not the limit
+            final boolean paused = this.paused;
+            if (!hasPermit) {
+                if (!hasRunnableTask(paused) || beginRequest(paused) == RunResult.REJECTED) {
                     return false;
                 }
-                task = taskQueue.poll();
-            } else {
-                //the container is suspended, but we still need to run any force queued tasks
-                List<QueuedTask> storage = new ArrayList<>();
-                while (task == null && !taskQueue.isEmpty()) {
-                    QueuedTask tmp = taskQueue.poll();
-                    if(tmp.forceRun) {
-                        task = tmp;
-                    } else {
-                        storage.add(tmp);
-                    }
-                }
-                //this screws the order somewhat, but the container is suspending anyway, and the order
-                //was never guarenteed. if we push them back onto the front we will need to just go through them again
-                taskQueue.addAll(storage);
-                if(task == null) {
-                    return false;
+            }
+            QueuedTask task;
+            while ((task = pollTask(paused)) != null) {
+                //a task that has timed out can't run, so hand the permit to the next one
+                if (task.runRequest()) {
+                    return true;
                 }
-                //after all that we are at the max request limit anyway
-                if (beginRequest(true) == RunResult.REJECTED) {
-                    return false;
+            }
+            decrementRequestCount();
+            //a task queued after the queues were polled but before the permit was released may have been
+            //unable to get a permit, so check again now that it is available
+            if (!hasRunnableTask(this.paused)) {
+                return false;
+            }
+            hasPermit = false;
+        }
+    }
+
+    private boolean hasRunnableTask(final boolean paused) {
+        if (!forceRunQueue.isEmpty()) {
+            return true;
+        }
+        if (!paused) {
+            for (Queue<QueuedTask> taskQueue : taskQueues) {
+                if (!taskQueue.isEmpty()) {
+                    return true;
                 }
             }
         }
-        if(task != null) {
-            if(!task.runRequest()) {
-                decrementRequestCount();
+        return false;
+    }
+
+    private QueuedTask pollTask(final boolean paused) {
+        //force queued tasks belong to requests that are already running, so they go first
+        QueuedTask task = forceRunQueue.poll();
+        if (task == null && !paused) {
+            for (Queue<QueuedTask> taskQueue : taskQueues) {
+                task = taskQueue.poll();
+                if (task != null) {
+                    break;
+                }
             }
-            return true;
-        } else {
-            decrementRequestCount();
-            return false;
         }
+        return task;
     }
 
     private static final class ControlPointIdentifier {
@@ -451,30 +641,38 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
 
-    private static final class QueuedTask extends TimerTask {
+    private static final class QueuedTask implements TimeoutWheel.QueuedTimeout {
 
         private final Executor executor;
         private final Runnable task;
         private final Runnable cancelTask;
         private final ControlPoint controlPoint;
-        private final boolean forceRun;
+        private final long queuedTime = System.nanoTime();
 
         //0 == queued
         //1 == run
         //2 == cancelled
         private final AtomicInteger state = new AtomicInteger(0);
 
-        private QueuedTask(Executor executor, Runnable task, Runnable cancelTask, ControlPoint controlPoint, boolean forceRun) {
+        private QueuedTask(Executor executor, Runnable task, Runnable cancelTask, ControlPoint controlPoint) {
             this.executor = executor;
             this.task = task;
             this.cancelTask = cancelTask;
             this.controlPoint = controlPoint;
-            this.forceRun = forceRun;
         }
 
         @Override
         public void run() {
+            cancel(true);
+        }
+
+        private void cancel(boolean timedOut) {
             if(state.compareAndSet(0, 2)) {
+                if (timedOut) {
+                    controlPoint.getMetrics().taskTimedOut();
+                } else {
+                    controlPoint.getMetrics().taskCancelled();
+                }
                 if(cancelTask != null) {
                     try {
                         executor.execute(cancelTask);
@@ -488,7 +686,7 @@ public class RequestController implements Service<RequestController>, ServerActi
 
         public boolean runRequest() {
             if(state.compareAndSet(0, 1)) {
-                cancel();
+                controlPoint.getMetrics().taskRun(System.nanoTime() - queuedTime);
                 executor.execute(new Runnable() {
                     @Override
                     public void run() {
@@ -506,7 +704,8 @@ public class RequestController implements Service<RequestController>, ServerActi
             }
         }
 
-        boolean isQueued() {
+        @Override
+        public boolean isQueued() {
             return state.get() == 0;
         }
     }
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Read handler for the request controller metrics
+ */
+class RequestControllerMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final RequestControllerMetricsHandler INSTANCE = new RequestControllerMetricsHandler();
+
+    /**
+     * The metrics kept by {@link RequestMetrics}, both overall and for each control point
+     */
+    private static final String[] REQUEST_METRICS = {Constants.QUEUE_DEPTH, Constants.QUEUED_REQUESTS, Constants.TOTAL_QUEUE_TIME,
+            Constants.QUEUE_TIME_HISTOGRAM, Constants.QUEUE_TIMEOUTS, Constants.SUSPENDED_REJECTIONS, Constants.MAX_REQUESTS_REJECTIONS,
+            Constants.CONTROL_POINT_LIMIT_REJECTIONS};
+
+    private RequestControllerMetricsHandler() {
+    }
+
+    @Override
+    protected boolean requiresRuntime(OperationContext context) {
+        return true;
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        ServiceController<?> service = context.getServiceRegistry(false).getService(RequestController.SERVICE_NAME);
+        if (service == null) {
+            return;
+        }
+        RequestController requestController = (RequestController) service.getService().getValue();
+        final String attributeName = operation.require(NAME).asString();
+        switch (attributeName) {
+            case Constants.CURRENT_MAX_REQUESTS:
+                context.getResult().set(requestController.getCurrentMaxRequestCount());
+                break;
+            case Constants.REQUEST_LATENCY:
+                context.getResult().set(TimeUnit.NANOSECONDS.toMicros(requestController.getRequestLatency()));
+                break;
+            case Constants.CONTROL_POINTS:
+                final ModelNode result = context.getResult().setEmptyList();
+                for (ControlPoint controlPoint : requestController.getControlPoints()) {
+                    final ModelNode node = result.add();
+                    node.get(Constants.DEPLOYMENT).set(controlPoint.getDeployment());
+                    node.get(Constants.ENTRY_POINT).set(controlPoint.getEntryPoint());
+                    node.get(Constants.PAUSED).set(controlPoint.isPaused());
+                    node.get(Constants.ACTIVE_REQUESTS).set(controlPoint.getActiveRequestCount());
+                    for (String metric : REQUEST_METRICS) {
+                        node.get(metric).set(readMetric(controlPoint.getMetrics(), metric));
+                    }
+                }
+                break;
+            default:
+                context.getResult().set(readMetric(requestController.getMetrics(), attributeName));
+        }
+    }
+
+    private static ModelNode readMetric(RequestMetrics metrics, String name) {
+        final ModelNode result = new ModelNode();
+        switch (name) {
+            case Constants.QUEUE_DEPTH:
+                result.set(metrics.getQueueDepth());
+                break;
+            case Constants.QUEUED_REQUESTS:
+                result.set(metrics.getQueuedRequests());
+                break;
+            case Constants.TOTAL_QUEUE_TIME:
+                result.set(TimeUnit.NANOSECONDS.toMillis(metrics.getQueueTime()));
+                break;
+            case Constants.QUEUE_TIME_HISTOGRAM:
+                result.setEmptyList();
+                final long[] histogram = metrics.getQueueTimeHistogram();
+                for (int i = 0; i < histogram.length; i++) {
+                    final ModelNode bucket = result.add();
+                    if (i < RequestMetrics.QUEUE_TIME_BUCKETS.length) {
+                        bucket.get(Constants.MAX_QUEUE_TIME).set(RequestMetrics.QUEUE_TIME_BUCKETS[i]);
+                    }
+                    bucket.get(Constants.REQUESTS).set(histogram[i]);
+                }
+                break;
+            case Constants.QUEUE_TIMEOUTS:
+                result.set(metrics.getQueueTimeouts());
+                break;
+            case Constants.SUSPENDED_REJECTIONS:
+                result.set(metrics.getSuspendedRejections());
+                break;
+            case Constants.MAX_REQUESTS_REJECTIONS:
+                result.set(metrics.getMaxRequestsRejections());
+                break;
+            case Constants.CONTROL_POINT_LIMIT_REJECTIONS:
+                result.set(metrics.getControlPointLimitRejections());
+                break;
+        }
+        return result;
+    }
+}
@@ -24,18 +24,22 @@
 
 package org.wildfly.extension.requestcontroller;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -53,6 +57,11 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    public static final SimpleAttributeDefinition ADAPTIVE_MAX_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ADAPTIVE_MAX_REQUESTS, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
     public static final SimpleAttributeDefinition TRACK_INDIVIDUAL_ENDPOINTS = SimpleAttributeDefinitionBuilder.create(Constants.TRACK_INDIVIDUAL_ENDPOINTS, ModelType.BOOLEAN, true)
             .setAllowExpression(true)
             .setDefaultValue(new ModelNode(false))
@@ -62,6 +71,87 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
     public static final SimpleAttributeDefinition ACTIVE_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ACTIVE_REQUESTS, ModelType.INT, true)
             .setStorageRuntime()
             .build();
+
+    public static final SimpleAttributeDefinition CURRENT_MAX_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.CURRENT_MAX_REQUESTS, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition REQUEST_LATENCY = SimpleAttributeDefinitionBuilder.create(Constants.REQUEST_LATENCY, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition QUEUE_DEPTH = SimpleAttributeDefinitionBuilder.create(Constants.QUEUE_DEPTH, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition QUEUED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.QUEUED_REQUESTS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition TOTAL_QUEUE_TIME = SimpleAttributeDefinitionBuilder.create(Constants.TOTAL_QUEUE_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition MAX_QUEUE_TIME = SimpleAttributeDefinitionBuilder.create(Constants.MAX_QUEUE_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.REQUESTS, ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    public static final ObjectListAttributeDefinition QUEUE_TIME_HISTOGRAM =
+            ObjectListAttributeDefinition.Builder.of(Constants.QUEUE_TIME_HISTOGRAM,
+                    ObjectTypeAttributeDefinition.Builder.of(Constants.QUEUE_TIME_HISTOGRAM, MAX_QUEUE_TIME, REQUESTS)
+                            .build())
+                    .setRequired(false)
+                    .setStorageRuntime()
+                    .build();
+
+    public static final SimpleAttributeDefinition QUEUE_TIMEOUTS = SimpleAttributeDefinitionBuilder.create(Constants.QUEUE_TIMEOUTS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition SUSPENDED_REJECTIONS = SimpleAttributeDefinitionBuilder.create(Constants.SUSPENDED_REJECTIONS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition MAX_REQUESTS_REJECTIONS = SimpleAttributeDefinitionBuilder.create(Constants.MAX_REQUESTS_REJECTIONS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition CONTROL_POINT_LIMIT_REJECTIONS = SimpleAttributeDefinitionBuilder.create(Constants.CONTROL_POINT_LIMIT_REJECTIONS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CONTROL_POINT_DEPLOYMENT = SimpleAttributeDefinitionBuilder.create(Constants.DEPLOYMENT, ModelType.STRING, false)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CONTROL_POINT_ENTRY_POINT = SimpleAttributeDefinitionBuilder.create(Constants.ENTRY_POINT, ModelType.STRING, false)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CONTROL_POINT_PAUSED = SimpleAttributeDefinitionBuilder.create(Constants.PAUSED, ModelType.BOOLEAN, false)
+            .setStorageRuntime()
+            .build();
+
+    public static final ObjectListAttributeDefinition CONTROL_POINTS =
+            ObjectListAttributeDefinition.Builder.of(Constants.CONTROL_POINTS,
+                    ObjectTypeAttributeDefinition.Builder.of(Constants.CONTROL_POINTS, CONTROL_POINT_DEPLOYMENT, CONTROL_POINT_ENTRY_POINT,
+                            CONTROL_POINT_PAUSED, ACTIVE_REQUESTS, QUEUE_DEPTH, QUEUED_REQUESTS, TOTAL_QUEUE_TIME, QUEUE_TIME_HISTOGRAM,
+                            QUEUE_TIMEOUTS, SUSPENDED_REJECTIONS, MAX_REQUESTS_REJECTIONS, CONTROL_POINT_LIMIT_REJECTIONS)
+                            .build())
+                    .setRequired(false)
+                    .setStorageRuntime()
+                    .build();
+
+    static final AttributeDefinition[] METRICS = {ACTIVE_REQUESTS, CURRENT_MAX_REQUESTS, REQUEST_LATENCY, QUEUE_DEPTH, QUEUED_REQUESTS,
+            TOTAL_QUEUE_TIME, QUEUE_TIME_HISTOGRAM, QUEUE_TIMEOUTS, SUSPENDED_REJECTIONS, MAX_REQUESTS_REJECTIONS,
+            CONTROL_POINT_LIMIT_REJECTIONS, CONTROL_POINTS};
+
     public static final RequestControllerRootDefinition INSTANCE = new RequestControllerRootDefinition(true);
 
     static final RuntimeCapability<Void> REQUEST_CONTROLLER_CAPABILITY =
@@ -85,24 +175,32 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
 
     private static Collection<AttributeDefinition> getAttributeDefinitions(boolean registerRuntimeOnly) {
         if(registerRuntimeOnly) {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ACTIVE_REQUESTS});
+            final List<AttributeDefinition> attributes = new ArrayList<>(Arrays.asList(MAX_REQUESTS, ADAPTIVE_MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS));
+            attributes.addAll(Arrays.asList(METRICS));
+            return attributes;
         } else {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, ADAPTIVE_MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS});
         }
     }
 
     @Override
     protected List<? extends PersistentResourceDefinition> getChildren() {
-        return Collections.emptyList();
+        return Collections.singletonList(ControlPointLimitDefinition.INSTANCE);
     }
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
-        MaxRequestsWriteHandler handler = new MaxRequestsWriteHandler(MAX_REQUESTS);
+        MaxRequestsWriteHandler handler = new MaxRequestsWriteHandler(MAX_REQUESTS, ADAPTIVE_MAX_REQUESTS);
         resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS, null, handler);
+        resourceRegistration.registerReadWriteAttribute(ADAPTIVE_MAX_REQUESTS, null, handler);
         resourceRegistration.registerReadWriteAttribute(TRACK_INDIVIDUAL_ENDPOINTS, null, new ReloadRequiredWriteAttributeHandler(TRACK_INDIVIDUAL_ENDPOINTS));
         if(registerRuntimeOnly) {
             resourceRegistration.registerMetric(ACTIVE_REQUESTS, new ActiveRequestsReadHandler());
+            for (AttributeDefinition metric : METRICS) {
+                if (metric != ACTIVE_REQUESTS) {
+                    resourceRegistration.registerMetric(metric, RequestControllerMetricsHandler.INSTANCE);
+                }
+            }
         }
     }
 
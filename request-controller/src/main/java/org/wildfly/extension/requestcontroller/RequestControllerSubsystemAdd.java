@@ -70,6 +70,7 @@ class RequestControllerSubsystemAdd extends AbstractBoottimeAddStepHandler {
         RequestController requestController = new RequestController(trackIndividual);
 
         requestController.setMaxRequestCount(maxRequests);
+        requestController.setAdaptiveMaxRequests(RequestControllerRootDefinition.ADAPTIVE_MAX_REQUESTS.resolveModelAttribute(context, resource.getModel()).asBoolean());
 
         context.getServiceTarget().addService(RequestController.SERVICE_NAME, requestController)
                 .addDependency(SuspendController.SERVICE_NAME, SuspendController.class, requestController.getShutdownControllerInjectedValue())
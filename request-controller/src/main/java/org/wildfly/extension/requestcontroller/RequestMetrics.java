@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the requests rejected and the tasks queued by the request controller, either overall or through a
+ * single control point. The metrics of a control point also count towards the overall metrics.
+ */
+final class RequestMetrics {
+
+    /**
+     * The upper bounds in milliseconds of the buckets of the queue time histogram. The last bucket has no bound.
+     */
+    static final long[] QUEUE_TIME_BUCKETS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+
+    private static final long[] QUEUE_TIME_BUCKET_NANOS = new long[QUEUE_TIME_BUCKETS.length];
+
+    static {
+        for (int i = 0; i < QUEUE_TIME_BUCKETS.length; i++) {
+            QUEUE_TIME_BUCKET_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(QUEUE_TIME_BUCKETS[i]);
+        }
+    }
+
+    private final RequestMetrics parent;
+    private final LongAdder queueDepth = new LongAdder();
+    private final LongAdder queuedRequests = new LongAdder();
+    private final LongAdder queueTime = new LongAdder();
+    private final LongAdder[] queueTimeHistogram = new LongAdder[QUEUE_TIME_BUCKETS.length + 1];
+    private final LongAdder queueTimeouts = new LongAdder();
+    private final LongAdder suspendedRejections = new LongAdder();
+    private final LongAdder maxRequestsRejections = new LongAdder();
+    private final LongAdder controlPointLimitRejections = new LongAdder();
+
+    /**
+     * @param parent the metrics that are also updated by these metrics, or {@code null}
+     */
+    RequestMetrics(RequestMetrics parent) {
+        this.parent = parent;
+        for (int i = 0; i < queueTimeHistogram.length; i++) {
+            queueTimeHistogram[i] = new LongAdder();
+        }
+    }
+
+    void requestRejectedSuspended() {
+        suspendedRejections.increment();
+        if (parent != null) {
+            parent.requestRejectedSuspended();
+        }
+    }
+
+    void requestRejectedMaxRequests() {
+        maxRequestsRejections.increment();
+        if (parent != null) {
+            parent.requestRejectedMaxRequests();
+        }
+    }
+
+    void requestRejectedControlPointLimit() {
+        controlPointLimitRejections.increment();
+        if (parent != null) {
+            parent.requestRejectedControlPointLimit();
+        }
+    }
+
+    void taskQueued() {
+        queuedRequests.increment();
+        queueDepth.increment();
+        if (parent != null) {
+            parent.taskQueued();
+        }
+    }
+
+    /**
+     * @param time the time the task spent queued in nanoseconds
+     */
+    void taskRun(long time) {
+        queueDepth.decrement();
+        queueTime.add(time);
+        int bucket = 0;
+        while (bucket < QUEUE_TIME_BUCKET_NANOS.length && time > QUEUE_TIME_BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        queueTimeHistogram[bucket].increment();
+        if (parent != null) {
+            parent.taskRun(time);
+        }
+    }
+
+    void taskTimedOut() {
+        queueDepth.decrement();
+        queueTimeouts.increment();
+        if (parent != null) {
+            parent.taskTimedOut();
+        }
+    }
+
+    /**
+     * Records a task that was cancelled without timing out, because the request controller stopped.
+     */
+    void taskCancelled() {
+        queueDepth.decrement();
+        if (parent != null) {
+            parent.taskCancelled();
+        }
+    }
+
+    /**
+     * @return the number of tasks currently queued
+     */
+    int getQueueDepth() {
+        return (int) Math.max(0, queueDepth.sum());
+    }
+
+    /**
+     * @return the number of tasks queued, including the ones that could run straight away
+     */
+    long getQueuedRequests() {
+        return queuedRequests.sum();
+    }
+
+    /**
+     * @return the total time queued tasks waited before they ran in nanoseconds
+     */
+    long getQueueTime() {
+        return queueTime.sum();
+    }
+
+    /**
+     * @return the number of tasks that ran after waiting for up to each of the {@link #QUEUE_TIME_BUCKETS}, followed
+     * by the number of tasks that waited longer
+     */
+    long[] getQueueTimeHistogram() {
+        final long[] result = new long[queueTimeHistogram.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = queueTimeHistogram[i].sum();
+        }
+        return result;
+    }
+
+    long getQueueTimeouts() {
+        return queueTimeouts.sum();
+    }
+
+    long getSuspendedRejections() {
+        return suspendedRejections.sum();
+    }
+
+    long getMaxRequestsRejections() {
+        return maxRequestsRejections.sum();
+    }
+
+    long getControlPointLimitRejections() {
+        return controlPointLimitRejections.sum();
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
+
+/**
+ * A hashed wheel timer for the timeouts of queued tasks.
+ * <p/>
+ * Scheduling a timeout only adds it to a lock free queue, and a timeout whose task runs before it expires is simply
+ * dropped when its bucket is next visited, so neither scheduling nor cancelling contends on a lock the way
+ * {@link java.util.Timer} does. Timeouts fire up to one tick late. The worker thread parks while no timeouts are
+ * pending.
+ */
+final class TimeoutWheel {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    /** Only accessed by the worker thread */
+    private final List<List<Timeout>> wheel = new ArrayList<>(WHEEL_SIZE);
+    /** The number of timeouts in the wheel, only accessed by the worker thread */
+    private int count;
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile boolean idle;
+
+    TimeoutWheel(final String name) {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<Timeout>());
+        }
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                TimeoutWheel.this.run();
+            }
+        }, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Runs the given task after the given delay, unless it has been run or cancelled by then.
+     *
+     * @param task the timeout task
+     * @param delay the delay in milliseconds
+     */
+    void schedule(final QueuedTimeout task, final long delay) {
+        pending.add(new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay)));
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Stops the worker thread. Timeouts that have not fired yet are discarded.
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - startTime) / TICK;
+    }
+
+    private void run() {
+        // every tick up to and including this one has been expired
+        long processed = currentTick();
+        while (running) {
+            final long now = currentTick();
+            transferPending(processed);
+            while (processed < now) {
+                expire(++processed);
+            }
+            if (count == 0) {
+                idle = true;
+                // re-check after publishing idle, as schedule() only unparks an idle worker
+                if (pending.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                processed = currentTick();
+            } else {
+                LockSupport.parkNanos(this, startTime + (processed + 1) * TICK - System.nanoTime());
+            }
+        }
+        pending.clear();
+    }
+
+    private void transferPending(final long processed) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (!timeout.task.isQueued()) {
+                continue;
+            }
+            // round up, so a timeout never fires early
+            long tick = (timeout.deadline - startTime + TICK - 1) / TICK;
+            if (tick <= processed) {
+                tick = processed + 1;
+            }
+            timeout.rounds = (tick - processed - 1) / WHEEL_SIZE;
+            wheel.get((int) (tick & MASK)).add(timeout);
+            count++;
+        }
+    }
+
+    private void expire(final long tick) {
+        final List<Timeout> bucket = wheel.get((int) (tick & MASK));
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            final Timeout timeout = bucket.get(i);
+            if (!timeout.task.isQueued()) {
+                count--;
+            } else if (timeout.rounds <= 0) {
+                count--;
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    RequestControllerLogger.ROOT_LOGGER.failedToCancelTask(timeout.task, e);
+                }
+            } else {
+                timeout.rounds--;
+                bucket.set(kept++, timeout);
+            }
+        }
+        for (int i = bucket.size() - 1; i >= kept; i--) {
+            bucket.remove(i);
+        }
+    }
+
+    /**
+     * A task that can time out while it is queued.
+     */
+    interface QueuedTimeout extends Runnable {
+
+        /**
+         * @return {@code true} if the task is still waiting, {@code false} once it has been run or timed out
+         */
+        boolean isQueued();
+    }
+
+    private static final class Timeout {
+        private final QueuedTimeout task;
+        private final long deadline;
+        private long rounds;
+
+        private Timeout(final QueuedTimeout task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of adjusting the request limit to the request latency with {@link AdaptiveLimit}.
+ */
+public class AdaptiveLimitTestCase {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private RequestController controller;
+
+    @Before
+    public void setUp() {
+        controller = new RequestController(true);
+    }
+
+    @Test
+    public void testStartsAtUpperBound() {
+        assertEquals(AdaptiveLimit.MAX_LIMIT, new AdaptiveLimit(controller, -1).getLimit());
+        final AdaptiveLimit limit = new AdaptiveLimit(controller, 50);
+        assertEquals(50, limit.getLimit());
+        limit.setMaxRequests(20);
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksAsLatencyRises() {
+        final AdaptiveLimit limit = new AdaptiveLimit(controller, -1);
+        window(limit, limit.getLimit(), BASELINE);
+        assertEquals(AdaptiveLimit.MAX_LIMIT, limit.getLimit());
+        assertEquals(BASELINE, limit.getLatency());
+
+        int previous = limit.getLimit();
+        for (int i = 0; i < 20; i++) {
+            window(limit, previous, BASELINE * 4);
+            assertTrue(limit.getLimit() < previous);
+            // at most half per window
+            assertTrue(limit.getLimit() >= previous / 2);
+            previous = limit.getLimit();
+        }
+        assertTrue(limit.getLimit() < AdaptiveLimit.MAX_LIMIT / 4);
+    }
+
+    @Test
+    public void testLimitStaysAboveMinimum() {
+        final AdaptiveLimit limit = new AdaptiveLimit(controller, -1);
+        long latency = BASELINE;
+        for (int i = 0; i < 100; i++) {
+            window(limit, limit.getLimit(), latency);
+            assertTrue(limit.getLimit() >= AdaptiveLimit.MIN_LIMIT);
+            latency += latency / 4;
+        }
+        assertEquals(AdaptiveLimit.MIN_LIMIT, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitRecoversOnceLatencyDrops() {
+        final AdaptiveLimit limit = new AdaptiveLimit(controller, -1);
+        window(limit, limit.getLimit(), BASELINE);
+        for (int i = 0; i < 100; i++) {
+            window(limit, limit.getLimit(), BASELINE * 4);
+        }
+        assertTrue(limit.getLimit() < 50);
+
+        int windows = 0;
+        while (limit.getLimit() < AdaptiveLimit.MAX_LIMIT) {
+            final int previous = limit.getLimit();
+            window(limit, previous, BASELINE);
+            assertTrue(limit.getLimit() > previous);
+            // growth is bounded by the square root of the limit
+            assertTrue(limit.getLimit() <= previous + Math.sqrt(previous) + 2);
+            assertTrue("limit took too long to recover", ++windows <= 80);
+        }
+        window(limit, limit.getLimit(), BASELINE);
+        assertEquals(AdaptiveLimit.MAX_LIMIT, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitOnlyRaisedWhenReached() {
+        final AdaptiveLimit limit = new AdaptiveLimit(controller, -1);
+        window(limit, limit.getLimit(), BASELINE);
+        for (int i = 0; i < 20; i++) {
+            window(limit, limit.getLimit(), BASELINE * 4);
+        }
+        final int reduced = limit.getLimit();
+        for (int i = 0; i < 10; i++) {
+            window(limit, reduced / 2, BASELINE);
+            assertEquals(reduced, limit.getLimit());
+        }
+        window(limit, reduced, BASELINE);
+        assertTrue(limit.getLimit() > reduced);
+    }
+
+    @Test
+    public void testLimitNeverExceedsMaxRequests() {
+        controller.setMaxRequestCount(50);
+        final AdaptiveLimit limit = new AdaptiveLimit(controller, 50);
+        for (int i = 0; i < 10; i++) {
+            window(limit, limit.getLimit(), BASELINE);
+            assertEquals(50, limit.getLimit());
+        }
+        for (int i = 0; i < 10; i++) {
+            window(limit, limit.getLimit(), BASELINE * 4);
+        }
+        assertTrue(limit.getLimit() < 50);
+        for (int i = 0; i < 50; i++) {
+            window(limit, limit.getLimit(), BASELINE);
+            assertTrue(limit.getLimit() <= 50);
+        }
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    public void testResolveSettings() {
+        assertEquals(25, AdaptiveLimit.resolveInt("25", 10));
+        assertEquals(25, AdaptiveLimit.resolveInt(" 25 ", 10));
+        assertEquals(Integer.MAX_VALUE, AdaptiveLimit.resolveInt("99999999999", 10));
+        assertEquals(10, AdaptiveLimit.resolveInt(null, 10));
+        assertEquals(10, AdaptiveLimit.resolveInt("0", 10));
+        assertEquals(10, AdaptiveLimit.resolveInt("-5", 10));
+        assertEquals(10, AdaptiveLimit.resolveInt("ten", 10));
+        assertEquals(10, AdaptiveLimit.resolveInt("", 10));
+        assertEquals(250, AdaptiveLimit.resolveLong("250", 500));
+        assertEquals(500, AdaptiveLimit.resolveLong("250ms", 500));
+        assertEquals(2.0, AdaptiveLimit.resolveTolerance("2", 1.5), 0);
+        assertEquals(1.5, AdaptiveLimit.resolveTolerance("0.5", 1.5), 0);
+        assertEquals(1.5, AdaptiveLimit.resolveTolerance("NaN", 1.5), 0);
+        assertEquals(1.5, AdaptiveLimit.resolveTolerance("Infinity", 1.5), 0);
+        assertEquals(1.5, AdaptiveLimit.resolveTolerance("high", 1.5), 0);
+    }
+
+    /**
+     * Ends a window in which {@code active} requests were running at a time, each taking {@code latency} nanoseconds.
+     */
+    private static void window(AdaptiveLimit limit, int active, long latency) {
+        final long count = active * 10L;
+        for (int i = 0; i < 50; i++) {
+            limit.sample(active);
+        }
+        // by Little's law
+        limit.update(latency * count / active, count);
+        limit.resetWindow(System.nanoTime());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.as.server.suspend.SuspendController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ControlPointLimit}s applied to {@link ControlPoint}s.
+ */
+public class ControlPointLimitTestCase {
+
+    private static final ControlPointLimit ALL = limit("all", null, 10, -1);
+    private static final ControlPointLimit A = limit("a", "a.war", 3, -1);
+
+    private RequestController controller;
+    private ControlPoint a;
+    private ControlPoint b;
+
+    @Before
+    public void setUp() throws Exception {
+        controller = new RequestController(true);
+        controller.getShutdownControllerInjectedValue().inject(new SuspendController());
+        controller.start(null);
+        controller.resume();
+        a = controller.getControlPoint("a.war", "web");
+        b = controller.getControlPoint("b.war", "web");
+    }
+
+    @After
+    public void tearDown() {
+        controller.stop(null);
+    }
+
+    @Test
+    public void testMoreSpecificLimitAddedWithRequestsInFlight() throws Exception {
+        controller.setControlPointLimits(Collections.singletonList(ALL));
+        final ControlPointLimiter all = a.getLimiter();
+        assertSame(all, b.getLimiter());
+        begin(a, 3);
+        begin(b, 2);
+        assertEquals(5, all.getActiveRequests());
+
+        controller.setControlPointLimits(Arrays.asList(ALL, A));
+        final ControlPointLimiter limiterA = a.getLimiter();
+        assertNotSame(all, limiterA);
+        assertSame(all, b.getLimiter());
+        // The requests of a in flight moved to its new limit, which they fill
+        assertEquals(2, all.getActiveRequests());
+        assertEquals(3, limiterA.getActiveRequests());
+        assertEquals(RunResult.REJECTED, a.beginRequest());
+
+        complete(a, 3);
+        assertEquals(0, limiterA.getActiveRequests());
+        assertEquals(2, all.getActiveRequests());
+        // b can use all of its limit again
+        begin(b, 8);
+        assertEquals(RunResult.REJECTED, b.beginRequest());
+        complete(b, 10);
+        assertEquals(0, all.getActiveRequests());
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testLimitRemovedWithRequestsInFlight() throws Exception {
+        controller.setControlPointLimits(Arrays.asList(ALL, A));
+        final ControlPointLimiter limiterA = a.getLimiter();
+        final ControlPointLimiter all = b.getLimiter();
+        begin(a, 2);
+
+        // a falls back to the less specific limit
+        controller.setControlPointLimits(Collections.singletonList(ALL));
+        assertSame(all, a.getLimiter());
+        assertEquals(0, limiterA.getActiveRequests());
+        assertEquals(2, all.getActiveRequests());
+
+        controller.setControlPointLimits(Collections.<ControlPointLimit>emptyList());
+        assertNull(a.getLimiter());
+        assertEquals(0, all.getActiveRequests());
+
+        complete(a, 2);
+        controller.setControlPointLimits(Collections.singletonList(ALL));
+        assertEquals(0, a.getLimiter().getActiveRequests());
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testRequestRejectedByGlobalLimitDoesNotUseRate() throws Exception {
+        controller.setControlPointLimits(Collections.singletonList(limit("rate", "a.war", -1, 1)));
+        controller.setMaxRequestCount(1);
+        assertEquals(RunResult.RUN, b.beginRequest());
+        // Within the rate, but there is no room for another request on the server
+        assertEquals(RunResult.REJECTED, a.beginRequest());
+        assertEquals(0, a.getLimiter().getActiveRequests());
+        b.requestComplete();
+
+        assertEquals(RunResult.RUN, a.beginRequest());
+        a.requestComplete();
+        // Now the one request a second has been used
+        assertEquals(RunResult.REJECTED, a.beginRequest());
+        assertEquals(0, a.getLimiter().getActiveRequests());
+    }
+
+    @Test
+    public void testReconfigureUnderLoad() throws Exception {
+        controller.setControlPointLimits(Collections.singletonList(ALL));
+        final ControlPointLimiter all = a.getLimiter();
+        final AtomicBoolean done = new AtomicBoolean();
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+        for (final ControlPoint controlPoint : new ControlPoint[] {a, a, b, b}) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        if (controlPoint.beginRequest() == RunResult.RUN) {
+                            Thread.yield();
+                            controlPoint.requestComplete();
+                        }
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        final List<ControlPointLimiter> limitersA = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                controller.setControlPointLimits(i % 2 == 0 ? Arrays.asList(ALL, A) : Collections.singletonList(ALL));
+                limitersA.add(a.getLimiter());
+            }
+        } finally {
+            done.set(true);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        assertEquals(Collections.<Throwable>emptyList(), failures);
+        // Every request released the limiter it was counted against
+        assertEquals(0, all.getActiveRequests());
+        for (ControlPointLimiter limiter : limitersA) {
+            assertEquals(0, limiter.getActiveRequests());
+        }
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    private static void begin(final ControlPoint controlPoint, final int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        }
+    }
+
+    private static void complete(final ControlPoint controlPoint, final int requests) {
+        for (int i = 0; i < requests; i++) {
+            controlPoint.requestComplete();
+        }
+    }
+
+    private static ControlPointLimit limit(final String name, final String deployment, final int maxRequests, final int maxRequestRate) {
+        return new ControlPointLimit(name, deployment, null, maxRequests, maxRequestRate, 1, ControlPointLimit.Priority.NORMAL);
+    }
+}
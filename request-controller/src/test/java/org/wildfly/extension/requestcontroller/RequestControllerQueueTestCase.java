@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.server.suspend.SuspendController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of queueing tasks with the {@link RequestController}.
+ */
+public class RequestControllerQueueTestCase {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private RequestController controller;
+    private ControlPoint controlPoint;
+
+    @Before
+    public void setUp() throws Exception {
+        controller = new RequestController(true);
+        controller.getShutdownControllerInjectedValue().inject(new SuspendController());
+        controller.start(null);
+        controller.resume();
+        controlPoint = controller.getControlPoint("test.war", "test");
+    }
+
+    @After
+    public void tearDown() {
+        controller.stop(null);
+    }
+
+    @Test
+    public void testQueuedTaskRunsWhenRequestCompletes() throws Exception {
+        controller.setMaxRequestCount(1);
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+
+        final AtomicInteger runs = new AtomicInteger();
+        controlPoint.queueTask(runs::incrementAndGet, DIRECT, -1, null, false);
+        assertEquals(0, runs.get());
+
+        controlPoint.requestComplete();
+        assertEquals(1, runs.get());
+        assertEquals(0, controller.getActiveRequestCount());
+        assertEquals(1, controlPoint.getMetrics().getQueuedRequests());
+        assertEquals(0, controlPoint.getMetrics().getQueueDepth());
+        assertEquals(1, controller.getMetrics().getQueuedRequests());
+    }
+
+    @Test
+    public void testForcedTaskRunsWhileSuspended() throws Exception {
+        controller.suspended(() -> { });
+        final AtomicInteger runs = new AtomicInteger();
+        controlPoint.queueTask(runs::incrementAndGet, DIRECT, -1, null, false);
+        controlPoint.forceQueueTask(runs::incrementAndGet, DIRECT);
+        assertEquals(1, runs.get());
+
+        controller.resume();
+        assertEquals(2, runs.get());
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testQueuedTaskTimesOut() throws Exception {
+        controller.setMaxRequestCount(1);
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch timedOut = new CountDownLatch(1);
+        controlPoint.queueTask(runs::incrementAndGet, DIRECT, 50, timedOut::countDown, false);
+        assertTrue(timedOut.await(10, TimeUnit.SECONDS));
+
+        controlPoint.requestComplete();
+        assertEquals(0, runs.get());
+        assertEquals(0, controller.getActiveRequestCount());
+        assertEquals(1, controlPoint.getMetrics().getQueueTimeouts());
+        assertEquals(0, controlPoint.getMetrics().getQueueDepth());
+    }
+
+    @Test
+    public void testTimeoutNotFiredForTaskThatRan() throws Exception {
+        controller.setMaxRequestCount(1);
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+
+        final CountDownLatch timedOut = new CountDownLatch(1);
+        controlPoint.queueTask(() -> { }, DIRECT, 50, timedOut::countDown, false);
+        controlPoint.requestComplete();
+        assertFalse(timedOut.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testControlPointLimitRejectsAboveMaxRequests() throws Exception {
+        controller.setControlPointLimits(Collections.singletonList(
+                new ControlPointLimit("limit", "test.war", null, 1, -1, 1, ControlPointLimit.Priority.NORMAL)));
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+        assertEquals(1, controller.getActiveRequestCount());
+        assertEquals(1, controlPoint.getMetrics().getControlPointLimitRejections());
+
+        controlPoint.requestComplete();
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        controlPoint.requestComplete();
+        assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testHighPriorityTaskRunsFirst() throws Exception {
+        controller.setControlPointLimits(Arrays.asList(
+                new ControlPointLimit("high", null, "high", -1, -1, 1, ControlPointLimit.Priority.HIGH),
+                new ControlPointLimit("low", null, "low", -1, -1, 1, ControlPointLimit.Priority.LOW)));
+        final ControlPoint high = controller.getControlPoint("test.war", "high");
+        final ControlPoint low = controller.getControlPoint("test.war", "low");
+        controller.setMaxRequestCount(1);
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+
+        final List<String> runs = new ArrayList<>();
+        low.queueTask(() -> runs.add("low"), DIRECT, -1, null, false);
+        controlPoint.queueTask(() -> runs.add("normal"), DIRECT, -1, null, false);
+        high.queueTask(() -> runs.add("high"), DIRECT, -1, null, false);
+
+        controlPoint.requestComplete();
+        assertEquals(Arrays.asList("high", "normal", "low"), runs);
+        assertEquals(0, controller.getActiveRequestCount());
+        controller.removeControlPoint(high);
+        controller.removeControlPoint(low);
+    }
+
+    @Test
+    public void testRejectionsAreCounted() throws Exception {
+        controller.setMaxRequestCount(1);
+        assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+        controlPoint.requestComplete();
+        controller.suspended(() -> { });
+        assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+
+        assertEquals(1, controlPoint.getMetrics().getMaxRequestsRejections());
+        assertEquals(1, controlPoint.getMetrics().getSuspendedRejections());
+        assertEquals(1, controller.getMetrics().getMaxRequestsRejections());
+        assertEquals(1, controller.getMetrics().getSuspendedRejections());
+    }
+}
@@ -54,7 +54,7 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("request-controller-1.0.xml");
+        return readResource("request-controller-1.1.xml");
     }
 
     @Test
@@ -70,6 +70,18 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
         workerServiceController.awaitValue();
         RequestController controller = workerServiceController.getService().getValue();
         Assert.assertEquals(100, controller.getMaxRequestCount());
+        Assert.assertEquals(100, controller.getCurrentMaxRequestCount());
+        ControlPoint app = controller.getControlPoint("app.war", "batch");
+        ControlPoint other = controller.getControlPoint("other.war", "batch");
+        Assert.assertEquals(ControlPointLimit.Priority.HIGH, app.getPriority());
+        Assert.assertEquals(ControlPointLimit.Priority.LOW, other.getPriority());
+        controller.removeControlPoint(app);
+        controller.removeControlPoint(other);
+    }
+
+    @Test
+    public void testSubsystem_1_0() throws Exception {
+        standardSubsystemTest("request-controller-1.0.xml", false);
     }
 
     @Override
@@ -324,9 +324,84 @@ public class DeploymentAttributes {
                     .setRequired(true)
                     .build();
 
+    public static final SimpleAttributeDefinition TIMING_PHASE = SimpleAttributeDefinitionBuilder.create("phase", ModelType.STRING, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition TIMING_PROCESSING_TIME = SimpleAttributeDefinitionBuilder.create("processing-time", ModelType.LONG, false)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    public static final SimpleAttributeDefinition TIMING_WAITING_TIME = SimpleAttributeDefinitionBuilder.create("waiting-time", ModelType.LONG, false)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    public static final SimpleAttributeDefinition TIMING_PROCESSOR = SimpleAttributeDefinitionBuilder.create("processor", ModelType.STRING, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition TIMING_TIME = SimpleAttributeDefinitionBuilder.create("time", ModelType.LONG, false)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    public static final ObjectListAttributeDefinition PHASE_TIMES =
+            ObjectListAttributeDefinition.Builder.of("phase-times",
+                    ObjectTypeAttributeDefinition.Builder.of("phase-times", TIMING_PHASE, TIMING_PROCESSING_TIME, TIMING_WAITING_TIME)
+                            .build())
+                    .setRequired(false)
+                    .setStorageRuntime()
+                    .build();
+    public static final ObjectListAttributeDefinition PROCESSOR_TIMES =
+            ObjectListAttributeDefinition.Builder.of("processor-times",
+                    ObjectTypeAttributeDefinition.Builder.of("processor-times", TIMING_PHASE, TIMING_PROCESSOR, TIMING_TIME)
+                            .build())
+                    .setRequired(false)
+                    .setStorageRuntime()
+                    .build();
+    public static final SimpleAttributeDefinition CLASS_LOADING_MODULE = SimpleAttributeDefinitionBuilder.create("module", ModelType.STRING, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition CLASS_LOADING_DEPENDENCIES = SimpleAttributeDefinitionBuilder.create("dependencies", ModelType.INT, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition LOADED_CLASSES = SimpleAttributeDefinitionBuilder.create("loaded-classes", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition CLASS_LOAD_TIME = SimpleAttributeDefinitionBuilder.create("class-load-time", ModelType.LONG, false)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    public static final SimpleAttributeDefinition CLASS_LOOKUP_MISSES = SimpleAttributeDefinitionBuilder.create("class-lookup-misses", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition RESOURCE_LOOKUPS = SimpleAttributeDefinitionBuilder.create("resource-lookups", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition RESOURCE_LOOKUP_MISSES = SimpleAttributeDefinitionBuilder.create("resource-lookup-misses", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition MISSED_PATH = SimpleAttributeDefinitionBuilder.create("path", ModelType.STRING, false)
+            .setStorageRuntime()
+            .build();
+    public static final SimpleAttributeDefinition MISSES = SimpleAttributeDefinitionBuilder.create("misses", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+    public static final ObjectListAttributeDefinition MISSED_PATHS =
+            ObjectListAttributeDefinition.Builder.of("missed-paths",
+                    ObjectTypeAttributeDefinition.Builder.of("missed-paths", MISSED_PATH, MISSES)
+                            .build())
+                    .setRequired(false)
+                    .setStorageRuntime()
+                    .build();
+    public static final ObjectListAttributeDefinition CLASS_LOADING =
+            ObjectListAttributeDefinition.Builder.of("class-loading",
+                    ObjectTypeAttributeDefinition.Builder.of("class-loading", CLASS_LOADING_MODULE, CLASS_LOADING_DEPENDENCIES,
+                            LOADED_CLASSES, CLASS_LOAD_TIME, CLASS_LOOKUP_MISSES, RESOURCE_LOOKUPS, RESOURCE_LOOKUP_MISSES, MISSED_PATHS)
+                            .build())
+                    .setRequired(false)
+                    .setStorageRuntime()
+                    .build();
 
     /** Attributes for server deployment resource */
-    public static final AttributeDefinition[] SERVER_RESOURCE_ATTRIBUTES = new AttributeDefinition[] {NAME, RUNTIME_NAME, CONTENT_RESOURCE_ALL, ENABLED, PERSISTENT, OWNER, STATUS, ENABLED_TIME, ENABLED_TIMESTAMP, DISABLED_TIME, DISABLED_TIMESTAMP, MANAGED};
+    public static final AttributeDefinition[] SERVER_RESOURCE_ATTRIBUTES = new AttributeDefinition[] {NAME, RUNTIME_NAME, CONTENT_RESOURCE_ALL, ENABLED, PERSISTENT, OWNER, STATUS, ENABLED_TIME, ENABLED_TIMESTAMP, DISABLED_TIME, DISABLED_TIMESTAMP, MANAGED, PHASE_TIMES, PROCESSOR_TIMES, CLASS_LOADING};
 
     /** Attributes for server deployment add */
     public static final AttributeDefinition[] SERVER_ADD_ATTRIBUTES = new AttributeDefinition[] { RUNTIME_NAME_NILLABLE, CONTENT_PARAM_ALL, ENABLED};// 'hide' the persistent and owner attributes from users
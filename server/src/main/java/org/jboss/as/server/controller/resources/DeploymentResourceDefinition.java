@@ -39,7 +39,9 @@ import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraint
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.server.deployment.ClassLoadingMetricsHandler;
 import org.jboss.as.server.deployment.DeploymentStatusHandler;
+import org.jboss.as.server.deployment.DeploymentTimingsHandler;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -66,6 +68,10 @@ public abstract class DeploymentResourceDefinition extends SimpleResourceDefinit
         for (AttributeDefinition attr : parent.getResourceAttributes()) {
             if (attr.getName().equals(DeploymentAttributes.STATUS.getName())) {
                 resourceRegistration.registerMetric(attr, DeploymentStatusHandler.INSTANCE);
+            } else if (attr.getName().equals(DeploymentAttributes.PHASE_TIMES.getName()) || attr.getName().equals(DeploymentAttributes.PROCESSOR_TIMES.getName())) {
+                resourceRegistration.registerMetric(attr, DeploymentTimingsHandler.INSTANCE);
+            } else if (attr.getName().equals(DeploymentAttributes.CLASS_LOADING.getName())) {
+                resourceRegistration.registerMetric(attr, ClassLoadingMetricsHandler.INSTANCE);
             } else if (attr.getName().equals(DeploymentAttributes.NAME.getName())) {
                 resourceRegistration.registerReadOnlyAttribute(DeploymentAttributes.NAME, ReadResourceNameOperationStepHandler.INSTANCE);
             } else if (DeploymentAttributes.MANAGED.getName().equals(attr.getName())) {
@@ -31,6 +31,7 @@ import org.jboss.as.controller.capability.CapabilityServiceSupport;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.AdditionalModuleSpecification;
+import org.jboss.as.server.deployment.module.ClassLoadingMetrics;
 import org.jboss.as.server.deployment.module.ExtensionInfo;
 import org.jboss.as.server.deployment.module.ExtensionListEntry;
 import org.jboss.as.server.deployment.module.ModuleDependency;
@@ -303,6 +304,16 @@ public final class Attachments {
      */
     public static final AttachmentKey<AttachmentList<ServiceName>> DEPLOYMENT_COMPLETE_SERVICES = AttachmentKey.createList(ServiceName.class);
 
+    /**
+     * Time spent in each phase of deployment, maintained by the deployment unit phase services.
+     */
+    public static final AttachmentKey<DeploymentTimings> DEPLOYMENT_TIMINGS = AttachmentKey.create(DeploymentTimings.class);
+
+    /**
+     * Class and resource lookups against the resource roots of each module created for the deployment unit.
+     */
+    public static final AttachmentKey<AttachmentList<ClassLoadingMetrics>> CLASS_LOADING_METRICS = AttachmentKey.createList(ClassLoadingMetrics.class);
+
     //
     // CLEANUP
     //
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.CLASS_LOADING_DEPENDENCIES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.CLASS_LOADING_MODULE;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.CLASS_LOAD_TIME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.CLASS_LOOKUP_MISSES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.LOADED_CLASSES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.MISSED_PATH;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.MISSED_PATHS;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.MISSES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RESOURCE_LOOKUPS;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RESOURCE_LOOKUP_MISSES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.server.deployment.module.ClassLoadingMetrics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the {@code class-loading} metric of a deployment from the {@link ClassLoadingMetrics} attached to its
+ * deployment unit and its sub deployments.
+ */
+public class ClassLoadingMetricsHandler implements OperationStepHandler {
+
+    public static final OperationStepHandler INSTANCE = new ClassLoadingMetricsHandler();
+
+    /** The number of most missed packages reported for each module */
+    private static final int MISSED_PATH_COUNT = 10;
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode deployment = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+        final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, deployment).asString();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(runtimeName));
+                if (controller == null || controller.getState() != ServiceController.State.UP) {
+                    return;
+                }
+                final DeploymentUnit deploymentUnit = (DeploymentUnit) controller.getValue();
+                if (deploymentUnit == null) {
+                    return;
+                }
+                final ModelNode result = context.getResult().setEmptyList();
+                addMetrics(result, deploymentUnit);
+                for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+                    addMetrics(result, subDeployment);
+                }
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+
+    private static void addMetrics(final ModelNode result, final DeploymentUnit deploymentUnit) {
+        for (ClassLoadingMetrics metrics : deploymentUnit.getAttachmentList(Attachments.CLASS_LOADING_METRICS)) {
+            final ModelNode module = result.add();
+            module.get(CLASS_LOADING_MODULE.getName()).set(metrics.getModule());
+            module.get(CLASS_LOADING_DEPENDENCIES.getName()).set(metrics.getDependencies());
+            module.get(LOADED_CLASSES.getName()).set(metrics.getLoadedClasses());
+            module.get(CLASS_LOAD_TIME.getName()).set(TimeUnit.NANOSECONDS.toMillis(metrics.getClassLoadTime()));
+            module.get(CLASS_LOOKUP_MISSES.getName()).set(metrics.getClassLookupMisses());
+            module.get(RESOURCE_LOOKUPS.getName()).set(metrics.getResourceLookups());
+            module.get(RESOURCE_LOOKUP_MISSES.getName()).set(metrics.getResourceLookupMisses());
+            final ModelNode missedPaths = module.get(MISSED_PATHS.getName()).setEmptyList();
+            for (Map.Entry<String, Long> entry : metrics.getMostMissedPaths(MISSED_PATH_COUNT).entrySet()) {
+                final ModelNode missedPath = missedPaths.add();
+                missedPath.get(MISSED_PATH.getName()).set(entry.getKey());
+                missedPath.get(MISSES.getName()).set(entry.getValue());
+            }
+        }
+    }
+}
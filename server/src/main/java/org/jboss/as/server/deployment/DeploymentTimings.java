@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent on a deployment unit by the {@link DeploymentUnitPhaseService}s, per {@link Phase} and per
+ * {@link DeploymentUnitProcessor} class.
+ * <p/>
+ * For each phase both the time spent running the phase's processors and the time the phase spent waiting for its
+ * dependencies (the previous phase of the parent deployment or of sub deployments, inter deployment dependencies, ...)
+ * to be satisfied are recorded. All times are in nanoseconds.
+ */
+public final class DeploymentTimings {
+
+    private final Map<Phase, Long> processingTimes = new EnumMap<>(Phase.class);
+    private final Map<Phase, Long> waitingTimes = new EnumMap<>(Phase.class);
+    private final Map<Phase, Map<String, Long>> processorTimes = new EnumMap<>(Phase.class);
+
+    synchronized void recordProcessor(final Phase phase, final DeploymentUnitProcessor processor, final long time) {
+        Map<String, Long> times = processorTimes.get(phase);
+        if (times == null) {
+            times = new LinkedHashMap<>();
+            processorTimes.put(phase, times);
+        }
+        // The same processor class may be registered more than once in a phase
+        final String name = processor.getClass().getName();
+        final Long previous = times.get(name);
+        times.put(name, previous == null ? time : previous + time);
+    }
+
+    synchronized void recordPhase(final Phase phase, final long waitingTime, final long processingTime) {
+        processingTimes.put(phase, processingTime);
+        waitingTimes.put(phase, waitingTime);
+    }
+
+    /**
+     * Gets the time spent running the processors of each phase that has been executed.
+     *
+     * @return a copy of the processing times, in phase order
+     */
+    public synchronized Map<Phase, Long> getProcessingTimes() {
+        return new EnumMap<>(processingTimes);
+    }
+
+    /**
+     * Gets the time each executed phase spent waiting for its dependencies before it could run.
+     *
+     * @return a copy of the waiting times, in phase order
+     */
+    public synchronized Map<Phase, Long> getWaitingTimes() {
+        return new EnumMap<>(waitingTimes);
+    }
+
+    /**
+     * Gets the time spent in each processor class of the given phase.
+     *
+     * @param phase the phase
+     * @return a copy of the processor times keyed by processor class name, in processor order
+     */
+    public synchronized Map<String, Long> getProcessorTimes(final Phase phase) {
+        final Map<String, Long> times = processorTimes.get(phase);
+        return times == null ? Collections.<String, Long>emptyMap() : new LinkedHashMap<>(times);
+    }
+
+    /**
+     * Gets the processors that took the most time across all phases.
+     *
+     * @param count the maximum number of processors to return
+     * @return {@code phase:processor class name} to processing time, slowest first
+     */
+    public synchronized Map<String, Long> getSlowestProcessors(final int count) {
+        final List<Map.Entry<String, Long>> all = new ArrayList<>();
+        for (Map.Entry<Phase, Map<String, Long>> phaseEntry : processorTimes.entrySet()) {
+            for (Map.Entry<String, Long> entry : phaseEntry.getValue().entrySet()) {
+                all.add(new AbstractMap.SimpleImmutableEntry<>(phaseEntry.getKey() + ":" + entry.getKey(), entry.getValue()));
+            }
+        }
+        all.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : all.subList(0, Math.min(count, all.size()))) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Gets the total time spent running processors for the deployment unit.
+     *
+     * @return the total processing time
+     */
+    public synchronized long getTotalProcessingTime() {
+        long total = 0;
+        for (Long time : processingTimes.values()) {
+            total += time;
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Phase, Long> entry : processingTimes.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(entry.getKey()).append('=').append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+            final Long waiting = waitingTimes.get(entry.getKey());
+            if (waiting != null) {
+                builder.append(" (waited ").append(TimeUnit.NANOSECONDS.toMillis(waiting)).append("ms)");
+            }
+        }
+        return builder.toString();
+    }
+}
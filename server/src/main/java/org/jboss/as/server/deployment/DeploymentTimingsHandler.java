@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.PHASE_TIMES;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.TIMING_PHASE;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.TIMING_PROCESSING_TIME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.TIMING_PROCESSOR;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.TIMING_TIME;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.TIMING_WAITING_TIME;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the {@code phase-times} and {@code processor-times} metrics of a deployment from the {@link DeploymentTimings}
+ * attached to its deployment unit.
+ */
+public class DeploymentTimingsHandler implements OperationStepHandler {
+
+    public static final OperationStepHandler INSTANCE = new DeploymentTimingsHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode deployment = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+        final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, deployment).asString();
+        final boolean phaseTimes = PHASE_TIMES.getName().equals(operation.require(NAME).asString());
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(runtimeName));
+                if (controller == null || controller.getState() != ServiceController.State.UP) {
+                    return;
+                }
+                final DeploymentUnit deploymentUnit = (DeploymentUnit) controller.getValue();
+                final DeploymentTimings timings = deploymentUnit == null ? null : deploymentUnit.getAttachment(Attachments.DEPLOYMENT_TIMINGS);
+                if (timings == null) {
+                    return;
+                }
+                context.getResult().set(toModel(timings, phaseTimes));
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+
+    /**
+     * Converts deployment timings to the value of the {@code phase-times} or {@code processor-times} metric.
+     */
+    static ModelNode toModel(final DeploymentTimings timings, final boolean phaseTimes) {
+        final ModelNode result = new ModelNode().setEmptyList();
+        if (phaseTimes) {
+            final Map<Phase, Long> waitingTimes = timings.getWaitingTimes();
+            for (Map.Entry<Phase, Long> entry : timings.getProcessingTimes().entrySet()) {
+                final ModelNode phase = result.add();
+                phase.get(TIMING_PHASE.getName()).set(entry.getKey().name());
+                phase.get(TIMING_PROCESSING_TIME.getName()).set(TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+                final Long waiting = waitingTimes.get(entry.getKey());
+                phase.get(TIMING_WAITING_TIME.getName()).set(waiting == null ? 0L : TimeUnit.NANOSECONDS.toMillis(waiting));
+            }
+        } else {
+            for (Phase phase : Phase.values()) {
+                for (Map.Entry<String, Long> entry : timings.getProcessorTimes(phase).entrySet()) {
+                    final ModelNode processor = result.add();
+                    processor.get(TIMING_PHASE.getName()).set(phase.name());
+                    processor.get(TIMING_PROCESSOR.getName()).set(entry.getKey());
+                    processor.get(TIMING_TIME.getName()).set(TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -26,7 +26,9 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -43,6 +45,7 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A service which executes a particular phase of deployment.
@@ -53,6 +56,15 @@ import org.jboss.msc.value.InjectedValue;
  */
 final class DeploymentUnitPhaseService<T> implements Service<T> {
 
+    /**
+     * Deployment units whose processors take at least this many milliseconds in total get a summary of their slowest
+     * processors logged. {@code 0} disables the summary.
+     */
+    private static final long DEFAULT_SLOW_DEPLOYMENT_THRESHOLD = 10000L;
+    private static final long SLOW_DEPLOYMENT_THRESHOLD = resolveSlowDeploymentThreshold(
+            WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.slow-threshold", null));
+    static final int SLOW_DEPLOYMENT_REPORTED_PROCESSORS = 5;
+
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
@@ -64,6 +76,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
      * If anything attempts to restart the phase a complete deployment restart is performed instead.
      */
     private final AtomicBoolean runOnce = new AtomicBoolean();
+    /**
+     * When this phase was created, i.e. when the previous phase completed, used to measure how long it waited to run.
+     */
+    private final long createTime = System.nanoTime();
 
     private DeploymentUnitPhaseService(final DeploymentUnit deploymentUnit, final Phase phase, final AttachmentKey<T> valueKey) {
         this.deploymentUnit = deploymentUnit;
@@ -137,11 +153,15 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final DeploymentTimings timings = getTimings(deploymentUnit);
+        final long start = System.nanoTime();
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
+                    final long processorStart = System.nanoTime();
                     processor.getProcessor().deploy(processorContext);
+                    timings.recordProcessor(phase, processor.getProcessor(), System.nanoTime() - processorStart);
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -151,6 +171,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
         }
+        recordTimings(deploymentUnit, timings, start);
 
         final Phase nextPhase = phase.next();
         if (nextPhase != null) {
@@ -194,6 +215,61 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    private static DeploymentTimings getTimings(final DeploymentUnit deploymentUnit) {
+        DeploymentTimings timings = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_TIMINGS);
+        if (timings == null) {
+            timings = new DeploymentTimings();
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_TIMINGS, timings);
+        }
+        return timings;
+    }
+
+    private void recordTimings(final DeploymentUnit deploymentUnit, final DeploymentTimings timings, final long start) {
+        final long end = System.nanoTime();
+        timings.recordPhase(phase, start - createTime, end - start);
+        if (phase.next() == null) {
+            final CharSequence slowest = getSlowestProcessorsSummary(timings, SLOW_DEPLOYMENT_THRESHOLD);
+            if (slowest != null) {
+                ServerLogger.DEPLOYMENT_LOGGER.slowDeployment(deploymentUnit.getName(), TimeUnit.NANOSECONDS.toMillis(timings.getTotalProcessingTime()),
+                        SLOW_DEPLOYMENT_REPORTED_PROCESSORS, slowest);
+            }
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Deployment phase times for %s: %s", deploymentUnit.getName(), timings);
+        }
+    }
+
+    /**
+     * Gets the summary of the slowest processors that is logged for a deployment unit whose processors took at least
+     * {@code threshold} milliseconds in total.
+     *
+     * @return the summary, or {@code null} if the deployment unit was not slow or the threshold is {@code 0}
+     */
+    static CharSequence getSlowestProcessorsSummary(final DeploymentTimings timings, final long threshold) {
+        final long total = TimeUnit.NANOSECONDS.toMillis(timings.getTotalProcessingTime());
+        if (threshold <= 0 || total < threshold) {
+            return null;
+        }
+        final StringBuilder slowest = new StringBuilder();
+        for (Map.Entry<String, Long> entry : timings.getSlowestProcessors(SLOW_DEPLOYMENT_REPORTED_PROCESSORS).entrySet()) {
+            slowest.append(System.lineSeparator()).append("    ").append(entry.getKey()).append(": ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+        }
+        return slowest;
+    }
+
+    static long resolveSlowDeploymentThreshold(final String value) {
+        if (value != null) {
+            try {
+                final long threshold = Long.parseLong(value.trim());
+                if (threshold >= 0) {
+                    return threshold;
+                }
+            } catch (NumberFormatException ignored) {
+            }
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Ignoring invalid slow deployment threshold %s", value);
+        }
+        return DEFAULT_SLOW_DEPLOYMENT_THRESHOLD;
+    }
+
     public synchronized void stop(final StopContext context) {
         final DeploymentUnit deploymentUnitContext = deploymentUnit;
         final DeployerChains chains = deployerChainsInjector.getValue();
@@ -0,0 +1,254 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * On-disk cache of the annotation indexes generated for resource roots, so unchanged archives do not have to be
+ * re-indexed on redeploy or server restart.
+ * <p/>
+ * Entries are keyed by a SHA-1 fingerprint of the class files of the resource root (relative path and content of each)
+ * and stored in the {@code annotation-index} directory of the server data dir. Timestamps are deliberately not part of
+ * the fingerprint, as reproducible builds give every entry the same time and a recompile may keep the same size. Once
+ * the cache grows beyond its maximum size the least recently used entries are removed.
+ * <p/>
+ * The cache is disabled unless the {@code org.jboss.as.server.deployment.index.cache} system property is {@code true};
+ * {@code org.jboss.as.server.deployment.index.cache.max-size} sets the maximum size in bytes (256MB if it is not a
+ * positive number).
+ */
+public final class AnnotationIndexCache {
+
+    static final String CACHE_DIR = "annotation-index";
+    private static final String SUFFIX = ".idx";
+    private static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    private final Path cacheDir;
+    private final long maxSize;
+
+    AnnotationIndexCache(final Path cacheDir, final long maxSize) {
+        this.cacheDir = cacheDir;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates the cache for the given server environment, if it is enabled.
+     *
+     * @param serverEnvironment the server environment
+     * @return the cache, or {@code null} if the cache is disabled
+     */
+    public static AnnotationIndexCache create(final ServerEnvironment serverEnvironment) {
+        if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.index.cache", "false"))) {
+            return null;
+        }
+        final long maxSize = resolveMaxSize(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.index.cache.max-size", null));
+        return new AnnotationIndexCache(new File(serverEnvironment.getServerDataDir(), CACHE_DIR).toPath(), maxSize);
+    }
+
+    static long resolveMaxSize(final String value) {
+        if (value != null) {
+            try {
+                final long maxSize = Long.parseLong(value.trim());
+                if (maxSize > 0) {
+                    return maxSize;
+                }
+            } catch (NumberFormatException ignored) {
+            }
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Ignoring invalid annotation index cache size %s", value);
+        }
+        return DEFAULT_MAX_SIZE;
+    }
+
+    /**
+     * Computes the cache key of a resource root.
+     *
+     * @param root the root of the resource root
+     * @param classFiles the class files that would be indexed
+     * @param ignorePaths the paths excluded from indexing, may be {@code null}
+     * @return the key, or {@code null} if a class file could not be read
+     */
+    String fingerprint(final VirtualFile root, final List<VirtualFile> classFiles, final Set<String> ignorePaths) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        if (ignorePaths != null) {
+            for (String ignored : new TreeSet<>(ignorePaths)) {
+                digest.update(ignored.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        final byte[] buffer = new byte[8192];
+        for (VirtualFile classFile : classFiles) {
+            digest.update(classFile.getPathNameRelativeTo(root).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            long size = 0;
+            try (InputStream in = classFile.openStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    size += read;
+                }
+            } catch (IOException e) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Not caching the annotation index of %s", root);
+                return null;
+            }
+            // Separates the content of one class file from the path of the next
+            writeLong(buffer, 0, size);
+            digest.update(buffer, 0, 8);
+        }
+        final StringBuilder builder = new StringBuilder(40);
+        for (byte b : digest.digest()) {
+            builder.append(Character.forDigit(b >> 4 & 0x0f, 16)).append(Character.forDigit(b & 0x0f, 16));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets a cached index.
+     *
+     * @param key the key of the resource root
+     * @return the index, or {@code null} if it is not cached
+     */
+    Index get(final String key) {
+        final Path file = cacheDir.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final Index index = new IndexReader(in).read();
+            // Record the use for LRU eviction
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return index;
+        } catch (IOException | RuntimeException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Discarding unreadable cached annotation index %s", file);
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores an index in the cache, evicting the least recently used entries if the cache has grown too large.
+     *
+     * @param key the key of the resource root
+     * @param index the index
+     */
+    void put(final String key, final Index index) {
+        final Path file = cacheDir.resolve(key + SUFFIX);
+        Path tmp = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tmp = Files.createTempFile(cacheDir, key, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                new IndexWriter(out).write(index);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+        } catch (IOException | RuntimeException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not cache annotation index %s", file);
+        } finally {
+            if (tmp != null) {
+                deleteQuietly(tmp);
+            }
+        }
+        evict();
+    }
+
+    private synchronized void evict() {
+        final List<Path> entries = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir, "*" + SUFFIX)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+                total += Files.size(entry);
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not list annotation index cache %s", cacheDir);
+            return;
+        }
+        if (total <= maxSize) {
+            return;
+        }
+        entries.sort((a, b) -> Long.compare(lastModified(a), lastModified(b)));
+        for (Path entry : entries) {
+            if (total <= maxSize) {
+                break;
+            }
+            try {
+                final long size = Files.size(entry);
+                Files.deleteIfExists(entry);
+                total -= size;
+            } catch (IOException e) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not evict cached annotation index %s", entry);
+            }
+        }
+    }
+
+    private static long lastModified(final Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void writeLong(final byte[] buffer, final int offset, final long value) {
+        for (int i = 0; i < 8; i++) {
+            buffer[offset + i] = (byte) (value >>> (56 - 8 * i));
+        }
+    }
+}
@@ -22,21 +22,73 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.logging.ServerLogger;
+import org.wildfly.common.cpu.ProcessorInfo;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * <p/>
+ * Resource roots are independent of each other, so when a deployment has more than one root to index they are indexed
+ * concurrently using the executor given on construction (normally the server's management executor), with at most {@code org.jboss.as.server.deployment.index.threads} (by
+ * default the number of available processors) roots being indexed at the same time.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final int INDEX_THREADS = resolveIndexThreads(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.index.threads", null));
+
+    private final AnnotationIndexCache cache;
+    private final Executor executor;
+    private final int threads;
+
+    public AnnotationIndexProcessor() {
+        this(null);
+    }
+
+    /**
+     * @param cache cache of generated indexes, or {@code null} to always index resource roots
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache) {
+        this(cache, null);
+    }
+
+    /**
+     * @param cache cache of generated indexes, or {@code null} to always index resource roots
+     * @param executor executor used to index resource roots concurrently, or {@code null} to index them one at a time
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache, final Executor executor) {
+        this(cache, executor, INDEX_THREADS);
+    }
+
+    AnnotationIndexProcessor(final AnnotationIndexCache cache, final Executor executor, final int threads) {
+        this.cache = cache;
+        this.executor = executor;
+        this.threads = threads;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +99,98 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        final Set<ResourceRoot> seen = Collections.newSetFromMap(new IdentityHashMap<ResourceRoot, Boolean>());
+        final List<ResourceRoot> toIndex = new ArrayList<>();
         for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+            if (seen.add(resourceRoot) && resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) == null) {
+                toIndex.add(resourceRoot);
+            }
+        }
+        if (toIndex.isEmpty()) {
+            return;
         }
+        final long start = System.nanoTime();
+        indexResourceRoots(toIndex);
+        ServerLogger.DEPLOYMENT_LOGGER.debugf("Indexed %d resource roots of %s in %d ms", toIndex.size(), deploymentUnit.getName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    void indexResourceRoots(final List<ResourceRoot> resourceRoots) throws DeploymentUnitProcessingException {
+        if (executor == null || threads <= 1 || resourceRoots.size() == 1) {
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+            }
+        } else {
+            indexConcurrently(resourceRoots);
+        }
+    }
+
+    private void indexConcurrently(final List<ResourceRoot> resourceRoots) throws DeploymentUnitProcessingException {
+        final Queue<ResourceRoot> queue = new ConcurrentLinkedQueue<>(resourceRoots);
+        final AtomicReference<DeploymentUnitProcessingException> failure = new AtomicReference<>();
+        final int helpers = Math.min(threads, resourceRoots.size()) - 1;
+        final CountDownLatch latch = new CountDownLatch(helpers);
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    drain(queue, failure);
+                } finally {
+                    latch.countDown();
+                }
+            }
+        };
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                latch.countDown();
+            }
+        }
+        // The calling thread does its share of the work as well, so progress is made even if the executor is saturated
+        drain(queue, failure);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException(e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void drain(final Queue<ResourceRoot> queue, final AtomicReference<DeploymentUnitProcessingException> failure) {
+        ResourceRoot resourceRoot;
+        while (failure.get() == null && (resourceRoot = queue.poll()) != null) {
+            try {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+            } catch (DeploymentUnitProcessingException e) {
+                failure.compareAndSet(null, e);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(e));
+            }
+        }
+    }
+
+    /**
+     * Resolves the number of resource roots indexed at the same time, falling back to the number of available
+     * processors if the configured value is missing or not a positive number.
+     */
+    static int resolveIndexThreads(final String value) {
+        if (value != null) {
+            try {
+                final int threads = Integer.parseInt(value.trim());
+                if (threads > 0) {
+                    return threads;
+                }
+            } catch (NumberFormatException ignored) {
+            }
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Ignoring invalid annotation index thread count %s", value);
+        }
+        return ProcessorInfo.availableProcessors();
+    }
 }
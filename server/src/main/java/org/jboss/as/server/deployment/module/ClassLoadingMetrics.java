@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class and resource lookups against the resource roots of a deployment module, recorded by its
+ * {@link VFSResourceLoader}s.
+ * <p/>
+ * The module class loader only asks a resource root for a class if the root contains the class's package, and
+ * defines every class it is given, so a found class is a class loaded by the module. A miss means the package is
+ * present in the root but the class or resource is not, which typically happens when a package is split across
+ * several roots or dependencies, or when libraries probe for optional classes. The packages with the most misses are
+ * tracked so such hot spots can be found. All times are in nanoseconds.
+ */
+public final class ClassLoadingMetrics {
+
+    /** Upper bound on the number of distinct packages whose misses are tracked */
+    private static final int MAX_MISS_PATHS = 1024;
+
+    private final String module;
+    private final int dependencies;
+    private final LongAdder loadedClasses = new LongAdder();
+    private final LongAdder classLoadTime = new LongAdder();
+    private final LongAdder classLookupMisses = new LongAdder();
+    private final LongAdder resourceLookups = new LongAdder();
+    private final LongAdder resourceLookupMisses = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> missPaths = new ConcurrentHashMap<>();
+
+    /**
+     * @param module the name of the module
+     * @param dependencies the number of module dependencies of the module
+     */
+    public ClassLoadingMetrics(final String module, final int dependencies) {
+        this.module = module;
+        this.dependencies = dependencies;
+    }
+
+    void classFound(final long time) {
+        loadedClasses.increment();
+        classLoadTime.add(time);
+    }
+
+    void classMissed(final String name) {
+        classLookupMisses.increment();
+        recordMiss(name);
+    }
+
+    void resourceFound() {
+        resourceLookups.increment();
+    }
+
+    void resourceMissed(final String name) {
+        resourceLookups.increment();
+        resourceLookupMisses.increment();
+        recordMiss(name);
+    }
+
+    private void recordMiss(final String name) {
+        final int idx = name.lastIndexOf('/');
+        final String path = idx < 0 ? "" : name.substring(0, idx);
+        LongAdder misses = missPaths.get(path);
+        if (misses == null) {
+            if (missPaths.size() >= MAX_MISS_PATHS) {
+                return;
+            }
+            final LongAdder newMisses = new LongAdder();
+            misses = missPaths.putIfAbsent(path, newMisses);
+            if (misses == null) {
+                misses = newMisses;
+            }
+        }
+        misses.increment();
+    }
+
+    public String getModule() {
+        return module;
+    }
+
+    public int getDependencies() {
+        return dependencies;
+    }
+
+    public long getLoadedClasses() {
+        return loadedClasses.sum();
+    }
+
+    /**
+     * Gets the time spent finding and reading the bytes of the loaded classes.
+     *
+     * @return the time
+     */
+    public long getClassLoadTime() {
+        return classLoadTime.sum();
+    }
+
+    public long getClassLookupMisses() {
+        return classLookupMisses.sum();
+    }
+
+    public long getResourceLookups() {
+        return resourceLookups.sum();
+    }
+
+    public long getResourceLookupMisses() {
+        return resourceLookupMisses.sum();
+    }
+
+    /**
+     * Gets the packages with the most class and resource lookup misses.
+     *
+     * @param count the maximum number of packages to return
+     * @return package path to number of misses, most misses first
+     */
+    public Map<String, Long> getMostMissedPaths(final int count) {
+        final List<Map.Entry<String, Long>> all = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : missPaths.entrySet()) {
+            all.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().sum()));
+        }
+        all.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : all.subList(0, Math.min(count, all.size()))) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -86,6 +86,7 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         deploymentUnit.removeAttachment(Attachments.MODULE);
         deploymentUnit.removeAttachment(Attachments.MODULE_PERMISSIONS);
         deploymentUnit.removeAttachment(DelegatingClassFileTransformer.ATTACHMENT_KEY);
+        deploymentUnit.removeAttachment(Attachments.CLASS_LOADING_METRICS);
     }
 
     private void deployModuleSpec(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -221,6 +222,9 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
         installAliases(moduleSpecification, moduleIdentifier, deploymentUnit, phaseContext);
 
+        final ClassLoadingMetrics metrics = new ClassLoadingMetrics(moduleIdentifier.toString(), moduleSpecification.getAllDependencies().size());
+        deploymentUnit.addToAttachmentList(Attachments.CLASS_LOADING_METRICS, metrics);
+
         // add additional resource loaders first
         for (final ResourceLoaderSpec resourceLoaderSpec : moduleSpecification.getResourceLoaders()) {
             logger.debugf("Adding resource loader %s to module %s", resourceLoaderSpec, moduleIdentifier);
@@ -229,7 +233,7 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
         for (final ResourceRoot resourceRoot : resourceRoots) {
             logger.debugf("Adding resource %s to module %s", resourceRoot.getRoot(), moduleIdentifier);
-            addResourceRoot(specBuilder, resourceRoot, permFactories);
+            addResourceRoot(specBuilder, resourceRoot, permFactories, metrics);
         }
 
         createDependencies(specBuilder, dependencies, false);
@@ -346,20 +350,20 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories)
-            throws DeploymentUnitProcessingException {
+    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories,
+                                 final ClassLoadingMetrics metrics) throws DeploymentUnitProcessingException {
         try {
             final VirtualFile root = resource.getRoot();
             if (resource.getExportFilters().isEmpty()) {
                 specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource())));
+                        .getRootName(), root, resource.isUsePhysicalCodeSource(), metrics)));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for (final FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
                 specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource()), filterBuilder.create()));
+                        .getRootName(), root, resource.isUsePhysicalCodeSource(), metrics), filterBuilder.create()));
             }
             // start with the root
             permFactories.add(new ImmediatePermissionFactory(
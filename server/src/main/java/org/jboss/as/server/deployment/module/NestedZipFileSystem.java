@@ -0,0 +1,359 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.CodeSigner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+
+/**
+ * Read-only {@link FileSystem} for a zip archive stored uncompressed inside another zip archive. Entries are
+ * read straight from the outer archive using the nested archive's central directory, so the nested archive
+ * does not have to be copied out. A temporary copy of an entry, or of the whole nested archive, is only made
+ * if a physical file is requested for it.
+ */
+final class NestedZipFileSystem implements FileSystem {
+
+    private static final String ROOT = "";
+    /** Directory of the temporary directory holding copies of entries, separate from any copy of the archive itself */
+    private static final String CONTENTS = "contents/";
+
+    private final File archive;
+    private final String entryName;
+    private final long start;
+    private final long length;
+    private final long lastModified;
+    private final Map<String, ZipDirectory.Entry> files = new HashMap<>();
+    private final Map<String, Set<String>> directories = new HashMap<>();
+    private final TempFileProvider tempFileProvider;
+    private final RandomAccessFile raf;
+    /** Guarded by this */
+    private TempDir tempDir;
+    /** Guarded by this */
+    private File rootFile;
+
+    /**
+     * @param archive the outer archive
+     * @param entryName the name of the nested archive's entry in the outer archive
+     * @param start the position of the nested archive's data in the outer archive
+     * @param length the size of the nested archive
+     * @param directory the nested archive's central directory
+     * @param tempFileProvider provider of the temporary directory for physical copies
+     */
+    NestedZipFileSystem(final File archive, final String entryName, final long start, final long length,
+                        final ZipDirectory directory, final TempFileProvider tempFileProvider) throws IOException {
+        this.archive = archive;
+        this.entryName = entryName;
+        this.start = start;
+        this.length = length;
+        this.lastModified = archive.lastModified();
+        this.tempFileProvider = tempFileProvider;
+        directories.put(ROOT, new LinkedHashSet<String>());
+        for (ZipDirectory.Entry entry : directory.getEntries()) {
+            String name = entry.name;
+            if (entry.isDirectory()) {
+                name = name.substring(0, name.length() - 1);
+                addDirectory(name);
+            } else {
+                files.put(name, entry);
+                addToParent(name);
+            }
+        }
+        this.raf = new RandomAccessFile(archive, "r");
+    }
+
+    private void addDirectory(final String name) {
+        if (!directories.containsKey(name)) {
+            directories.put(name, new LinkedHashSet<String>());
+            addToParent(name);
+        }
+    }
+
+    private void addToParent(final String name) {
+        final int idx = name.lastIndexOf('/');
+        final String parent = idx < 0 ? ROOT : name.substring(0, idx);
+        addDirectory(parent);
+        directories.get(parent).add(name.substring(idx + 1));
+    }
+
+    private static String getPath(final VirtualFile mountPoint, final VirtualFile target) {
+        return mountPoint.equals(target) ? ROOT : target.getPathNameRelativeTo(mountPoint);
+    }
+
+    @Override
+    public File getFile(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final String path = getPath(mountPoint, target);
+        synchronized (this) {
+            if (ROOT.equals(path)) {
+                if (rootFile == null) {
+                    try (InputStream in = new WindowInputStream(start, length)) {
+                        rootFile = getTempDir().createFile(target.getName(), in);
+                    }
+                }
+                return rootFile;
+            }
+            final File file = getTempDir().getFile(CONTENTS + path);
+            if (directories.containsKey(path)) {
+                file.mkdirs();
+            } else if (!file.exists()) {
+                final ZipDirectory.Entry entry = files.get(path);
+                if (entry == null) {
+                    throw new FileNotFoundException(target.getPathName());
+                }
+                file.getParentFile().mkdirs();
+                try (InputStream in = openInputStream(entry)) {
+                    return getTempDir().createFile(CONTENTS + path, in);
+                }
+            }
+            return file;
+        }
+    }
+
+    /** Invoke with the object monitor held */
+    private TempDir getTempDir() throws IOException {
+        if (tempDir == null) {
+            tempDir = tempFileProvider.createTempDir(entryName.substring(entryName.lastIndexOf('/') + 1));
+        }
+        return tempDir;
+    }
+
+    @Override
+    public InputStream openInputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final String path = getPath(mountPoint, target);
+        if (ROOT.equals(path)) {
+            return new WindowInputStream(start, length);
+        }
+        final ZipDirectory.Entry entry = files.get(path);
+        if (entry == null) {
+            if (directories.containsKey(path)) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            throw new FileNotFoundException(target.getPathName());
+        }
+        return openInputStream(entry);
+    }
+
+    private InputStream openInputStream(final ZipDirectory.Entry entry) throws IOException {
+        final long dataOffset = ZipDirectory.getDataOffset(raf, start, entry);
+        if (dataOffset < 0 || dataOffset + entry.compressedSize > start + length) {
+            throw new IOException(entry.name);
+        }
+        final InputStream data = new WindowInputStream(dataOffset, entry.compressedSize);
+        switch (entry.method) {
+            case ZipDirectory.STORED:
+                return data;
+            case ZipDirectory.DEFLATED:
+                return new EntryInflaterInputStream(data, entry.size);
+            default:
+                throw new IOException(entry.name);
+        }
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean delete(final VirtualFile mountPoint, final VirtualFile target) {
+        return false;
+    }
+
+    @Override
+    public long getSize(final VirtualFile mountPoint, final VirtualFile target) {
+        final String path = getPath(mountPoint, target);
+        if (ROOT.equals(path)) {
+            return length;
+        }
+        final ZipDirectory.Entry entry = files.get(path);
+        return entry == null ? 0L : entry.size;
+    }
+
+    @Override
+    public long getLastModified(final VirtualFile mountPoint, final VirtualFile target) {
+        final ZipDirectory.Entry entry = files.get(getPath(mountPoint, target));
+        return entry == null ? lastModified : entry.getLastModified();
+    }
+
+    @Override
+    public boolean exists(final VirtualFile mountPoint, final VirtualFile target) {
+        final String path = getPath(mountPoint, target);
+        return files.containsKey(path) || directories.containsKey(path);
+    }
+
+    @Override
+    public boolean isFile(final VirtualFile mountPoint, final VirtualFile target) {
+        return files.containsKey(getPath(mountPoint, target));
+    }
+
+    @Override
+    public boolean isDirectory(final VirtualFile mountPoint, final VirtualFile target) {
+        return directories.containsKey(getPath(mountPoint, target));
+    }
+
+    @Override
+    public List<String> getDirectoryEntries(final VirtualFile mountPoint, final VirtualFile target) {
+        final Set<String> children = directories.get(getPath(mountPoint, target));
+        return children == null ? Collections.<String>emptyList() : new ArrayList<String>(children);
+    }
+
+    @Override
+    public CodeSigner[] getCodeSigners(final VirtualFile mountPoint, final VirtualFile target) {
+        // Signed archives are never mounted with this file system
+        return null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        VFSUtils.safeClose(raf);
+        if (tempDir != null) {
+            VFSUtils.safeClose(tempDir);
+            tempDir = null;
+        }
+    }
+
+    @Override
+    public File getMountSource() {
+        return archive;
+    }
+
+    /**
+     * Gets a URI identifying the nested archive. The JDK's {@code jar} handler does not support archives nested in
+     * archives, so the URI cannot be opened; use the mount point's {@link VirtualFile#toURL() vfs URL} to read the
+     * content.
+     */
+    @Override
+    public URI getRootURI() throws URISyntaxException {
+        return new URI("jar", archive.toURI().toString() + "!/" + entryName + "!/", null);
+    }
+
+    /**
+     * Reads a region of the outer archive.
+     */
+    private final class WindowInputStream extends InputStream {
+        private long position;
+        private final long end;
+
+        WindowInputStream(final long position, final long length) {
+            this.position = position;
+            this.end = position + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            final int n = ZipDirectory.read(raf, position, b, off, (int) Math.min(len, end - position));
+            if (n < 0) {
+                throw new EOFException();
+            }
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+
+    /**
+     * Inflates a deflated entry, supplying the extra byte the inflater may need at the end of raw deflate data.
+     */
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+        private final long size;
+        private boolean eof;
+
+        EntryInflaterInputStream(final InputStream in, final long size) {
+            super(in, new Inflater(true), (int) Math.max(512, Math.min(8192, size)));
+            this.size = size;
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException();
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return super.available() == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, size - inf.getBytesWritten());
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.SoftReference;
+
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Mounts archives nested in deployment content.
+ * <p>
+ * By default this is equivalent to {@link VFS#mountZip(VirtualFile, VirtualFile, TempFileProvider)}, which copies
+ * a nested archive to a temporary file before mounting it. If
+ * {@code org.jboss.as.server.deployment.nested-archive.direct} is {@code true}, an unsigned archive stored without
+ * compression in a zip mounted deployment is instead mounted with a file system that reads its entries directly
+ * from the outer archive, and nothing is copied unless a physical file is requested.
+ */
+public final class NestedZipMounter {
+
+    private static final boolean DIRECT = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.nested-archive.direct", "false"));
+
+    /** The most recently read outer archive directory; nested archives are usually mounted one outer archive at a time */
+    private static volatile SoftReference<OuterArchive> lastOuterArchive = new SoftReference<>(null);
+
+    private NestedZipMounter() {
+    }
+
+    /**
+     * Mounts the archive {@code file} at {@code mountPoint}.
+     *
+     * @param file the archive
+     * @param mountPoint the mount point, usually {@code file} itself
+     * @param tempFileProvider provider of temporary files needed by the mount
+     * @return a handle to close the mount
+     * @throws IOException if the archive cannot be mounted
+     */
+    public static Closeable mountZip(final VirtualFile file, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        if (DIRECT) {
+            final Closeable handle = mountDirect(file, mountPoint, tempFileProvider);
+            if (handle != null) {
+                return handle;
+            }
+        }
+        return VFS.mountZip(file, mountPoint, tempFileProvider);
+    }
+
+    /**
+     * Mounts {@code file} with a {@link NestedZipFileSystem}, if it is an archive stored uncompressed in a zip mount.
+     *
+     * @return a handle to close the mount, or {@code null} if the archive cannot be mounted directly
+     */
+    static Closeable mountDirect(final VirtualFile file, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        final File archive = VFSUtils.getMountSource(file);
+        if (archive == null || !archive.isFile()) {
+            // Not inside a zip mount; the archive is already a physical file
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(archive, "r")) {
+            final ZipDirectory outer = getOuterDirectory(archive, raf);
+            if (outer == null) {
+                return null;
+            }
+            final ZipDirectory.Entry entry = findEntry(outer, file);
+            if (entry == null || entry.method != ZipDirectory.STORED) {
+                return null;
+            }
+            final long dataOffset = ZipDirectory.getDataOffset(raf, 0, entry);
+            if (dataOffset < 0) {
+                return null;
+            }
+            final ZipDirectory nested = ZipDirectory.read(raf, dataOffset, entry.size);
+            if (nested == null || isSigned(nested)) {
+                return null;
+            }
+            ServerLogger.DEPLOYMENT_LOGGER.tracef("Mounting %s directly from %s", file, archive);
+            return VFS.mount(mountPoint, new NestedZipFileSystem(archive, entry.name, dataOffset, entry.size, nested, tempFileProvider));
+        }
+    }
+
+    private static ZipDirectory getOuterDirectory(final File archive, final RandomAccessFile raf) throws IOException {
+        final long size = raf.length();
+        final long lastModified = archive.lastModified();
+        final OuterArchive last = lastOuterArchive.get();
+        if (last != null && last.file.equals(archive) && last.size == size && last.lastModified == lastModified) {
+            return last.directory;
+        }
+        final ZipDirectory directory = ZipDirectory.read(raf, 0, size);
+        if (directory != null) {
+            lastOuterArchive = new SoftReference<>(new OuterArchive(archive, size, lastModified, directory));
+        }
+        return directory;
+    }
+
+    /**
+     * Finds the entry for {@code file} in the archive it is mounted from. The mount point of the archive isn't
+     * known, so use the longest suffix of the file's path that names an entry of the expected size.
+     */
+    private static ZipDirectory.Entry findEntry(final ZipDirectory directory, final VirtualFile file) {
+        final long size = file.getSize();
+        String name = file.getPathName();
+        while (!name.isEmpty()) {
+            final ZipDirectory.Entry entry = directory.getEntry(name);
+            if (entry != null && !entry.isDirectory() && entry.size == size) {
+                return entry;
+            }
+            final int idx = name.indexOf('/');
+            if (idx < 0) {
+                break;
+            }
+            name = name.substring(idx + 1);
+        }
+        return null;
+    }
+
+    private static boolean isSigned(final ZipDirectory directory) {
+        for (ZipDirectory.Entry entry : directory.getEntries()) {
+            final String name = entry.name;
+            if (name.startsWith("META-INF/") && name.indexOf('/', 9) < 0
+                    && (name.endsWith(".SF") || name.endsWith(".RSA") || name.endsWith(".DSA") || name.endsWith(".EC"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class OuterArchive {
+        private final File file;
+        private final long size;
+        private final long lastModified;
+        private final ZipDirectory directory;
+
+        private OuterArchive(final File file, final long size, final long lastModified, final ZipDirectory directory) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.directory = directory;
+        }
+    }
+}
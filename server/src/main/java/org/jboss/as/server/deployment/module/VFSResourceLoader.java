@@ -25,6 +25,7 @@ package org.jboss.as.server.deployment.module;
 import static java.security.AccessController.doPrivileged;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -42,9 +43,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.jar.Manifest;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -73,10 +78,21 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  */
 public class VFSResourceLoader extends AbstractResourceLoader implements IterableResourceLoader {
 
+    /**
+     * Whether the content of archive roots is indexed, so lookups of resources the archive doesn't contain are
+     * answered without consulting VFS
+     */
+    private static final boolean INDEX_ARCHIVES = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.server.deployment.resource-loader.index", "true"));
+
     private final VirtualFile root;
     private final String rootName;
     private final Manifest manifest;
     private final URL rootUrl;
+    private final boolean indexed;
+    private final ClassLoadingMetrics metrics;
+    // lazily built on first use, and never rebuilt as only archive roots are indexed; protected by {@code this}
+    private volatile ResourceIndex index;
 
     // protected by {@code this}
     private final Map<CodeSigners, CodeSource> codeSources = new HashMap<>();
@@ -101,6 +117,24 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
      * @throws IOException if the manifest could not be read or the root URL is invalid
      */
     public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource) throws IOException {
+        this(rootName, root, usePhysicalCodeSource, null);
+    }
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param root The root virtual file
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources, {@code false} to use the VFS URL
+     * @param metrics the metrics to record class and resource lookups in, or {@code null} if lookups are not recorded
+     * @throws IOException if the manifest could not be read or the root URL is invalid
+     */
+    public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource, final ClassLoadingMetrics metrics) throws IOException {
+        this(rootName, root, usePhysicalCodeSource, metrics, INDEX_ARCHIVES);
+    }
+
+    VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource, final ClassLoadingMetrics metrics,
+                      final boolean indexArchives) throws IOException {
         final SecurityManager sm = System.getSecurityManager();
         final boolean checking = WildFlySecurityManager.isChecking();
         if (checking) {
@@ -108,6 +142,7 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         }
         this.root = root;
         this.rootName = rootName;
+        this.metrics = metrics;
         try {
             manifest = checking ? doPrivileged(new PrivilegedExceptionAction<Manifest>() {
                 public Manifest run() throws IOException {
@@ -124,13 +159,69 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
             }
         }
         rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
+        // Only archives are indexed; the content of a directory root may change while it is in use
+        indexed = indexArchives && (checking ? doPrivileged(new PrivilegedAction<Boolean>() {
+            public Boolean run() {
+                return isArchive(root);
+            }
+        }) : isArchive(root));
+    }
+
+    private static boolean isArchive(final VirtualFile root) {
+        final File mountSource = VFSUtils.getMountSource(root);
+        return mountSource != null && mountSource.isFile();
+    }
+
+    /**
+     * Gets the index of the root's content, building it if necessary.
+     *
+     * @return the index, or {@code null} if the root is not indexed
+     */
+    private ResourceIndex getIndex() {
+        if (!indexed) {
+            return null;
+        }
+        ResourceIndex index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    // Lookups reach here from getPaths and iterateResources as well, which run with the caller's
+                    // permissions
+                    this.index = index = WildFlySecurityManager.isChecking() ? doPrivileged(new PrivilegedAction<ResourceIndex>() {
+                        public ResourceIndex run() {
+                            return ResourceIndex.create(root);
+                        }
+                    }) : ResourceIndex.create(root);
+                }
+            }
+        }
+        return index.files == null ? null : index;
     }
 
     /** {@inheritDoc} */
     public ClassSpec getClassSpec(final String name) throws IOException {
+        if (metrics == null) {
+            return loadClassSpec(name);
+        }
+        final long start = System.nanoTime();
+        final ClassSpec spec = loadClassSpec(name);
+        if (spec == null) {
+            metrics.classMissed(name);
+        } else {
+            metrics.classFound(System.nanoTime() - start);
+        }
+        return spec;
+    }
+
+    private ClassSpec loadClassSpec(final String name) throws IOException {
         try {
             return doPrivileged(new PrivilegedExceptionAction<ClassSpec>() {
                 public ClassSpec run() throws Exception {
+                    final ResourceIndex index = getIndex();
+                    if (index != null && !index.containsFile(name)) {
+                        return null;
+                    }
                     final VirtualFile file = root.getChild(name);
                     if (!file.exists()) {
                         return null;
@@ -202,10 +293,27 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
 
     /** {@inheritDoc} */
     public Resource getResource(final String name) {
+        final Resource resource = findResource(name);
+        if (metrics != null) {
+            if (resource == null) {
+                metrics.resourceMissed(name);
+            } else {
+                metrics.resourceFound();
+            }
+        }
+        return resource;
+    }
+
+    private Resource findResource(final String name) {
         return doPrivileged(new PrivilegedAction<Resource>() {
             public Resource run() {
                 try {
-                    final VirtualFile file = root.getChild(PathUtils.canonicalize(name));
+                    final String path = PathUtils.canonicalize(name);
+                    final ResourceIndex index = getIndex();
+                    if (index != null && !index.contains(path)) {
+                        return null;
+                    }
+                    final VirtualFile file = root.getChild(path);
                     if (!file.exists()) {
                         return null;
                     }
@@ -241,6 +349,13 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
             }
         }
 
+        final ResourceIndex resourceIndex = getIndex();
+        if (resourceIndex != null) {
+            index.add("");
+            index.addAll(resourceIndex.directories);
+            return index;
+        }
+
         FilterVirtualFileVisitor visitor = new FilterVirtualFileVisitor(new VirtualFileFilter() {
             @Override
             public boolean accepts(VirtualFile file) {
@@ -267,6 +382,10 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         if (startPath.length() > 1 && child == root) {
             return Collections.<Resource>emptySet().iterator();
         }
+        final ResourceIndex index = getIndex();
+        if (index != null) {
+            return iterateIndexedResources(index, child == root ? "" : child.getPathNameRelativeTo(root), recursive);
+        }
         VirtualFileFilter filter = new VirtualFileFilter() {
             @Override
             public boolean accepts(VirtualFile file) {
@@ -305,6 +424,72 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         };
     }
 
+    private Iterator<Resource> iterateIndexedResources(final ResourceIndex index, final String startPath, final boolean recursive) {
+        final String prefix = startPath.isEmpty() ? "" : startPath + "/";
+        final List<Resource> resources = new ArrayList<>();
+        for (String path : index.files.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+            if (recursive || path.indexOf('/', prefix.length()) < 0) {
+                final VirtualFile file = root.getChild(path);
+                try {
+                    resources.add(new VFSEntryResource(path, file, file.toURL()));
+                } catch (MalformedURLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+        return resources.iterator();
+    }
+
+    /**
+     * The paths of the files and directories of an archive root. Lookups of anything else can be answered without
+     * asking VFS, which otherwise has to resolve each path against the mount.
+     * <p>
+     * The index is never invalidated. That is only safe because it is only built for archive roots: VFS reads the
+     * entries of an archive once when it is mounted, and replacing the archive means redeploying it, which creates
+     * new loaders. Directory roots, such as exploded deployments, can change in place and are never indexed.
+     */
+    private static final class ResourceIndex {
+        private final NavigableSet<String> files;
+        private final Set<String> directories;
+
+        private ResourceIndex(final NavigableSet<String> files, final Set<String> directories) {
+            this.files = files;
+            this.directories = directories;
+        }
+
+        boolean containsFile(final String path) {
+            return files.contains(relativize(path));
+        }
+
+        boolean contains(final String path) {
+            final String relativePath = relativize(path);
+            return relativePath.isEmpty() || files.contains(relativePath) || directories.contains(relativePath);
+        }
+
+        private static String relativize(final String path) {
+            return path.startsWith("/") ? path.substring(1) : path;
+        }
+
+        static ResourceIndex create(final VirtualFile root) {
+            final NavigableSet<String> files = new TreeSet<>();
+            final Set<String> directories = new HashSet<>();
+            try {
+                for (VirtualFile file : root.getChildrenRecursively()) {
+                    if (file.isDirectory()) {
+                        directories.add(file.getPathNameRelativeTo(root));
+                    } else {
+                        files.add(file.getPathNameRelativeTo(root));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Fall back to asking VFS for each lookup
+                ServerLogger.ROOT_LOGGER.debugf(e, "Failed to index %s", root);
+                return new ResourceIndex(null, null);
+            }
+            return new ResourceIndex(files, directories);
+        }
+    }
+
     static class VFSEntryResource implements Resource {
         private final String name;
         private final VirtualFile entry;
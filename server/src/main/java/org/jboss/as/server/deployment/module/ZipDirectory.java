@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The central directory of a zip archive stored at some offset within a file, giving the location of
+ * every entry without reading the entries themselves. Only plain (non Zip64, single disk) archives are
+ * supported.
+ * <p>
+ * Archives are read with {@link RandomAccessFile} rather than a {@link java.nio.channels.FileChannel}: a file channel
+ * is closed for every thread as soon as a thread blocked reading it is interrupted, which would break every later
+ * class or resource load from a mounted archive.
+ */
+final class ZipDirectory {
+
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private static final int ENDSIG = 0x06054b50;
+    private static final int CENSIG = 0x02014b50;
+    private static final int LOCSIG = 0x04034b50;
+    private static final int ENDLEN = 22;
+    private static final int CENLEN = 46;
+    private static final int LOCLEN = 30;
+    private static final int MAX_COMMENT_LEN = 0xFFFF;
+
+    private final Map<String, Entry> entries;
+
+    private ZipDirectory(final Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the central directory of the archive occupying {@code length} bytes of the file starting at {@code start}.
+     *
+     * @return the directory, or {@code null} if no supported central directory could be found
+     */
+    static ZipDirectory read(final RandomAccessFile file, final long start, final long length) throws IOException {
+        if (length < ENDLEN) {
+            return null;
+        }
+        final int tailLength = (int) Math.min(length, MAX_COMMENT_LEN + ENDLEN);
+        final ByteBuffer tail = read(file, start + length - tailLength, tailLength);
+        if (tail == null) {
+            return null;
+        }
+        int end = -1;
+        for (int pos = tailLength - ENDLEN; pos >= 0; pos--) {
+            if (tail.getInt(pos) == ENDSIG && pos + ENDLEN + unsignedShort(tail, pos + 20) == tailLength) {
+                end = pos;
+                break;
+            }
+        }
+        if (end < 0) {
+            return null;
+        }
+        final int entryCount = unsignedShort(tail, end + 10);
+        final long cenSize = unsignedInt(tail, end + 12);
+        final long cenStart = unsignedInt(tail, end + 16);
+        if (entryCount == 0xFFFF || cenSize == 0xFFFFFFFFL || cenStart == 0xFFFFFFFFL
+                || unsignedShort(tail, end + 4) != 0 || cenStart + cenSize > length - tailLength + end) {
+            // Zip64, multi-disk or offsets that don't fit; leave it to the standard zip support
+            return null;
+        }
+        final ByteBuffer cen = read(file, start + cenStart, (int) cenSize);
+        if (cen == null) {
+            return null;
+        }
+        final Map<String, Entry> entries = new LinkedHashMap<>(entryCount * 4 / 3 + 1);
+        int pos = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (pos + CENLEN > cenSize || cen.getInt(pos) != CENSIG) {
+                return null;
+            }
+            final int method = unsignedShort(cen, pos + 10);
+            final long dosTime = unsignedInt(cen, pos + 12);
+            final long compressedSize = unsignedInt(cen, pos + 20);
+            final long size = unsignedInt(cen, pos + 24);
+            final int nameLength = unsignedShort(cen, pos + 28);
+            final int extraLength = unsignedShort(cen, pos + 30);
+            final int commentLength = unsignedShort(cen, pos + 32);
+            final long localHeaderOffset = unsignedInt(cen, pos + 42);
+            if (pos + CENLEN + nameLength > cenSize) {
+                return null;
+            }
+            final byte[] nameBytes = new byte[nameLength];
+            cen.position(pos + CENLEN);
+            cen.get(nameBytes);
+            final String name = new String(nameBytes, StandardCharsets.UTF_8);
+            entries.put(name, new Entry(name, method, compressedSize, size, localHeaderOffset, dosTime));
+            pos += CENLEN + nameLength + extraLength + commentLength;
+        }
+        return new ZipDirectory(Collections.unmodifiableMap(entries));
+    }
+
+    Entry getEntry(final String name) {
+        return entries.get(name);
+    }
+
+    Collection<Entry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * Gets the position in the file of the data of the given entry of the archive starting at {@code start}.
+     *
+     * @return the position, or {@code -1} if the entry's local file header is not valid
+     */
+    static long getDataOffset(final RandomAccessFile file, final long start, final Entry entry) throws IOException {
+        final ByteBuffer loc = read(file, start + entry.localHeaderOffset, LOCLEN);
+        if (loc == null || loc.getInt(0) != LOCSIG) {
+            return -1;
+        }
+        return start + entry.localHeaderOffset + LOCLEN + unsignedShort(loc, 26) + unsignedShort(loc, 28);
+    }
+
+    /**
+     * Reads up to {@code len} bytes of the file at the given position. The file is shared, so the seek and the read
+     * are done under its lock.
+     *
+     * @return the number of bytes read, or {@code -1} at the end of the file
+     */
+    static int read(final RandomAccessFile file, final long position, final byte[] b, final int off, final int len) throws IOException {
+        synchronized (file) {
+            file.seek(position);
+            return file.read(b, off, len);
+        }
+    }
+
+    private static ByteBuffer read(final RandomAccessFile file, final long position, final int length) throws IOException {
+        final byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            final int n = read(file, position + read, bytes, read, length - read);
+            if (n < 0) {
+                return null;
+            }
+            read += n;
+        }
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int unsignedShort(final ByteBuffer buffer, final int index) {
+        return buffer.getShort(index) & 0xFFFF;
+    }
+
+    private static long unsignedInt(final ByteBuffer buffer, final int index) {
+        return buffer.getInt(index) & 0xFFFFFFFFL;
+    }
+
+    static final class Entry {
+        final String name;
+        final int method;
+        final long compressedSize;
+        final long size;
+        final long localHeaderOffset;
+        private final long dosTime;
+
+        private Entry(final String name, final int method, final long compressedSize, final long size, final long localHeaderOffset, final long dosTime) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+            this.dosTime = dosTime;
+        }
+
+        boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        long getLastModified() {
+            final int date = (int) (dosTime >> 16);
+            final int time = (int) (dosTime & 0xFFFF);
+            try {
+                return LocalDateTime.of(((date >> 9) & 0x7F) + 1980, (date >> 5) & 0x0F, date & 0x1F,
+                        (time >> 11) & 0x1F, (time >> 5) & 0x3F, (time << 1) & 0x3E)
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (RuntimeException e) {
+                // Not a valid date
+                return 0;
+            }
+        }
+    }
+}
@@ -1277,6 +1277,14 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 266, value = "Server home is set to '%s', but server real home is '%s' - unpredictable results may occur.")
     void serverHomeMismatch(Path passed, Path real);
 
+    @LogMessage(level = INFO)
+    @Message(id = 267, value = "Deployment %s spent %d ms in deployment unit processors. The %d slowest processors were:%s")
+    void slowDeployment(String deploymentName, long totalMillis, int count, CharSequence slowestProcessors);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 268, value = "Failed to suspend activity %s")
+    void failedToSuspend(@Cause Throwable cause, ServerActivity activity);
+
     ////////////////////////////////////////////////
     //Messages without IDs
 
@@ -39,6 +39,7 @@ import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
 import org.jboss.as.server.suspend.OperationListener;
 import org.jboss.as.server.suspend.SuspendController;
+import org.jboss.as.server.suspend.SuspendProgress;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
@@ -70,6 +71,7 @@ public class ServerSuspendHandler implements OperationStepHandler {
 
     public static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(ModelDescriptionConstants.SUSPEND, ServerDescriptions.getResourceDescriptionResolver())
             .setParameters(TIMEOUT)
+            .setReplyType(ModelType.OBJECT)
             .setRuntimeOnly()
             .build();
 
@@ -134,6 +136,11 @@ public class ServerSuspendHandler implements OperationStepHandler {
                 if(cancelled.get()) {
                     context.setRollbackOnly();
                 }
+                // How far each activity got, which shows the slow ones if the suspend timed out
+                SuspendProgress progress = suspendController.getSuspendProgress();
+                if (progress != null) {
+                    context.getResult().set(SuspendProgressReadHandler.toModelNode(progress));
+                }
                 context.completeStep(new RollbackHandler(suspendController));
             }
         }, OperationContext.Stage.RUNTIME);
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.operations;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.server.suspend.SuspendController;
+import org.jboss.as.server.suspend.SuspendProgress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reports the progress of the current or most recent suspend of the server, including how long each
+ * {@link org.jboss.as.server.suspend.ServerActivity} took to suspend.
+ */
+public class SuspendProgressReadHandler implements OperationStepHandler {
+
+    public static final SuspendProgressReadHandler INSTANCE = new SuspendProgressReadHandler();
+
+    private static final String SUSPEND_PROGRESS_NAME = "suspend-progress";
+    private static final String ELAPSED_TIME = "elapsed-time";
+    private static final String SUSPENDED_ACTIVITIES = "suspended-activities";
+    private static final String ACTIVITIES = "activities";
+    private static final String EXECUTION_GROUP = "execution-group";
+    private static final String PRE_SUSPEND_TIME = "pre-suspend-time";
+    private static final String SUSPEND_TIME = "suspend-time";
+
+    private static final SimpleAttributeDefinition ACTIVITY_NAME = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.NAME, ModelType.STRING)
+            .build();
+    private static final SimpleAttributeDefinition ACTIVITY_EXECUTION_GROUP = SimpleAttributeDefinitionBuilder.create(EXECUTION_GROUP, ModelType.INT)
+            .build();
+    private static final SimpleAttributeDefinition ACTIVITY_PRE_SUSPEND_TIME = SimpleAttributeDefinitionBuilder.create(PRE_SUSPEND_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    private static final SimpleAttributeDefinition ACTIVITY_SUSPEND_TIME = SimpleAttributeDefinitionBuilder.create(SUSPEND_TIME, ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    public static final AttributeDefinition SUSPEND_PROGRESS = ObjectTypeAttributeDefinition.Builder.of(SUSPEND_PROGRESS_NAME,
+            SimpleAttributeDefinitionBuilder.create(ELAPSED_TIME, ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .build(),
+            SimpleAttributeDefinitionBuilder.create(SUSPENDED_ACTIVITIES, ModelType.INT)
+                    .build(),
+            ObjectListAttributeDefinition.Builder.of(ACTIVITIES,
+                    ObjectTypeAttributeDefinition.Builder.of(ACTIVITIES, ACTIVITY_NAME, ACTIVITY_EXECUTION_GROUP,
+                            ACTIVITY_PRE_SUSPEND_TIME, ACTIVITY_SUSPEND_TIME).build())
+                    .build())
+            .setRequired(false)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    private SuspendProgressReadHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        ServiceController<?> sc = context.getServiceRegistry(false).getService(SuspendController.SERVICE_NAME);
+        if (sc != null) {
+            SuspendProgress progress = ((SuspendController) sc.getValue()).getSuspendProgress();
+            if (progress != null) {
+                context.getResult().set(toModelNode(progress));
+            }
+        }
+    }
+
+    /**
+     * Converts the progress of a suspend to its model representation, as reported by this attribute and by the
+     * suspend operation.
+     *
+     * @param progress the progress
+     * @return the model representation
+     */
+    static ModelNode toModelNode(SuspendProgress progress) {
+        ModelNode result = new ModelNode();
+        result.get(ELAPSED_TIME).set(progress.getElapsedTime());
+        result.get(SUSPENDED_ACTIVITIES).set(progress.getSuspendedActivityCount());
+        ModelNode activities = result.get(ACTIVITIES).setEmptyList();
+        for (SuspendProgress.ActivityProgress activity : progress.getActivities()) {
+            ModelNode node = activities.add();
+            node.get(ModelDescriptionConstants.NAME).set(activity.getName());
+            node.get(EXECUTION_GROUP).set(activity.getExecutionGroup());
+            node.get(PRE_SUSPEND_TIME).set(activity.getPreSuspendTime());
+            node.get(SUSPEND_TIME).set(activity.getSuspendTime());
+        }
+        return result;
+    }
+}
@@ -2,12 +2,21 @@ package org.jboss.as.server.suspend;
 
 /**
  * A server activity that may have to finish before the server can shut down gracefully.
- *
+ * <p/>
+ * Activities are suspended in execution groups, lowest group first. All the activities of every group complete
+ * {@link #preSuspend(ServerActivityCallback) pre-suspend} before any activity is {@link #suspended(ServerActivityCallback) suspended},
+ * and within each phase the next group only starts once every activity of the previous group has completed the phase.
+ * The activities of a group are invoked in parallel, so an activity that has to wait for another to be suspended
+ * first should be in a higher group.
  *
  * @author Stuart Douglas
  */
 public interface ServerActivity {
 
+    int LOWEST_EXECUTION_GROUP = 1;
+    int DEFAULT_EXECUTION_GROUP = 10;
+    int HIGHEST_EXECUTION_GROUP = 20;
+
     /**
      * Invoked before the server is paused. This is the place where pause notifications should
      * be sent to external systems such as load balancers to tell them this node is about to go away.
@@ -28,4 +37,14 @@ public interface ServerActivity {
      */
     void resume();
 
+    /**
+     * Returns the execution group of this activity, between {@link #LOWEST_EXECUTION_GROUP} and
+     * {@link #HIGHEST_EXECUTION_GROUP}.
+     *
+     * @return the execution group
+     */
+    default int getExecutionGroup() {
+        return DEFAULT_EXECUTION_GROUP;
+    }
+
 }
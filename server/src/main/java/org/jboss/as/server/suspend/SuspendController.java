@@ -5,10 +5,18 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAN
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_OPERATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.notification.NotificationHandlerRegistry;
@@ -28,6 +36,11 @@ import org.jboss.msc.value.InjectedValue;
  * In most cases this work is delegated to the request controller subsystem.
  * however for workflows that do no correspond directly to a request model a {@link ServerActivity} instance
  * can be registered directly with this controller.
+ * <p/>
+ * Activities are suspended in the order of their {@link ServerActivity#getExecutionGroup() execution groups}. If
+ * the server executor is available the activities of a group are invoked on it in parallel, so an activity that
+ * blocks while being suspended doesn't hold up the others. Calls to each activity are always made one at a time and
+ * in order, so a resume never overtakes a suspend of the same activity that is still in progress.
  *
  * @author Stuart Douglas
  */
@@ -45,17 +58,32 @@ public class SuspendController implements Service<SuspendController> {
 
     private State state = State.SUSPENDED;
 
-    private final List<ServerActivity> activities = new ArrayList<>();
+    private final List<ActivityState> activities = new ArrayList<>();
 
     private final List<OperationListener> operationListeners = new ArrayList<>();
 
     private final InjectedValue<NotificationHandlerRegistry> notificationHandlerRegistry = new InjectedValue<>();
 
+    private final InjectedValue<ExecutorService> executor = new InjectedValue<>();
+
     private int outstandingCount;
 
     private boolean startSuspended;
 
-    private final ServerActivityCallback listener = () -> activityPaused();
+    /**
+     * Identifies the current suspend, so that callbacks from a suspend that was cancelled by a resume are ignored
+     */
+    private int suspension;
+
+    /**
+     * The activities of the current or most recent suspend by execution group, in the order they are suspended, or
+     * {@code null} if the server was resumed since
+     */
+    private List<List<ActivityState>> groups;
+
+    private long suspendStart;
+
+    private long suspendEnd;
 
     public SuspendController() {
         this.startSuspended = false;
@@ -81,20 +109,19 @@ public class SuspendController implements Service<SuspendController> {
         for(OperationListener listener: new ArrayList<>(operationListeners)) {
             listener.suspendStarted();
         }
+        final int suspension = ++this.suspension;
+        final Map<Integer, List<ActivityState>> groupMap = new TreeMap<>();
+        for (ActivityState activity : activities) {
+            activity.reset();
+            groupMap.computeIfAbsent(activity.executionGroup, group -> new ArrayList<>()).add(activity);
+        }
+        groups = new ArrayList<>(groupMap.values());
+        suspendStart = System.nanoTime();
+        suspendEnd = 0;
         outstandingCount = activities.size();
         if (outstandingCount == 0) {
             handlePause();
         } else {
-            CountingRequestCountCallback cb = new CountingRequestCountCallback(outstandingCount, () -> {
-                state = State.SUSPENDING;
-                for (ServerActivity activity : activities) {
-                    activity.suspended(SuspendController.this.listener);
-                }
-            });
-
-            for (ServerActivity activity : activities) {
-                activity.preSuspend(cb);
-            }
             timer = new Timer();
             if (timeoutMillis > 0) {
                 timer.schedule(new TimerTask() {
@@ -104,9 +131,39 @@ public class SuspendController implements Service<SuspendController> {
                     }
                 }, timeoutMillis);
             }
+            startGroup(suspension, groups.iterator(), true);
+        }
+    }
+
+    /**
+     * Runs a phase of the suspend for the next group of activities. Invoke with the object monitor held.
+     */
+    private void startGroup(final int suspension, final Iterator<List<ActivityState>> remaining, final boolean preSuspend) {
+        final List<ActivityState> group = remaining.next();
+        final CountingRequestCountCallback callback = new CountingRequestCountCallback(group.size(), () -> groupDone(suspension, remaining, preSuspend));
+        final boolean parallel = group.size() > 1;
+        for (ActivityState activity : group) {
+            if (preSuspend) {
+                activity.preSuspend(suspension, callback, parallel);
+            } else {
+                activity.suspend(suspension, callback, parallel);
+            }
         }
     }
 
+    private synchronized void groupDone(final int suspension, final Iterator<List<ActivityState>> remaining, final boolean preSuspend) {
+        if (suspension != this.suspension) {
+            return;
+        }
+        if (remaining.hasNext()) {
+            startGroup(suspension, remaining, preSuspend);
+        } else if (preSuspend) {
+            state = State.SUSPENDING;
+            startGroup(suspension, groups.iterator(), false);
+        }
+        // Once the last group is suspended the outstanding count is 0, and the suspend is complete
+    }
+
     public synchronized void resume() {
         if (state == State.RUNNING) {
             return;
@@ -116,32 +173,36 @@ public class SuspendController implements Service<SuspendController> {
             timer.cancel();
             timer = null;
         }
+        ++suspension;
+        groups = null;
         for(OperationListener listener: new ArrayList<>(operationListeners)) {
             listener.cancelled();
         }
-        for (ServerActivity activity : activities) {
-            try {
-                activity.resume();
-            } catch (Exception e) {
-                ServerLogger.ROOT_LOGGER.failedToResume(activity);
-            }
+        for (ActivityState activity : activities) {
+            activity.resume();
         }
         state = State.RUNNING;
     }
 
     public synchronized void registerActivity(final ServerActivity activity) {
-        this.activities.add(activity);
+        final ActivityState activityState = new ActivityState(activity);
+        this.activities.add(activityState);
         if(state != State.RUNNING) {
             //if the activity is added when we are not running we just immediately suspend it
             //this should only happen at boot, so there should be no outstanding requests anyway
-            activity.suspended(() -> {
+            activityState.invoke(() -> activity.suspended(() -> {
 
-            });
+            }), false);
         }
     }
 
     public synchronized void unRegisterActivity(final ServerActivity activity) {
-        this.activities.remove(activity);
+        for (Iterator<ActivityState> it = activities.iterator(); it.hasNext(); ) {
+            if (it.next().activity == activity) {
+                it.remove();
+                break;
+            }
+        }
     }
 
     @Override
@@ -159,14 +220,52 @@ public class SuspendController implements Service<SuspendController> {
         return state;
     }
 
-    synchronized void activityPaused() {
+    /**
+     * Gets the progress of the current suspend, or of the most recent one if the server is suspended.
+     *
+     * @return the progress, or {@code null} if the server isn't suspending or suspended, or was started suspended
+     */
+    public synchronized SuspendProgress getSuspendProgress() {
+        if (groups == null) {
+            return null;
+        }
+        final long now = System.nanoTime();
+        final List<SuspendProgress.ActivityProgress> progress = new ArrayList<>(activities.size());
+        for (List<ActivityState> group : groups) {
+            for (ActivityState activity : group) {
+                progress.add(new SuspendProgress.ActivityProgress(activity.activity.toString(), activity.executionGroup,
+                        toMillis(activity.preSuspendTime), toMillis(activity.suspendTime)));
+            }
+        }
+        return new SuspendProgress(toMillis((suspendEnd != 0 ? suspendEnd : now) - suspendStart), progress);
+    }
+
+    private static long toMillis(final long nanos) {
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private synchronized void preSuspended(final int suspension, final ActivityState activity, final ServerActivityCallback callback) {
+        if (suspension != this.suspension || activity.preSuspendTime >= 0) {
+            return;
+        }
+        activity.preSuspendTime = System.nanoTime() - activity.start;
+        callback.done();
+    }
+
+    private synchronized void activitySuspended(final int suspension, final ActivityState activity, final ServerActivityCallback callback) {
+        if (suspension != this.suspension || activity.suspendTime >= 0) {
+            return;
+        }
+        activity.suspendTime = System.nanoTime() - activity.start;
         --outstandingCount;
         handlePause();
+        callback.done();
     }
 
     private void handlePause() {
         if (outstandingCount == 0) {
             state = State.SUSPENDED;
+            suspendEnd = System.nanoTime();
             if (timer != null) {
                 timer.cancel();
                 timer = null;
@@ -206,10 +305,121 @@ public class SuspendController implements Service<SuspendController> {
         return notificationHandlerRegistry;
     }
 
+    /**
+     * The executor on which the activities of an execution group are invoked in parallel. If it isn't injected the
+     * activities are invoked one after the other by the thread suspending the server.
+     *
+     * @return the injected executor
+     */
+    public InjectedValue<ExecutorService> getExecutorInjector() {
+        return executor;
+    }
+
     public enum State {
         RUNNING,
         PRE_SUSPEND,
         SUSPENDING,
         SUSPENDED
     }
+
+    /**
+     * A registered activity, its progress through the current suspend and the calls waiting to be made to it.
+     */
+    private final class ActivityState {
+        private final ServerActivity activity;
+        private final int executionGroup;
+        /** Guarded by this */
+        private final Deque<Runnable> calls = new ArrayDeque<>();
+        /** Guarded by this */
+        private boolean invoking;
+        /** The start of the current phase; this and the times below are guarded by the controller */
+        private long start;
+        private long preSuspendTime;
+        private long suspendTime;
+
+        private ActivityState(final ServerActivity activity) {
+            this.activity = activity;
+            this.executionGroup = activity.getExecutionGroup();
+        }
+
+        private void reset() {
+            preSuspendTime = -1;
+            suspendTime = -1;
+        }
+
+        private void preSuspend(final int suspension, final ServerActivityCallback callback, final boolean parallel) {
+            start = System.nanoTime();
+            final ServerActivityCallback done = () -> preSuspended(suspension, this, callback);
+            invoke(() -> {
+                try {
+                    activity.preSuspend(done);
+                } catch (RuntimeException e) {
+                    ServerLogger.ROOT_LOGGER.failedToSuspend(e, activity);
+                    done.done();
+                }
+            }, parallel);
+        }
+
+        private void suspend(final int suspension, final ServerActivityCallback callback, final boolean parallel) {
+            start = System.nanoTime();
+            final ServerActivityCallback done = () -> activitySuspended(suspension, this, callback);
+            invoke(() -> {
+                try {
+                    activity.suspended(done);
+                } catch (RuntimeException e) {
+                    ServerLogger.ROOT_LOGGER.failedToSuspend(e, activity);
+                    done.done();
+                }
+            }, parallel);
+        }
+
+        private void resume() {
+            invoke(() -> {
+                try {
+                    activity.resume();
+                } catch (Exception e) {
+                    ServerLogger.ROOT_LOGGER.failedToResume(activity);
+                }
+            }, false);
+        }
+
+        /**
+         * Makes a call to the activity once the calls requested before it have been made. If no other call is being made,
+         * the call is made on the executor if {@code parallel} is {@code true} and the executor is available, otherwise
+         * by the calling thread.
+         */
+        private void invoke(final Runnable call, final boolean parallel) {
+            synchronized (this) {
+                calls.add(call);
+                if (invoking) {
+                    return;
+                }
+                invoking = true;
+            }
+            final ExecutorService executor = parallel ? SuspendController.this.executor.getOptionalValue() : null;
+            if (executor != null) {
+                try {
+                    executor.execute(this::invokeCalls);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Make the calls here instead
+                }
+            }
+            invokeCalls();
+        }
+
+        private void invokeCalls() {
+            for (;;) {
+                final Runnable call;
+                synchronized (this) {
+                    call = calls.poll();
+                    if (call == null) {
+                        invoking = false;
+                        return;
+                    }
+                }
+                call.run();
+            }
+        }
+    }
 }
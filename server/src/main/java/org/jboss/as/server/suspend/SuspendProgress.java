@@ -0,0 +1,94 @@
+package org.jboss.as.server.suspend;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The progress of the current or most recent suspend of the server, at the time it was taken. All times are in
+ * milliseconds.
+ */
+public final class SuspendProgress {
+
+    private final long elapsedTime;
+    private final List<ActivityProgress> activities;
+
+    SuspendProgress(final long elapsedTime, final List<ActivityProgress> activities) {
+        this.elapsedTime = elapsedTime;
+        this.activities = Collections.unmodifiableList(activities);
+    }
+
+    /**
+     * Gets the time since the suspend started, or the time it took if it has completed.
+     *
+     * @return the time
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Gets the progress of each activity, in the order in which the activities are suspended.
+     *
+     * @return the progress of the activities
+     */
+    public List<ActivityProgress> getActivities() {
+        return activities;
+    }
+
+    public int getSuspendedActivityCount() {
+        int count = 0;
+        for (ActivityProgress activity : activities) {
+            if (activity.isSuspended()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The progress of a single activity.
+     */
+    public static final class ActivityProgress {
+        private final String name;
+        private final int executionGroup;
+        private final long preSuspendTime;
+        private final long suspendTime;
+
+        ActivityProgress(final String name, final int executionGroup, final long preSuspendTime, final long suspendTime) {
+            this.name = name;
+            this.executionGroup = executionGroup;
+            this.preSuspendTime = preSuspendTime;
+            this.suspendTime = suspendTime;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getExecutionGroup() {
+            return executionGroup;
+        }
+
+        /**
+         * Gets the time the activity took to complete pre-suspend.
+         *
+         * @return the time, or {@code -1} if it hasn't completed
+         */
+        public long getPreSuspendTime() {
+            return preSuspendTime;
+        }
+
+        /**
+         * Gets the time the activity took to be suspended, from the time it was asked to.
+         *
+         * @return the time, or {@code -1} if it hasn't been suspended
+         */
+        public long getSuspendTime() {
+            return suspendTime;
+        }
+
+        public boolean isSuspended() {
+            return suspendTime >= 0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DeploymentTimings}, the metrics read from them and the slow deployment summary.
+ */
+public class DeploymentTimingsTestCase {
+
+    @Test
+    public void testPhaseTimes() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        timings.recordPhase(Phase.STRUCTURE, millis(5), millis(20));
+        timings.recordPhase(Phase.PARSE, millis(1), millis(30));
+
+        assertEquals(millis(50), timings.getTotalProcessingTime());
+        final List<ModelNode> phases = DeploymentTimingsHandler.toModel(timings, true).asList();
+        assertEquals(2, phases.size());
+        assertEquals(Phase.STRUCTURE.name(), phases.get(0).get("phase").asString());
+        assertEquals(20L, phases.get(0).get("processing-time").asLong());
+        assertEquals(5L, phases.get(0).get("waiting-time").asLong());
+        assertEquals(Phase.PARSE.name(), phases.get(1).get("phase").asString());
+        assertEquals(30L, phases.get(1).get("processing-time").asLong());
+        assertEquals(1L, phases.get(1).get("waiting-time").asLong());
+    }
+
+    @Test
+    public void testProcessorTimes() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        timings.recordProcessor(Phase.STRUCTURE, new FirstProcessor(), millis(3));
+        timings.recordProcessor(Phase.STRUCTURE, new SecondProcessor(), millis(4));
+        // A processor class registered twice in a phase is reported once, with the time of both
+        timings.recordProcessor(Phase.STRUCTURE, new FirstProcessor(), millis(2));
+        timings.recordProcessor(Phase.PARSE, new FirstProcessor(), millis(7));
+
+        final List<ModelNode> processors = DeploymentTimingsHandler.toModel(timings, false).asList();
+        assertEquals(3, processors.size());
+        assertProcessor(processors.get(0), Phase.STRUCTURE, FirstProcessor.class, 5L);
+        assertProcessor(processors.get(1), Phase.STRUCTURE, SecondProcessor.class, 4L);
+        assertProcessor(processors.get(2), Phase.PARSE, FirstProcessor.class, 7L);
+    }
+
+    @Test
+    public void testNothingRecorded() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        assertTrue(DeploymentTimingsHandler.toModel(timings, true).asList().isEmpty());
+        assertTrue(DeploymentTimingsHandler.toModel(timings, false).asList().isEmpty());
+    }
+
+    @Test
+    public void testSlowDeploymentThreshold() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        timings.recordPhase(Phase.STRUCTURE, 0L, millis(40));
+        timings.recordPhase(Phase.PARSE, 0L, millis(60));
+        timings.recordProcessor(Phase.STRUCTURE, new FirstProcessor(), millis(40));
+        timings.recordProcessor(Phase.PARSE, new SecondProcessor(), millis(60));
+
+        assertNull(DeploymentUnitPhaseService.getSlowestProcessorsSummary(timings, 101L));
+        assertNull(DeploymentUnitPhaseService.getSlowestProcessorsSummary(timings, 0L));
+        final CharSequence summary = DeploymentUnitPhaseService.getSlowestProcessorsSummary(timings, 100L);
+        assertNotNull(summary);
+        final String[] lines = summary.toString().trim().split(System.lineSeparator());
+        assertEquals(2, lines.length);
+        // Slowest first
+        assertEquals(Phase.PARSE + ":" + SecondProcessor.class.getName() + ": 60ms", lines[0].trim());
+        assertEquals(Phase.STRUCTURE + ":" + FirstProcessor.class.getName() + ": 40ms", lines[1].trim());
+    }
+
+    @Test
+    public void testSlowestProcessorsAreLimited() {
+        final DeploymentTimings timings = new DeploymentTimings();
+        final Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            timings.recordPhase(phases[i], 0L, millis(10));
+            timings.recordProcessor(phases[i], new FirstProcessor(), millis(i + 1));
+        }
+        final CharSequence summary = DeploymentUnitPhaseService.getSlowestProcessorsSummary(timings, 1L);
+        assertNotNull(summary);
+        assertEquals(DeploymentUnitPhaseService.SLOW_DEPLOYMENT_REPORTED_PROCESSORS, summary.toString().trim().split(System.lineSeparator()).length);
+    }
+
+    @Test
+    public void testResolveSlowDeploymentThreshold() {
+        final long defaultThreshold = DeploymentUnitPhaseService.resolveSlowDeploymentThreshold(null);
+        assertEquals(500L, DeploymentUnitPhaseService.resolveSlowDeploymentThreshold("500"));
+        assertEquals(0L, DeploymentUnitPhaseService.resolveSlowDeploymentThreshold("0"));
+        assertEquals(defaultThreshold, DeploymentUnitPhaseService.resolveSlowDeploymentThreshold("-1"));
+        assertEquals(defaultThreshold, DeploymentUnitPhaseService.resolveSlowDeploymentThreshold("10s"));
+    }
+
+    private static void assertProcessor(final ModelNode processor, final Phase phase, final Class<?> processorClass, final long time) {
+        assertEquals(phase.name(), processor.get("phase").asString());
+        assertEquals(processorClass.getName(), processor.get("processor").asString());
+        assertEquals(time, processor.get("time").asLong());
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static class FirstProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit context) {
+        }
+    }
+
+    private static class SecondProcessor extends FirstProcessor {
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.jboss.as.repository.PathUtil;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private Path cacheDir;
+
+    @Before
+    public void createCacheDir() throws IOException {
+        cacheDir = Files.createTempDirectory("annotation-index-cache");
+    }
+
+    @After
+    public void deleteCacheDir() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(cacheDir);
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir, Long.MAX_VALUE);
+        assertNull(cache.get("a"));
+        cache.put("a", indexOf(AnnotationIndexCacheTestCase.class));
+        final Index cached = cache.get("a");
+        assertNotNull(cached);
+        assertNotNull(cached.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        final Index index = indexOf(AnnotationIndexCacheTestCase.class);
+        new AnnotationIndexCache(cacheDir, Long.MAX_VALUE).put("a", index);
+        final long entrySize = Files.size(cacheDir.resolve("a.idx"));
+        // Room for two entries only
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir, entrySize * 2);
+        cache.put("b", index);
+        Files.setLastModifiedTime(cacheDir.resolve("a.idx"), FileTime.fromMillis(1000L));
+        Files.setLastModifiedTime(cacheDir.resolve("b.idx"), FileTime.fromMillis(2000L));
+        cache.put("c", index);
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void testFingerprintFollowsContentNotTimestamps() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir, Long.MAX_VALUE);
+        final Path root = Files.createTempDirectory("annotation-index-root");
+        try {
+            final Path classFile = root.resolve("org/example/Example.class");
+            Files.createDirectories(classFile.getParent());
+            final FileTime fixed = FileTime.fromMillis(315532800000L);
+
+            Files.write(classFile, new byte[] {1, 2, 3, 4});
+            Files.setLastModifiedTime(classFile, fixed);
+            final String first = fingerprint(cache, root);
+
+            // A reproducible build: same size, same timestamp, different content
+            Files.write(classFile, new byte[] {1, 2, 3, 5});
+            Files.setLastModifiedTime(classFile, fixed);
+            final String recompiled = fingerprint(cache, root);
+            assertNotEquals(first, recompiled);
+
+            // Touching the file without changing it keeps the cached index usable
+            Files.setLastModifiedTime(classFile, FileTime.fromMillis(System.currentTimeMillis()));
+            assertEquals(recompiled, fingerprint(cache, root));
+        } finally {
+            PathUtil.deleteRecursively(root);
+        }
+    }
+
+    @Test
+    public void testResolveMaxSize() {
+        final long defaultSize = AnnotationIndexCache.resolveMaxSize(null);
+        assertEquals(1024L, AnnotationIndexCache.resolveMaxSize("1024"));
+        assertEquals(1024L, AnnotationIndexCache.resolveMaxSize(" 1024 "));
+        assertEquals(defaultSize, AnnotationIndexCache.resolveMaxSize("256MB"));
+        assertEquals(defaultSize, AnnotationIndexCache.resolveMaxSize("0"));
+        assertEquals(defaultSize, AnnotationIndexCache.resolveMaxSize("-1"));
+    }
+
+    private static String fingerprint(final AnnotationIndexCache cache, final Path root) {
+        final VirtualFile virtualRoot = VFS.getChild(root.toUri());
+        final List<VirtualFile> classFiles = Collections.singletonList(virtualRoot.getChild("org/example/Example.class"));
+        final String fingerprint = cache.fingerprint(virtualRoot, classFiles, null);
+        assertNotNull(fingerprint);
+        return fingerprint;
+    }
+
+    private static Index indexOf(Class<?> clazz) throws IOException {
+        final Indexer indexer = new Indexer();
+        try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+            indexer.index(in);
+        }
+        return indexer.complete();
+    }
+}
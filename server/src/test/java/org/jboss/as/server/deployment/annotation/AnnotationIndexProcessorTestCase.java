@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jboss.as.repository.PathUtil;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.Index;
+import org.jboss.vfs.VFS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.common.cpu.ProcessorInfo;
+
+/**
+ * Tests of {@link AnnotationIndexProcessor}.
+ */
+public class AnnotationIndexProcessorTestCase {
+
+    private static final Class<?>[][] ROOT_CLASSES = {
+            {AnnotationIndexProcessorTestCase.class, AnnotationIndexCacheTestCase.class},
+            {AnnotationIndexProcessor.class},
+            {AnnotationIndexCache.class, ResourceRootIndexer.class},
+            {},
+            {CleanupAnnotationIndexProcessor.class, CompositeIndexProcessor.class, AnnotationIndexUtils.class},
+    };
+
+    private Path root;
+
+    @Before
+    public void createRoots() throws IOException {
+        root = Files.createTempDirectory("annotation-index-processor");
+        for (int i = 0; i < ROOT_CLASSES.length; i++) {
+            final Path dir = Files.createDirectories(root.resolve("root" + i));
+            for (Class<?> clazz : ROOT_CLASSES[i]) {
+                final Path file = dir.resolve(clazz.getName().replace('.', '/') + ".class");
+                Files.createDirectories(file.getParent());
+                try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+                    Files.copy(in, file);
+                }
+            }
+        }
+    }
+
+    @After
+    public void deleteRoots() throws IOException {
+        PathUtil.deleteRecursively(root);
+    }
+
+    @Test
+    public void testConcurrentIndexingMatchesSequential() throws Exception {
+        final List<ResourceRoot> sequential = resourceRoots();
+        new AnnotationIndexProcessor(null, null).indexResourceRoots(sequential);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        final List<ResourceRoot> concurrent = resourceRoots();
+        try {
+            new AnnotationIndexProcessor(null, executor, 4).indexResourceRoots(concurrent);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < ROOT_CLASSES.length; i++) {
+            final TreeSet<String> expected = new TreeSet<>();
+            for (Class<?> clazz : ROOT_CLASSES[i]) {
+                expected.add(clazz.getName());
+            }
+            assertEquals(expected, classNames(sequential.get(i)));
+            assertEquals(expected, classNames(concurrent.get(i)));
+        }
+    }
+
+    @Test
+    public void testRejectingExecutorStillIndexesEveryRoot() throws Exception {
+        final List<ResourceRoot> resourceRoots = resourceRoots();
+        new AnnotationIndexProcessor(null, command -> {
+            throw new RejectedExecutionException();
+        }, 4).indexResourceRoots(resourceRoots);
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            assertNotNull(resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX));
+        }
+    }
+
+    @Test
+    public void testResolveIndexThreads() {
+        final int processors = ProcessorInfo.availableProcessors();
+        assertEquals(processors, AnnotationIndexProcessor.resolveIndexThreads(null));
+        assertEquals(3, AnnotationIndexProcessor.resolveIndexThreads("3"));
+        assertEquals(3, AnnotationIndexProcessor.resolveIndexThreads(" 3 "));
+        assertEquals(processors, AnnotationIndexProcessor.resolveIndexThreads("0"));
+        assertEquals(processors, AnnotationIndexProcessor.resolveIndexThreads("-1"));
+        assertEquals(processors, AnnotationIndexProcessor.resolveIndexThreads("four"));
+    }
+
+    private List<ResourceRoot> resourceRoots() {
+        final List<ResourceRoot> resourceRoots = new ArrayList<>();
+        for (int i = 0; i < ROOT_CLASSES.length; i++) {
+            resourceRoots.add(new ResourceRoot(VFS.getChild(root.resolve("root" + i).toUri()), null));
+        }
+        return resourceRoots;
+    }
+
+    private static TreeSet<String> classNames(final ResourceRoot resourceRoot) {
+        final Index index = resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX);
+        assertNotNull(index);
+        final TreeSet<String> names = new TreeSet<>();
+        for (ClassInfo classInfo : index.getKnownClasses()) {
+            names.add(classInfo.name().toString());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ClassLoadingMetrics}.
+ */
+public class ClassLoadingMetricsTestCase {
+
+    @Test
+    public void testCounts() {
+        final ClassLoadingMetrics metrics = new ClassLoadingMetrics("deployment.test.jar", 3);
+        metrics.classFound(100L);
+        metrics.classFound(50L);
+        metrics.classMissed("org/example/Missing.class");
+        metrics.resourceFound();
+        metrics.resourceMissed("META-INF/missing.xml");
+        metrics.resourceMissed("META-INF/other.xml");
+
+        assertEquals("deployment.test.jar", metrics.getModule());
+        assertEquals(3, metrics.getDependencies());
+        assertEquals(2L, metrics.getLoadedClasses());
+        assertEquals(150L, metrics.getClassLoadTime());
+        assertEquals(1L, metrics.getClassLookupMisses());
+        assertEquals(3L, metrics.getResourceLookups());
+        assertEquals(2L, metrics.getResourceLookupMisses());
+    }
+
+    @Test
+    public void testMostMissedPaths() {
+        final ClassLoadingMetrics metrics = new ClassLoadingMetrics("deployment.test.jar", 0);
+        metrics.classMissed("org/example/A.class");
+        metrics.classMissed("org/example/B.class");
+        metrics.resourceMissed("org/example/c.properties");
+        metrics.classMissed("org/other/A.class");
+        metrics.resourceMissed("root.txt");
+        metrics.resourceMissed("other-root.txt");
+
+        final Map<String, Long> missed = metrics.getMostMissedPaths(10);
+        assertEquals(3, missed.size());
+        // Most missed first; resources at the root of the module are recorded against the empty path
+        assertEquals(Arrays.asList("org/example", "", "org/other"), new ArrayList<>(missed.keySet()));
+        assertEquals(Long.valueOf(3L), missed.get("org/example"));
+        assertEquals(Long.valueOf(2L), missed.get(""));
+        assertEquals(Long.valueOf(1L), missed.get("org/other"));
+
+        assertEquals(Arrays.asList("org/example", ""), new ArrayList<>(metrics.getMostMissedPaths(2).keySet()));
+        assertTrue(metrics.getMostMissedPaths(0).isEmpty());
+    }
+
+    @Test
+    public void testMissedPathsAreCapped() {
+        final ClassLoadingMetrics metrics = new ClassLoadingMetrics("deployment.test.jar", 0);
+        for (int i = 0; i < 2000; i++) {
+            metrics.classMissed("p" + i + "/Missing.class");
+        }
+        // Misses are all counted, but only the first 1024 packages are tracked
+        assertEquals(2000L, metrics.getClassLookupMisses());
+        final Map<String, Long> missed = metrics.getMostMissedPaths(Integer.MAX_VALUE);
+        assertEquals(1024, missed.size());
+        assertFalse(missed.containsKey("p1024"));
+
+        // Packages that are already tracked keep counting
+        metrics.classMissed("p0/Other.class");
+        metrics.resourceMissed("p5000/missing.txt");
+        assertEquals(Long.valueOf(2L), metrics.getMostMissedPaths(1).get("p0"));
+        assertEquals(1024, metrics.getMostMissedPaths(Integer.MAX_VALUE).size());
+        assertEquals(1L, metrics.getResourceLookupMisses());
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jboss.as.repository.PathUtil;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link NestedZipMounter} and the {@link NestedZipFileSystem} it mounts.
+ * <p>
+ * Both {@code Class-Path} manifest entries and {@code jboss-deployment-structure.xml} resource roots mount archives
+ * by their path within the mounted deployment, such as {@code lib/util.jar} here.
+ */
+public class NestedZipMounterTestCase {
+
+    private static final byte[] MANIFEST = "Manifest-Version: 1.0\r\n\r\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLASS = "not really a class".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TEXT = ZipBuilder.text(20000);
+    private static final byte[] NESTED = new ZipBuilder()
+            .deflated("META-INF/MANIFEST.MF", MANIFEST)
+            .directory("org/")
+            .directory("org/example/")
+            .stored("org/example/Example.class", CLASS)
+            .deflated("org/example/text.txt", TEXT)
+            .build();
+
+    private ScheduledExecutorService executor;
+    private TempFileProvider tempFileProvider;
+    private File dir;
+    private VirtualFile deployment;
+    private final List<Closeable> handles = new ArrayList<>();
+
+    @Before
+    public void mountDeployment() throws IOException {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        tempFileProvider = TempFileProvider.create("nested-zip-test", executor, true);
+        dir = Files.createTempDirectory("nested-zip").toFile();
+        final File ear = new File(dir, "app.ear");
+        Files.write(ear.toPath(), new ZipBuilder()
+                .directory("lib/")
+                .stored("lib/util.jar", NESTED)
+                .deflated("lib/deflated.jar", NESTED)
+                .stored("lib/signed.jar", new ZipBuilder()
+                        .deflated("META-INF/MANIFEST.MF", MANIFEST)
+                        .stored("META-INF/TEST.SF", MANIFEST)
+                        .stored("org/example/Example.class", CLASS)
+                        .build())
+                .stored("lib/zip64.jar", ZipBuilder.zip64())
+                .stored("lib/not-a-zip.jar", TEXT)
+                .build());
+        deployment = VFS.getChild("content-" + UUID.randomUUID()).getChild("app.ear");
+        handles.add(VFS.mountZip(ear, deployment, tempFileProvider));
+    }
+
+    @After
+    public void unmountDeployment() throws IOException {
+        for (int i = handles.size() - 1; i >= 0; i--) {
+            VFSUtils.safeClose(handles.get(i));
+        }
+        VFSUtils.safeClose(tempFileProvider);
+        executor.shutdownNow();
+        PathUtil.deleteRecursively(dir.toPath());
+    }
+
+    @Test
+    public void testStoredArchiveIsMountedDirectly() throws Exception {
+        final VirtualFile jar = mountDirect("lib/util.jar");
+
+        assertTrue(jar.isDirectory());
+        assertEquals(Arrays.asList("META-INF", "org"), names(jar.getChildren()));
+        assertEquals(Arrays.asList("Example.class", "text.txt"), names(jar.getChild("org/example").getChildren()));
+        assertTrue(jar.getChild("org/example").isDirectory());
+        assertTrue(jar.getChild("org/example/Example.class").isFile());
+        assertFalse(jar.getChild("org/missing").exists());
+
+        // Stored entry
+        final VirtualFile example = jar.getChild("org/example/Example.class");
+        assertEquals(CLASS.length, example.getSize());
+        assertArrayEquals(CLASS, read(example));
+        // Deflated entries
+        assertEquals(TEXT.length, jar.getChild("org/example/text.txt").getSize());
+        assertArrayEquals(TEXT, read(jar.getChild("org/example/text.txt")));
+        assertArrayEquals(MANIFEST, read(jar.getChild("META-INF/MANIFEST.MF")));
+        assertNotNull(VFSUtils.getManifest(jar));
+    }
+
+    @Test
+    public void testPhysicalFiles() throws Exception {
+        final VirtualFile jar = mountDirect("lib/util.jar");
+        final File text = jar.getChild("org/example/text.txt").getPhysicalFile();
+        assertArrayEquals(TEXT, Files.readAllBytes(text.toPath()));
+        assertTrue(jar.getChild("org/example").getPhysicalFile().isDirectory());
+        // The archive itself is copied out when its physical file is requested
+        final File copy = jar.getPhysicalFile();
+        assertArrayEquals(NESTED, Files.readAllBytes(copy.toPath()));
+        assertEquals(text, jar.getChild("org/example/text.txt").getPhysicalFile());
+    }
+
+    @Test
+    public void testArchivesThatAreNotMountedDirectly() throws Exception {
+        // Would need inflating to reach the nested archive's entries
+        assertNull(NestedZipMounter.mountDirect(deployment.getChild("lib/deflated.jar"), deployment.getChild("lib/deflated.jar"), tempFileProvider));
+        // Signatures are only checked by the standard zip support
+        assertNull(NestedZipMounter.mountDirect(deployment.getChild("lib/signed.jar"), deployment.getChild("lib/signed.jar"), tempFileProvider));
+        assertNull(NestedZipMounter.mountDirect(deployment.getChild("lib/zip64.jar"), deployment.getChild("lib/zip64.jar"), tempFileProvider));
+        assertNull(NestedZipMounter.mountDirect(deployment.getChild("lib/not-a-zip.jar"), deployment.getChild("lib/not-a-zip.jar"), tempFileProvider));
+    }
+
+    @Test
+    public void testFallbackMount() throws Exception {
+        final VirtualFile jar = deployment.getChild("lib/deflated.jar");
+        handles.add(NestedZipMounter.mountZip(jar, jar, tempFileProvider));
+        assertArrayEquals(TEXT, read(jar.getChild("org/example/text.txt")));
+    }
+
+    @Test
+    public void testReadsSurviveInterruption() throws Exception {
+        final VirtualFile jar = mountDirect("lib/util.jar");
+        try {
+            Thread.currentThread().interrupt();
+            assertArrayEquals(TEXT, read(jar.getChild("org/example/text.txt")));
+        } finally {
+            Thread.interrupted();
+        }
+        // An interrupted reader must not break the archive for everyone else
+        assertArrayEquals(TEXT, read(jar.getChild("org/example/text.txt")));
+        assertArrayEquals(CLASS, read(jar.getChild("org/example/Example.class")));
+    }
+
+    @Test
+    public void testArchiveStream() throws Exception {
+        final VirtualFile jar = deployment.getChild("lib/util.jar");
+        final File ear = VFSUtils.getMountSource(jar);
+        try (RandomAccessFile raf = new RandomAccessFile(ear, "r")) {
+            final ZipDirectory.Entry entry = ZipDirectory.read(raf, 0, raf.length()).getEntry("lib/util.jar");
+            final long start = ZipDirectory.getDataOffset(raf, 0, entry);
+            final NestedZipFileSystem fileSystem = new NestedZipFileSystem(ear, entry.name, start, entry.size,
+                    ZipDirectory.read(raf, start, entry.size), tempFileProvider);
+            try {
+                assertEquals(NESTED.length, fileSystem.getSize(jar, jar));
+                try (InputStream in = fileSystem.openInputStream(jar, jar)) {
+                    assertEquals(NESTED.length, in.available());
+                    assertEquals(NESTED[0] & 0xFF, in.read());
+                    assertEquals(NESTED[1] & 0xFF, in.read());
+                    assertEquals(10, in.skip(10));
+                    final byte[] rest = new byte[NESTED.length];
+                    int read = 0;
+                    int n;
+                    while ((n = in.read(rest, read, rest.length - read)) > 0) {
+                        read += n;
+                    }
+                    assertEquals(NESTED.length - 12, read);
+                    assertArrayEquals(Arrays.copyOfRange(NESTED, 12, NESTED.length), Arrays.copyOf(rest, read));
+                    assertEquals(-1, in.read());
+                    assertEquals(0, in.skip(10));
+                    assertEquals(0, in.available());
+                }
+            } finally {
+                fileSystem.close();
+            }
+        }
+    }
+
+    private VirtualFile mountDirect(final String path) throws IOException {
+        final VirtualFile jar = deployment.getChild(path);
+        final Closeable handle = NestedZipMounter.mountDirect(jar, jar, tempFileProvider);
+        assertNotNull(handle);
+        handles.add(handle);
+        return jar;
+    }
+
+    private static List<String> names(final List<VirtualFile> files) {
+        final List<String> names = new ArrayList<>();
+        for (VirtualFile file : files) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+
+    private static byte[] read(final VirtualFile file) throws IOException {
+        try (InputStream in = file.openStream()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            VFSUtils.copyStream(in, out);
+            return out.toByteArray();
+        }
+    }
+}
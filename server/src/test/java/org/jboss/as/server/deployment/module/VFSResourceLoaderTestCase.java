@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jboss.as.repository.PathUtil;
+import org.jboss.modules.ClassSpec;
+import org.jboss.modules.Resource;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link VFSResourceLoader}.
+ */
+public class VFSResourceLoaderTestCase {
+
+    private static final byte[] CLASS = "not really a class".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TEXT = "some text".getBytes(StandardCharsets.UTF_8);
+
+    private static final String[] LOOKUPS = {
+            "", "/", "org", "org/", "org/example", "/org/example/", "org/example/Example.class", "/org/example/Example.class",
+            "org/example/Missing.class", "org/example/nested/deep.txt", "implicit", "implicit/dir", "implicit/dir/file.txt",
+            "META-INF/MANIFEST.MF", "missing", "missing/dir/file.txt", "org/../org/example/Example.class", "org/exam",
+    };
+
+    private ScheduledExecutorService executor;
+    private TempFileProvider tempFileProvider;
+    private File jar;
+    private VirtualFile root;
+    private Closeable handle;
+
+    @Before
+    public void mountArchive() throws IOException {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        tempFileProvider = TempFileProvider.create("vfs-resource-loader-test", executor, true);
+        jar = File.createTempFile("vfs-resource-loader", ".jar");
+        Files.write(jar.toPath(), new ZipBuilder()
+                .deflated("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\n\r\n".getBytes(StandardCharsets.UTF_8))
+                .directory("org/")
+                .directory("org/example/")
+                .deflated("org/example/Example.class", CLASS)
+                .deflated("org/example/Other.class", CLASS)
+                .directory("org/example/nested/")
+                .stored("org/example/nested/deep.txt", TEXT)
+                // No directory entries for these
+                .stored("implicit/dir/file.txt", TEXT)
+                .stored("top.txt", TEXT)
+                .build());
+        root = VFS.getChild("loader-" + UUID.randomUUID()).getChild("test.jar");
+        handle = VFS.mountZip(jar, root, tempFileProvider);
+    }
+
+    @After
+    public void unmountArchive() {
+        VFSUtils.safeClose(handle);
+        VFSUtils.safeClose(tempFileProvider);
+        executor.shutdownNow();
+        jar.delete();
+    }
+
+    @Test
+    public void testIndexedLookupsMatchUnindexed() throws Exception {
+        final VFSResourceLoader indexed = new VFSResourceLoader("test.jar", root, false, null, true);
+        final VFSResourceLoader unindexed = new VFSResourceLoader("test.jar", root, false, null, false);
+
+        for (String name : LOOKUPS) {
+            assertEquals(name, describe(unindexed.getResource(name)), describe(indexed.getResource(name)));
+            if (name.endsWith(".class")) {
+                assertEquals(name, describe(unindexed.getClassSpec(name)), describe(indexed.getClassSpec(name)));
+            }
+        }
+        assertNotNull(indexed.getClassSpec("org/example/Example.class"));
+        assertNull(indexed.getClassSpec("org/example/Missing.class"));
+
+        assertEquals(new TreeSet<>(unindexed.getPaths()), new TreeSet<>(indexed.getPaths()));
+
+        for (String startPath : new String[] {"", "org", "org/example", "org/example/nested", "implicit", "implicit/dir", "missing"}) {
+            for (boolean recursive : new boolean[] {false, true}) {
+                final String description = startPath + (recursive ? " (recursive)" : "");
+                assertEquals(description, resources(unindexed.iterateResources(startPath, recursive)),
+                        resources(indexed.iterateResources(startPath, recursive)));
+            }
+        }
+        assertEquals(new TreeSet<>(Arrays.asList("org/example/Example.class", "org/example/Other.class",
+                "org/example/nested/deep.txt")), resources(indexed.iterateResources("org/example", true)).keySet());
+    }
+
+    @Test
+    public void testDirectoryRootIsNotIndexed() throws Exception {
+        final File dir = Files.createTempDirectory("vfs-resource-loader").toFile();
+        try {
+            final VFSResourceLoader loader = new VFSResourceLoader("dir", VFS.getChild(dir.toURI()), false, null, true);
+            assertNull(loader.getResource("added.txt"));
+            // The content of a directory root can change while it is in use
+            Files.write(new File(dir, "added.txt").toPath(), TEXT);
+            assertNotNull(loader.getResource("added.txt"));
+        } finally {
+            PathUtil.deleteRecursively(dir.toPath());
+        }
+    }
+
+    @Test
+    public void testLookupsAreRecorded() throws Exception {
+        final ClassLoadingMetrics metrics = new ClassLoadingMetrics("deployment.test.jar", 0);
+        final VFSResourceLoader loader = new VFSResourceLoader("test.jar", root, false, metrics, true);
+
+        assertArrayEquals(CLASS, loader.getClassSpec("org/example/Example.class").getBytes());
+        assertArrayEquals(CLASS, loader.getClassSpec("org/example/Other.class").getBytes());
+        assertNull(loader.getClassSpec("org/example/Missing.class"));
+        assertEquals(2L, metrics.getLoadedClasses());
+        assertTrue(metrics.getClassLoadTime() > 0);
+        assertEquals(1L, metrics.getClassLookupMisses());
+
+        assertNotNull(loader.getResource("org/example/nested/deep.txt"));
+        assertNull(loader.getResource("org/example/nested/missing.txt"));
+        assertNull(loader.getResource("org/example/missing.txt"));
+        assertEquals(3L, metrics.getResourceLookups());
+        assertEquals(2L, metrics.getResourceLookupMisses());
+
+        final Map<String, Long> missed = metrics.getMostMissedPaths(10);
+        assertEquals(2, missed.size());
+        assertEquals(Long.valueOf(2L), missed.get("org/example"));
+        assertEquals(Long.valueOf(1L), missed.get("org/example/nested"));
+    }
+
+    private static String describe(final Resource resource) throws IOException {
+        if (resource == null) {
+            return null;
+        }
+        return resource.getName() + ":" + resource.getSize();
+    }
+
+    private static String describe(final ClassSpec spec) {
+        return spec == null ? null : new String(spec.getBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> resources(final Iterator<Resource> iterator) throws IOException {
+        final Map<String, String> resources = new TreeMap<>();
+        while (iterator.hasNext()) {
+            final Resource resource = iterator.next();
+            resources.put(resource.getName(), new String(read(resource), StandardCharsets.UTF_8));
+        }
+        return resources;
+    }
+
+    private static byte[] read(final Resource resource) throws IOException {
+        try (InputStream in = resource.openStream()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            VFSUtils.copyStream(in, out);
+            return out.toByteArray();
+        }
+    }
+}
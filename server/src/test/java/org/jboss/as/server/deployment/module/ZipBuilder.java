@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds zip archives in memory for the nested archive tests.
+ */
+final class ZipBuilder {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final ZipOutputStream out = new ZipOutputStream(bytes);
+
+    ZipBuilder stored(final String name, final byte[] content) {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setCrc(crc.getValue());
+        return add(entry, content);
+    }
+
+    ZipBuilder deflated(final String name, final byte[] content) {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.DEFLATED);
+        return add(entry, content);
+    }
+
+    ZipBuilder directory(final String name) {
+        return stored(name.endsWith("/") ? name : name + "/", new byte[0]);
+    }
+
+    ZipBuilder add(final ZipEntry entry, final byte[] content) {
+        try {
+            out.putNextEntry(entry);
+            out.write(content);
+            out.closeEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    ZipBuilder comment(final String comment) {
+        out.setComment(comment);
+        return this;
+    }
+
+    byte[] build() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * An archive with more entries than a plain central directory can count, so the JDK writes a Zip64 end record.
+     */
+    static byte[] zip64() {
+        final ZipBuilder builder = new ZipBuilder();
+        for (int i = 0; i <= 0xFFFF; i++) {
+            builder.stored("e" + i, new byte[0]);
+        }
+        return builder.build();
+    }
+
+    /** Content that compresses well, so deflated entries are much smaller than their size */
+    static byte[] text(final int size) {
+        final byte[] text = new byte[size];
+        for (int i = 0; i < size; i++) {
+            text[i] = (byte) ('a' + i % 7);
+        }
+        return text;
+    }
+}
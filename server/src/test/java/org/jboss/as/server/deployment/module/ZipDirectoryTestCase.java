@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ZipDirectory}.
+ */
+public class ZipDirectoryTestCase {
+
+    private static final byte[] STORED = "stored content".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DEFLATED = ZipBuilder.text(10000);
+    private static final int PREFIX = 123;
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("zip-directory", ".bin");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void testReadArchiveAtOffset() throws Exception {
+        final byte[] zip = new ZipBuilder()
+                .stored("a.txt", STORED)
+                .directory("b")
+                .deflated("b/c.txt", DEFLATED)
+                .comment("an archive comment")
+                .build();
+        // The archive is in the middle of the file, as a nested archive is within its outer archive
+        write(new byte[PREFIX], zip, new byte[50]);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final ZipDirectory directory = ZipDirectory.read(raf, PREFIX, zip.length);
+            assertNotNull(directory);
+            final List<String> names = new ArrayList<>();
+            for (ZipDirectory.Entry entry : directory.getEntries()) {
+                names.add(entry.name);
+            }
+            assertEquals(Arrays.asList("a.txt", "b/", "b/c.txt"), names);
+
+            final ZipDirectory.Entry stored = directory.getEntry("a.txt");
+            assertEquals(ZipDirectory.STORED, stored.method);
+            assertEquals(STORED.length, stored.size);
+            assertEquals(STORED.length, stored.compressedSize);
+            assertFalse(stored.isDirectory());
+            assertArrayEquals(STORED, readData(raf, ZipDirectory.getDataOffset(raf, PREFIX, stored), stored.compressedSize));
+
+            assertTrue(directory.getEntry("b/").isDirectory());
+
+            final ZipDirectory.Entry deflated = directory.getEntry("b/c.txt");
+            assertEquals(ZipDirectory.DEFLATED, deflated.method);
+            assertEquals(DEFLATED.length, deflated.size);
+            assertTrue(deflated.compressedSize < deflated.size);
+            assertTrue(ZipDirectory.getDataOffset(raf, PREFIX, deflated) > PREFIX);
+
+            assertNull(directory.getEntry("missing"));
+        }
+    }
+
+    @Test
+    public void testLastModified() throws Exception {
+        // Zip times have a two second resolution
+        final long time = (System.currentTimeMillis() / 2000) * 2000;
+        final ZipEntry entry = new ZipEntry("a.txt");
+        entry.setTime(time);
+        write(new ZipBuilder().add(entry, STORED).build());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            assertEquals(time, ZipDirectory.read(raf, 0, file.length()).getEntry("a.txt").getLastModified());
+        }
+    }
+
+    @Test
+    public void testZip64IsNotSupported() throws Exception {
+        write(ZipBuilder.zip64());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            assertNull(ZipDirectory.read(raf, 0, file.length()));
+        }
+    }
+
+    @Test
+    public void testInvalidArchives() throws Exception {
+        final byte[] zip = new ZipBuilder().stored("a.txt", STORED).build();
+        write(zip);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            // Too short to hold an end record
+            assertNull(ZipDirectory.read(raf, 0, 10));
+            // Truncated, so the end record is missing
+            assertNull(ZipDirectory.read(raf, 0, zip.length - 1));
+            // The end record points outside the archive
+            assertNull(ZipDirectory.read(raf, 1, zip.length - 1));
+        }
+        write(ZipBuilder.text(1000));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            assertNull(ZipDirectory.read(raf, 0, file.length()));
+        }
+    }
+
+    @Test
+    public void testReadPastEnd() throws Exception {
+        write(STORED);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final byte[] b = new byte[100];
+            assertEquals(4, ZipDirectory.read(raf, STORED.length - 4, b, 10, 100 - 10));
+            assertEquals('t', b[13]);
+            assertEquals(-1, ZipDirectory.read(raf, STORED.length, b, 0, b.length));
+        }
+    }
+
+    private void write(final byte[]... parts) throws IOException {
+        final List<byte[]> list = Arrays.asList(parts);
+        int length = 0;
+        for (byte[] part : list) {
+            length += part.length;
+        }
+        final byte[] bytes = new byte[length];
+        int pos = 0;
+        for (byte[] part : list) {
+            System.arraycopy(part, 0, bytes, pos, part.length);
+            pos += part.length;
+        }
+        Files.write(file.toPath(), bytes);
+    }
+
+    private static byte[] readData(final RandomAccessFile raf, final long position, final long length) throws IOException {
+        final byte[] data = new byte[(int) length];
+        raf.seek(position);
+        raf.readFully(data);
+        return data;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.suspend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SuspendControllerTestCase {
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService executor;
+    private SuspendController controller;
+
+    @Before
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        controller = new SuspendController();
+        controller.getExecutorInjector().inject(executor);
+        controller.resume();
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testExecutionGroupOrder() {
+        TestActivity late = new TestActivity("late", 20);
+        TestActivity first = new TestActivity("first", 10);
+        TestActivity second = new TestActivity("second", 10);
+        TestActivity early = new TestActivity("early", 1);
+        controller.registerActivity(late);
+        controller.registerActivity(first);
+        controller.registerActivity(second);
+        controller.registerActivity(early);
+
+        controller.suspend(-1);
+        Assert.assertEquals(SuspendController.State.PRE_SUSPEND, controller.getState());
+        Assert.assertEquals(Collections.singletonList("pre early"), calls);
+
+        early.preSuspended.done();
+        waitForCalls(3);
+        Assert.assertTrue(calls.containsAll(Arrays.asList("pre first", "pre second")));
+        first.preSuspended.done();
+        Assert.assertEquals(3, calls.size());
+        second.preSuspended.done();
+        waitForCalls(4);
+        Assert.assertEquals("pre late", calls.get(3));
+        late.preSuspended.done();
+
+        // Only once every group has completed pre-suspend are they suspended, again in group order
+        waitForCalls(5);
+        Assert.assertEquals(SuspendController.State.SUSPENDING, controller.getState());
+        Assert.assertEquals("suspended early", calls.get(4));
+        early.suspended.done();
+        waitForCalls(7);
+        first.suspended.done();
+        second.suspended.done();
+        waitForCalls(8);
+        Assert.assertEquals("suspended late", calls.get(7));
+
+        SuspendProgress progress = controller.getSuspendProgress();
+        Assert.assertEquals(3, progress.getSuspendedActivityCount());
+        Assert.assertEquals(Arrays.asList(1, 10, 10, 20), executionGroups(progress));
+        late.suspended.done();
+        Assert.assertEquals(SuspendController.State.SUSPENDED, controller.getState());
+        Assert.assertEquals(4, controller.getSuspendProgress().getSuspendedActivityCount());
+
+        controller.resume();
+        Assert.assertNull(controller.getSuspendProgress());
+    }
+
+    @Test
+    public void testResumeIgnoresCancelledSuspend() {
+        TestActivity activity = new TestActivity("activity", ServerActivity.DEFAULT_EXECUTION_GROUP);
+        controller.registerActivity(activity);
+        controller.suspend(-1);
+        controller.resume();
+        Assert.assertEquals(Arrays.asList("pre activity", "resume activity"), calls);
+
+        // A late callback from the cancelled suspend must not start suspending the activity
+        activity.preSuspended.done();
+        Assert.assertEquals(SuspendController.State.RUNNING, controller.getState());
+        Assert.assertEquals(2, calls.size());
+    }
+
+    private void waitForCalls(int count) {
+        long end = System.currentTimeMillis() + 10000;
+        while (calls.size() < count) {
+            Assert.assertTrue("Expected " + count + " calls but got " + calls, System.currentTimeMillis() < end);
+            Thread.yield();
+        }
+    }
+
+    private static List<Integer> executionGroups(SuspendProgress progress) {
+        List<Integer> groups = new ArrayList<>();
+        for (SuspendProgress.ActivityProgress activity : progress.getActivities()) {
+            groups.add(activity.getExecutionGroup());
+        }
+        return groups;
+    }
+
+    private class TestActivity implements ServerActivity {
+        private final String name;
+        private final int executionGroup;
+        volatile ServerActivityCallback preSuspended;
+        volatile ServerActivityCallback suspended;
+
+        TestActivity(String name, int executionGroup) {
+            this.name = name;
+            this.executionGroup = executionGroup;
+        }
+
+        @Override
+        public void preSuspend(ServerActivityCallback listener) {
+            preSuspended = listener;
+            calls.add("pre " + name);
+        }
+
+        @Override
+        public void suspended(ServerActivityCallback listener) {
+            suspended = listener;
+            calls.add("suspended " + name);
+        }
+
+        @Override
+        public void resume() {
+            calls.add("resume " + name);
+        }
+
+        @Override
+        public int getExecutionGroup() {
+            return executionGroup;
+        }
+    }
+}
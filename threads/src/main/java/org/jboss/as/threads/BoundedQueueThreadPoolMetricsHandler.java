@@ -41,7 +41,9 @@ public class BoundedQueueThreadPoolMetricsHandler extends ThreadPoolMetricsHandl
 
     public static final List<AttributeDefinition> METRICS = Arrays.asList(PoolAttributeDefinitions.CURRENT_THREAD_COUNT,
             PoolAttributeDefinitions.LARGEST_THREAD_COUNT, PoolAttributeDefinitions.REJECTED_COUNT,
-            PoolAttributeDefinitions.QUEUE_SIZE);
+            PoolAttributeDefinitions.QUEUE_SIZE,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME, PoolAttributeDefinitions.QUEUE_WAIT_TIME_HISTOGRAM,
+            PoolAttributeDefinitions.EXECUTION_TIME, PoolAttributeDefinitions.EXECUTION_TIME_HISTOGRAM);
 
     public BoundedQueueThreadPoolMetricsHandler(final ServiceName serviceNameBase) {
         super(METRICS, serviceNameBase);
@@ -35,9 +35,13 @@ public interface CommonAttributes {
     String CORE_THREADS = "core-threads";
     String COUNT = "count";
     String CURRENT_THREAD_COUNT = "current-thread-count";
+    String EXECUTION_TIME = "execution-time";
+    String EXECUTION_TIME_HISTOGRAM = "execution-time-histogram";
     String PER_CPU = "per-cpu";
     String HANDOFF_EXECUTOR = "handoff-executor";
     String LARGEST_THREAD_COUNT = "largest-thread-count";
+    String MAX_CONCURRENCY = "max-concurrency";
+    String MAX_TIME = "max-time";
     String NAME = "name";
     String GROUP_NAME = "group-name";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -48,9 +52,13 @@ public interface CommonAttributes {
     String QUEUELESS_THREAD_POOL = "queueless-thread-pool";
     String QUEUE_LENGTH = "queue-length";
     String QUEUE_SIZE = "queue-size";
+    String QUEUE_WAIT_TIME = "queue-wait-time";
+    String QUEUE_WAIT_TIME_HISTOGRAM = "queue-wait-time-histogram";
     String REJECTED_COUNT = "rejected-count";
     String SCHEDULED_THREAD_POOL = "scheduled-thread-pool";
+    String STEAL_COUNT = "steal-count";
     String TASK_COUNT = "task-count";
+    String TASKS = "tasks";
     String THREADS = "threads";
     String TIME = "time";
     String THREAD_FACTORY = "thread-factory";
@@ -58,4 +66,7 @@ public interface CommonAttributes {
     String UNBOUNDED_QUEUE_THREAD_POOL = "unbounded-queue-thread-pool";
     String UNIT = "unit";
     String VALUE = "value";
+    String VIRTUAL = "virtual";
+    String VIRTUAL_THREAD_EXECUTOR = "virtual-thread-executor";
+    String WORK_STEALING_THREAD_POOL = "work-stealing-thread-pool";
 }
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The thread factory provided by a {@link ThreadFactoryService}. Besides creating threads it keeps their
+ * configuration, so threads that have to be created some other way, such as the workers of a
+ * {@link java.util.concurrent.ForkJoinPool}, can be named and prioritized the same way.
+ */
+final class ConfiguredThreadFactory implements ThreadFactory {
+
+    private static final String DEFAULT_NAME_PATTERN = "pool-%f-thread-%t";
+    private static final AtomicInteger factorySequence = new AtomicInteger();
+    private static final AtomicLong globalThreadSequence = new AtomicLong();
+
+    private final ThreadFactory delegate;
+    private final ThreadGroup threadGroup;
+    private final Integer priority;
+    private final String namePattern;
+    private final int factoryId = factorySequence.incrementAndGet();
+    private final AtomicLong threadSequence = new AtomicLong();
+
+    ConfiguredThreadFactory(final ThreadFactory delegate, final ThreadGroup threadGroup, final Integer priority, final String namePattern) {
+        this.delegate = delegate;
+        this.threadGroup = threadGroup;
+        this.priority = priority;
+        this.namePattern = namePattern == null ? DEFAULT_NAME_PATTERN : namePattern;
+    }
+
+    @Override
+    public Thread newThread(final Runnable r) {
+        return delegate.newThread(r);
+    }
+
+    /**
+     * Gives a thread that was not created by this factory the name, priority and daemon status of the threads this
+     * factory creates. The thread keeps the thread group it was created in.
+     *
+     * @param thread the thread, which must not have been started yet
+     */
+    void configure(final Thread thread) {
+        thread.setName(formatName(thread));
+        if (priority != null) {
+            thread.setPriority(priority.intValue());
+        }
+        thread.setDaemon(false);
+    }
+
+    String formatName(final Thread thread) {
+        final ThreadGroup group = threadGroup == null ? thread.getThreadGroup() : threadGroup;
+        final StringBuilder builder = new StringBuilder(namePattern.length() + 16);
+        for (int i = 0; i < namePattern.length(); i++) {
+            final char c = namePattern.charAt(i);
+            if (c != '%' || ++i == namePattern.length()) {
+                if (c != '%') {
+                    builder.append(c);
+                }
+                continue;
+            }
+            switch (namePattern.charAt(i)) {
+                case '%':
+                    builder.append('%');
+                    break;
+                case 't':
+                    builder.append(threadSequence.incrementAndGet());
+                    break;
+                case 'g':
+                    builder.append(globalThreadSequence.incrementAndGet());
+                    break;
+                case 'f':
+                    builder.append(factoryId);
+                    break;
+                case 'i':
+                    builder.append(thread.getId());
+                    break;
+                case 'G':
+                    builder.append(group == null ? "" : group.getName());
+                    break;
+                case 'p':
+                    appendGroupPath(builder, group);
+                    break;
+                default:
+                    // not a known specifier, leave it out
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void appendGroupPath(final StringBuilder builder, final ThreadGroup group) {
+        if (group == null) {
+            return;
+        }
+        final ThreadGroup parent = group.getParent();
+        if (parent != null) {
+            appendGroupPath(builder, parent);
+            builder.append(':');
+        }
+        builder.append(group.getName());
+    }
+}
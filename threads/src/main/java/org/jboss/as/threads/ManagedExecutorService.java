@@ -28,6 +28,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -41,6 +42,7 @@ import org.wildfly.common.Assert;
 public abstract class ManagedExecutorService implements ExecutorService {
 
     private final ExecutorService executor;
+    private final TaskMetrics taskMetrics = new TaskMetrics();
 
     public ManagedExecutorService(ExecutorService executor) {
         Assert.checkNotNullParam("executor", executor);
@@ -53,13 +55,29 @@ public abstract class ManagedExecutorService implements ExecutorService {
 
     abstract void internalShutdown();
 
+    TaskMetrics getTaskMetrics() {
+        return taskMetrics;
+    }
+
+    /**
+     * Counts a rejection of a task by the underlying executor before rethrowing it.
+     */
+    RejectedExecutionException rejected(RejectedExecutionException e) {
+        taskMetrics.rejected();
+        return e;
+    }
+
     /**
      * {@inheritDoc}
      * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
      */
     @Override
     public void execute(Runnable command) {
-        this.executor.execute(command);
+        try {
+            this.executor.execute(taskMetrics.wrap(command));
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     /**
@@ -114,7 +132,11 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return this.executor.submit(task);
+        try {
+            return this.executor.submit(taskMetrics.wrap(task));
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     /**
@@ -123,7 +145,11 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return this.executor.submit(task, result);
+        try {
+            return this.executor.submit(taskMetrics.wrap(task), result);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     /**
@@ -132,7 +158,11 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public Future<?> submit(Runnable task) {
-        return this.executor.submit(task);
+        try {
+            return this.executor.submit(taskMetrics.wrap(task));
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     /**
@@ -141,7 +171,11 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-        return this.executor.invokeAll(tasks);
+        try {
+            return this.executor.invokeAll(taskMetrics.wrap(tasks));
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     /**
@@ -150,7 +184,11 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-        return this.executor.invokeAll(tasks, timeout, unit);
+        try {
+            return this.executor.invokeAll(taskMetrics.wrap(tasks), timeout, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     /**
@@ -159,7 +197,11 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
-        return this.executor.invokeAny(tasks);
+        try {
+            return this.executor.invokeAny(taskMetrics.wrap(tasks));
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     /**
@@ -168,6 +210,10 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return this.executor.invokeAny(tasks, timeout, unit);
+        try {
+            return this.executor.invokeAny(taskMetrics.wrap(tasks), timeout, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 }
@@ -23,6 +23,7 @@ package org.jboss.as.threads;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -55,22 +56,40 @@ public class ManagedScheduledExecutorService extends ManagedExecutorService impl
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-       return executor.schedule(command, delay, unit);
+        try {
+            return executor.schedule(getTaskMetrics().wrap(command, unit.toNanos(delay), 0L), delay, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-       return executor.schedule(callable, delay, unit);
+        try {
+            return executor.schedule(getTaskMetrics().wrap(callable, unit.toNanos(delay)), delay, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-       return executor.scheduleAtFixedRate(command, initialDelay, period, unit);
+        try {
+            return executor.scheduleAtFixedRate(getTaskMetrics().wrap(command, unit.toNanos(initialDelay), unit.toNanos(period)),
+                    initialDelay, period, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-       return executor.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+        try {
+            return executor.scheduleWithFixedDelay(getTaskMetrics().wrap(command, unit.toNanos(initialDelay), -unit.toNanos(delay)),
+                    initialDelay, delay, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
     }
 
    public int getActiveCount() {
@@ -96,4 +115,8 @@ public class ManagedScheduledExecutorService extends ManagedExecutorService impl
     public int getQueueSize() {
         return executor.getQueue().size();
     }
+
+    public long getRejectedCount() {
+        return getTaskMetrics().getRejectedCount();
+    }
 }
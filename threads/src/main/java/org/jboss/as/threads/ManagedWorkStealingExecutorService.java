@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A managed executor backed by a work-stealing {@link ForkJoinPool}.
+ */
+public class ManagedWorkStealingExecutorService extends ManagedExecutorService {
+
+    private final ForkJoinPool executor;
+
+    public ManagedWorkStealingExecutorService(ForkJoinPool executor) {
+        super(executor);
+        this.executor = executor;
+    }
+
+    @Override
+    void internalShutdown() {
+        executor.shutdown();
+    }
+
+    boolean isInternallyTerminated() {
+        return executor.isTerminated();
+    }
+
+    boolean awaitInternalTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    public int getMaxThreads() {
+        return executor.getParallelism();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveThreadCount();
+    }
+
+    public int getCurrentThreadCount() {
+        return executor.getPoolSize();
+    }
+
+    public long getCompletedTaskCount() {
+        return getTaskMetrics().getCompletedCount();
+    }
+
+    public int getQueueSize() {
+        return (int) Math.min(Integer.MAX_VALUE, executor.getQueuedSubmissionCount() + executor.getQueuedTaskCount());
+    }
+
+    public long getStealCount() {
+        return executor.getStealCount();
+    }
+
+    public long getRejectedCount() {
+        return getTaskMetrics().getRejectedCount();
+    }
+}
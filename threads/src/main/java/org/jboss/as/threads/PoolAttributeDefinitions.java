@@ -23,8 +23,11 @@ package org.jboss.as.threads;
 
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.dmr.ModelNode;
@@ -76,6 +79,11 @@ public interface PoolAttributeDefinitions {
             .setAllowExpression(true)
             .build();
 
+    SimpleAttributeDefinition MAX_CONCURRENCY = new SimpleAttributeDefinitionBuilder(CommonAttributes.MAX_CONCURRENCY, ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+            .setAllowExpression(true)
+            .build();
+
     // Metrics
     AttributeDefinition CURRENT_THREAD_COUNT = new SimpleAttributeDefinitionBuilder(CommonAttributes.CURRENT_THREAD_COUNT, ModelType.INT)
             .setUndefinedMetricValue(new ModelNode(0))
@@ -98,4 +106,34 @@ public interface PoolAttributeDefinitions {
     AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_SIZE, ModelType.INT)
             .setUndefinedMetricValue(new ModelNode(0))
             .build();
+    AttributeDefinition VIRTUAL = new SimpleAttributeDefinitionBuilder(CommonAttributes.VIRTUAL, ModelType.BOOLEAN)
+            .setUndefinedMetricValue(new ModelNode(false))
+            .build();
+    AttributeDefinition STEAL_COUNT = new SimpleAttributeDefinitionBuilder(CommonAttributes.STEAL_COUNT, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .build();
+    AttributeDefinition QUEUE_WAIT_TIME = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_WAIT_TIME, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    AttributeDefinition EXECUTION_TIME = new SimpleAttributeDefinitionBuilder(CommonAttributes.EXECUTION_TIME, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    // Buckets of the time histograms; the last bucket has no max-time
+    SimpleAttributeDefinition MAX_TIME = new SimpleAttributeDefinitionBuilder(CommonAttributes.MAX_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+    SimpleAttributeDefinition TASKS = new SimpleAttributeDefinitionBuilder(CommonAttributes.TASKS, ModelType.LONG, false)
+            .build();
+    AttributeDefinition QUEUE_WAIT_TIME_HISTOGRAM = ObjectListAttributeDefinition.Builder.of(CommonAttributes.QUEUE_WAIT_TIME_HISTOGRAM,
+            ObjectTypeAttributeDefinition.Builder.of(CommonAttributes.QUEUE_WAIT_TIME_HISTOGRAM, MAX_TIME, TASKS).build())
+            .setRequired(false)
+            .setStorageRuntime()
+            .build();
+    AttributeDefinition EXECUTION_TIME_HISTOGRAM = ObjectListAttributeDefinition.Builder.of(CommonAttributes.EXECUTION_TIME_HISTOGRAM,
+            ObjectTypeAttributeDefinition.Builder.of(CommonAttributes.EXECUTION_TIME_HISTOGRAM, MAX_TIME, TASKS).build())
+            .setRequired(false)
+            .setStorageRuntime()
+            .build();
 }
@@ -41,7 +41,9 @@ public class ScheduledThreadPoolMetricsHandler extends ThreadPoolMetricsHandler
     public static final List<AttributeDefinition> METRICS = Arrays.asList(PoolAttributeDefinitions.ACTIVE_COUNT,
             PoolAttributeDefinitions.COMPLETED_TASK_COUNT, PoolAttributeDefinitions.CURRENT_THREAD_COUNT,
             PoolAttributeDefinitions.LARGEST_THREAD_COUNT, PoolAttributeDefinitions.TASK_COUNT,
-            PoolAttributeDefinitions.QUEUE_SIZE);
+            PoolAttributeDefinitions.QUEUE_SIZE, PoolAttributeDefinitions.REJECTED_COUNT,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME, PoolAttributeDefinitions.QUEUE_WAIT_TIME_HISTOGRAM,
+            PoolAttributeDefinitions.EXECUTION_TIME, PoolAttributeDefinitions.EXECUTION_TIME_HISTOGRAM);
 
     public ScheduledThreadPoolMetricsHandler(final ServiceName serviceNameBase) {
         super(METRICS, serviceNameBase);
@@ -63,6 +65,8 @@ public class ScheduledThreadPoolMetricsHandler extends ThreadPoolMetricsHandler
             context.getResult().set(pool.getTaskCount());
         } else if (attributeName.equals(CommonAttributes.QUEUE_SIZE)) {
             context.getResult().set(pool.getQueueSize());
+        } else if (attributeName.equals(CommonAttributes.REJECTED_COUNT)) {
+            context.getResult().set(pool.getRejectedCount());
         } else {
             // Programming bug. Throw a RuntimeException, not OFE, as this is not a client error
             throw ThreadsLogger.ROOT_LOGGER.unsupportedScheduledThreadPoolMetric(attributeName);
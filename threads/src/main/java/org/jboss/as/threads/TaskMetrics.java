@@ -0,0 +1,240 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings of the tasks run by a managed executor, which tell whether the latency of a task comes from waiting for a
+ * thread of the pool or from the task itself. A task's queue wait time is the time from when it was submitted, or
+ * from when it was scheduled to run, until it started running. All times are in nanoseconds.
+ */
+final class TaskMetrics {
+
+    /**
+     * The upper bounds in milliseconds of the buckets of the time histograms. The last bucket has no bound.
+     */
+    static final long[] TIME_BUCKETS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+
+    private static final long[] TIME_BUCKET_NANOS = new long[TIME_BUCKETS.length];
+
+    static {
+        for (int i = 0; i < TIME_BUCKETS.length; i++) {
+            TIME_BUCKET_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(TIME_BUCKETS[i]);
+        }
+    }
+
+    private final LongAdder queueWaitTime = new LongAdder();
+    private final LongAdder executionTime = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder[] queueWaitTimeHistogram = newHistogram();
+    private final LongAdder[] executionTimeHistogram = newHistogram();
+
+    private static LongAdder[] newHistogram() {
+        final LongAdder[] histogram = new LongAdder[TIME_BUCKETS.length + 1];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+        return histogram;
+    }
+
+    private static void record(final LongAdder[] histogram, final long time) {
+        histogram[bucket(time)].increment();
+    }
+
+    /**
+     * @return the index of the histogram bucket of a time in nanoseconds
+     */
+    static int bucket(final long time) {
+        int bucket = 0;
+        while (bucket < TIME_BUCKET_NANOS.length && time > TIME_BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Wraps a task submitted to run as soon as possible.
+     */
+    Runnable wrap(final Runnable task) {
+        return new TimedRunnable(task, System.nanoTime(), 0L);
+    }
+
+    /**
+     * Wraps a task scheduled to run after a delay and, if {@code period} isn't {@code 0}, periodically after that.
+     *
+     * @param period the period in nanoseconds; positive for a fixed rate, negative for a fixed delay between runs
+     */
+    Runnable wrap(final Runnable task, final long delay, final long period) {
+        return new TimedRunnable(task, System.nanoTime() + Math.max(0L, delay), period);
+    }
+
+    <T> Callable<T> wrap(final Callable<T> task) {
+        return wrap(task, 0L);
+    }
+
+    <T> Callable<T> wrap(final Callable<T> task, final long delay) {
+        return new TimedCallable<>(task, System.nanoTime() + Math.max(0L, delay));
+    }
+
+    <T> List<Callable<T>> wrap(final Collection<? extends Callable<T>> tasks) {
+        final List<Callable<T>> result = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            result.add(wrap(task));
+        }
+        return result;
+    }
+
+    void rejected() {
+        rejectedCount.increment();
+    }
+
+    private long started(final long expectedStart) {
+        final long start = System.nanoTime();
+        final long wait = Math.max(0L, start - expectedStart);
+        queueWaitTime.add(wait);
+        record(queueWaitTimeHistogram, wait);
+        return start;
+    }
+
+    private long finished(final long start) {
+        final long end = System.nanoTime();
+        executionTime.add(end - start);
+        record(executionTimeHistogram, end - start);
+        return end;
+    }
+
+    long getQueueWaitTime() {
+        return queueWaitTime.sum();
+    }
+
+    long getExecutionTime() {
+        return executionTime.sum();
+    }
+
+    /**
+     * Gets the number of tasks rejected by the executor; this does not include tasks discarded or handed off without
+     * the submitter being told.
+     */
+    long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Gets the number of task runs that have completed, whether normally or not.
+     */
+    long getCompletedCount() {
+        long count = 0;
+        for (LongAdder bucket : executionTimeHistogram) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of tasks that waited for up to each of the {@link #TIME_BUCKETS}, followed by the number
+     * that waited for longer
+     */
+    long[] getQueueWaitTimeHistogram() {
+        return sum(queueWaitTimeHistogram);
+    }
+
+    /**
+     * @return the number of tasks that ran for up to each of the {@link #TIME_BUCKETS}, followed by the number that
+     * ran for longer
+     */
+    long[] getExecutionTimeHistogram() {
+        return sum(executionTimeHistogram);
+    }
+
+    private static long[] sum(final LongAdder[] histogram) {
+        final long[] result = new long[histogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            result[i] = histogram[i].sum();
+        }
+        return result;
+    }
+
+    private final class TimedRunnable implements Runnable {
+        private final Runnable task;
+        private final long period;
+        /** Only accessed by the thread running the task; periodic runs of a task never overlap */
+        private long expectedStart;
+
+        TimedRunnable(final Runnable task, final long expectedStart, final long period) {
+            this.task = task;
+            this.expectedStart = expectedStart;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            final long start = started(expectedStart);
+            try {
+                task.run();
+            } finally {
+                final long end = finished(start);
+                if (period > 0) {
+                    expectedStart += period;
+                } else if (period < 0) {
+                    expectedStart = end - period;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    private final class TimedCallable<T> implements Callable<T> {
+        private final Callable<T> task;
+        private final long expectedStart;
+
+        TimedCallable(final Callable<T> task, final long expectedStart) {
+            this.task = task;
+            this.expectedStart = expectedStart;
+        }
+
+        @Override
+        public T call() throws Exception {
+            final long start = started(expectedStart);
+            try {
+                return task.call();
+            } finally {
+                finished(start);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+}
@@ -67,11 +67,12 @@ public final class ThreadFactoryService implements Service<ThreadFactory> {
 
     public synchronized void start(final StartContext context) throws StartException {
         final ThreadGroup threadGroup = (threadGroupName != null) ? new ThreadGroup(threadGroupName) : null;
-        value = doPrivileged(new PrivilegedAction<ThreadFactory>() {
+        final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<ThreadFactory>() {
             public ThreadFactory run() {
                 return new JBossThreadFactory(threadGroup, Boolean.FALSE, priority, namePattern, null, null);
             }
         });
+        value = new ConfiguredThreadFactory(threadFactory, threadGroup, priority, namePattern);
     }
 
     public synchronized void stop(final StopContext context) {
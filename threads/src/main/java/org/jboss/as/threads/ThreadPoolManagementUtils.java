@@ -158,6 +158,20 @@ class ThreadPoolManagementUtils {
         return params;
     }
 
+    static BaseThreadPoolParameters parseWorkStealingThreadPoolParameters(final OperationContext context, final ModelNode operation, final ModelNode model) throws OperationFailedException {
+        ThreadPoolParametersImpl params = new ThreadPoolParametersImpl();
+        return parseBaseThreadPoolOperationParameters(context, operation, model, params);
+    }
+
+    static VirtualThreadExecutorParameters parseVirtualThreadExecutorParameters(final OperationContext context, final ModelNode operation, final ModelNode model) throws OperationFailedException {
+        VirtualThreadExecutorParametersImpl params = new VirtualThreadExecutorParametersImpl();
+        params.name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        ModelNode tfNode = PoolAttributeDefinitions.THREAD_FACTORY.resolveModelAttribute(context, model);
+        params.threadFactory = tfNode.isDefined() ? tfNode.asString() : null;
+        ModelNode maxConcurrency = PoolAttributeDefinitions.MAX_CONCURRENCY.resolveModelAttribute(context, model);
+        params.maxConcurrency = maxConcurrency.isDefined() ? maxConcurrency.asInt() : 0;
+        return params;
+    }
 
     private static ThreadPoolParametersImpl parseBaseThreadPoolOperationParameters(final OperationContext context, final ModelNode operation,
                                                                                    final ModelNode model, final ThreadPoolParametersImpl params) throws OperationFailedException {
@@ -209,6 +223,15 @@ class ThreadPoolManagementUtils {
         int getQueueLength();
     }
 
+    interface VirtualThreadExecutorParameters {
+        String getName();
+
+        String getThreadFactory();
+
+        /** The maximum number of tasks running at once, or {@code 0} for no limit */
+        int getMaxConcurrency();
+    }
+
     private static class ThreadPoolParametersImpl implements QueuelessThreadPoolParameters, BoundedThreadPoolParameters {
         ModelNode address;
         String name;
@@ -266,4 +289,24 @@ class ThreadPoolManagementUtils {
         }
     }
 
+    private static class VirtualThreadExecutorParametersImpl implements VirtualThreadExecutorParameters {
+        String name;
+        String threadFactory;
+        int maxConcurrency;
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getThreadFactory() {
+            return threadFactory;
+        }
+
+        @Override
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+    }
 }
@@ -23,7 +23,9 @@ package org.jboss.as.threads;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -45,6 +47,14 @@ import org.jboss.msc.service.ServiceName;
  */
 public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandler {
 
+    /**
+     * Task timing metrics, which are handled by this class for any pool whose service value is a
+     * {@link ManagedExecutorService}.
+     */
+    public static final List<AttributeDefinition> TASK_TIME_METRICS = Arrays.asList(PoolAttributeDefinitions.QUEUE_WAIT_TIME,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME_HISTOGRAM, PoolAttributeDefinitions.EXECUTION_TIME,
+            PoolAttributeDefinitions.EXECUTION_TIME_HISTOGRAM);
+
     private final List<AttributeDefinition> metrics;
     private final ServiceName serviceNameBase;
 
@@ -65,7 +75,9 @@ public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandle
         if (context.getRunningMode() == RunningMode.NORMAL) {
             ServiceController<?> serviceController = getService(context, operation);
             final Service<?> service = serviceController.getService();
-            setResult(context, attributeName, service);
+            if (!setTaskTimeResult(context, attributeName, service)) {
+                setResult(context, attributeName, service);
+            }
         }
 
         context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
@@ -73,6 +85,48 @@ public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandle
 
     protected abstract void setResult(OperationContext context, String attributeName, Service<?> service) throws OperationFailedException;
 
+    private boolean setTaskTimeResult(OperationContext context, String attributeName, Service<?> service) {
+        if (!isTaskTimeMetric(attributeName)) {
+            return false;
+        }
+        final Object value = service.getValue();
+        if (!(value instanceof ManagedExecutorService)) {
+            return false;
+        }
+        final TaskMetrics metrics = ((ManagedExecutorService) value).getTaskMetrics();
+        final ModelNode result = context.getResult();
+        if (attributeName.equals(CommonAttributes.QUEUE_WAIT_TIME)) {
+            result.set(TimeUnit.NANOSECONDS.toMillis(metrics.getQueueWaitTime()));
+        } else if (attributeName.equals(CommonAttributes.EXECUTION_TIME)) {
+            result.set(TimeUnit.NANOSECONDS.toMillis(metrics.getExecutionTime()));
+        } else if (attributeName.equals(CommonAttributes.QUEUE_WAIT_TIME_HISTOGRAM)) {
+            setHistogram(result, metrics.getQueueWaitTimeHistogram());
+        } else {
+            setHistogram(result, metrics.getExecutionTimeHistogram());
+        }
+        return true;
+    }
+
+    private static boolean isTaskTimeMetric(String attributeName) {
+        for (AttributeDefinition metric : TASK_TIME_METRICS) {
+            if (metric.getName().equals(attributeName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void setHistogram(ModelNode result, long[] histogram) {
+        result.setEmptyList();
+        for (int i = 0; i < histogram.length; i++) {
+            final ModelNode bucket = result.add();
+            if (i < TaskMetrics.TIME_BUCKETS.length) {
+                bucket.get(CommonAttributes.MAX_TIME).set(TaskMetrics.TIME_BUCKETS[i]);
+            }
+            bucket.get(CommonAttributes.TASKS).set(histogram[i]);
+        }
+    }
+
     protected ServiceController<?> getService(final OperationContext context, final ModelNode operation)
             throws OperationFailedException {
         final String name = Util.getNameFromAddress(operation.require(OP_ADDR));
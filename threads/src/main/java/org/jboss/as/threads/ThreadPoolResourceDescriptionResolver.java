@@ -49,7 +49,9 @@ class ThreadPoolResourceDescriptionResolver extends StandardResourceDescriptionR
                 PoolAttributeDefinitions.THREAD_FACTORY.getName(), PoolAttributeDefinitions.ACTIVE_COUNT.getName(),
                 PoolAttributeDefinitions.COMPLETED_TASK_COUNT.getName(), PoolAttributeDefinitions.CURRENT_THREAD_COUNT.getName(),
                 PoolAttributeDefinitions.LARGEST_THREAD_COUNT.getName(), PoolAttributeDefinitions.TASK_COUNT.getName(),
-                PoolAttributeDefinitions.QUEUE_SIZE.getName()));
+                PoolAttributeDefinitions.QUEUE_SIZE.getName(), PoolAttributeDefinitions.QUEUE_WAIT_TIME.getName(),
+                PoolAttributeDefinitions.QUEUE_WAIT_TIME_HISTOGRAM.getName(), PoolAttributeDefinitions.EXECUTION_TIME.getName(),
+                PoolAttributeDefinitions.EXECUTION_TIME_HISTOGRAM.getName()));
 
         // note we don't include REJECTED_COUNT as it has a different definition in different resources
     }
@@ -24,6 +24,7 @@ package org.jboss.as.threads;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.xml.stream.Location;
@@ -32,6 +33,7 @@ import javax.xml.stream.XMLStreamException;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
+import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
@@ -145,4 +147,38 @@ interface ThreadsLogger extends BasicLogger {
     OperationFailedException failedToParseUnit(String unit, List<TimeUnit> allowed);
 
     // id = 31; redundant parameter null check message
+
+    @Message(id = 32, value = "Executor '%s' is shut down")
+    RejectedExecutionException executorShutDown(String name);
+
+    @Message(id = 33, value = "Failed to start a thread for executor '%s'")
+    RejectedExecutionException threadStartFailed(String name, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 34, value = "Virtual threads are not supported by this JVM; executor '%s' will run each task on a new platform thread instead")
+    void virtualThreadsNotSupported(String name);
+
+    @Message(id = 35, value = "Service '%s' not found.")
+    OperationFailedException virtualThreadExecutorServiceNotFound(ServiceName serviceName);
+
+    @Message(id = 36, value = "The executor service hasn't been initialized.")
+    IllegalStateException virtualThreadExecutorUninitialized();
+
+    @Message(id = 37, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedVirtualThreadExecutorAttribute(String attributeName);
+
+    @Message(id = 38, value = "Unsupported metric '%s'")
+    IllegalStateException unsupportedVirtualThreadExecutorMetric(String attributeName);
+
+    @Message(id = 39, value = "Service '%s' not found.")
+    OperationFailedException workStealingThreadPoolServiceNotFound(ServiceName serviceName);
+
+    @Message(id = 40, value = "The executor service hasn't been initialized.")
+    IllegalStateException workStealingThreadPoolExecutorUninitialized();
+
+    @Message(id = 41, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedWorkStealingThreadPoolAttribute(String attributeName);
+
+    @Message(id = 42, value = "Unsupported metric '%s'")
+    IllegalStateException unsupportedWorkStealingThreadPoolMetric(String attributeName);
 }
@@ -0,0 +1,395 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.common.Assert;
+
+/**
+ * An executor that runs each task on a new virtual thread, rather than on a pool of platform threads.
+ * <p/>
+ * The number of tasks running at once may be limited by a maximum concurrency, in which case tasks submitted
+ * while the limit is reached are queued, without blocking the caller, and run by a thread of an earlier task once
+ * that task completes. Without a limit every task gets its own thread straight away.
+ * <p/>
+ * Virtual threads are only available when running on a JVM that supports them; otherwise the executor creates a
+ * platform thread for each task from the given thread factory, which still allows far more concurrency than a fixed
+ * size pool, at a higher cost per task.
+ */
+public final class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = ofVirtual.getReturnType().getMethod("name", String.class, long.class);
+            factory = ofVirtual.getReturnType().getMethod("factory");
+        } catch (NoSuchMethodException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private final String name;
+    private final ThreadFactory threadFactory;
+    private final boolean virtual;
+    private volatile int maxConcurrency;
+
+    /** Number of threads started and not yet finished, which is also the number of concurrency permits taken */
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final AtomicInteger largestThreadCount = new AtomicInteger();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final LongAdder taskCount = new LongAdder();
+    private final LongAdder completedTaskCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private volatile boolean shutdown;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final List<Runnable> terminationTasks = new ArrayList<>();
+
+    /**
+     * Creates a new executor.
+     *
+     * @param name the name of the executor, used to name its threads
+     * @param maxConcurrency the maximum number of tasks running at once, or {@code 0} for no limit
+     * @param platformThreadFactory the factory of the threads to use if virtual threads are not supported
+     */
+    public VirtualThreadExecutor(final String name, final int maxConcurrency, final ThreadFactory platformThreadFactory) {
+        Assert.checkNotNullParam("name", name);
+        Assert.checkNotNullParam("platformThreadFactory", platformThreadFactory);
+        Assert.checkMinimumParameter("maxConcurrency", 0, maxConcurrency);
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        final ThreadFactory virtualThreadFactory = createVirtualThreadFactory(name);
+        if (virtualThreadFactory == null) {
+            ThreadsLogger.ROOT_LOGGER.virtualThreadsNotSupported(name);
+            this.threadFactory = platformThreadFactory;
+            this.virtual = false;
+        } else {
+            this.threadFactory = virtualThreadFactory;
+            this.virtual = true;
+        }
+    }
+
+    /**
+     * Gets whether the running JVM supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported
+     */
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(final String name) {
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        try {
+            final Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 1L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        Assert.checkNotNullParam("task", task);
+        if (shutdown) {
+            rejectedCount.increment();
+            throw ThreadsLogger.ROOT_LOGGER.executorShutDown(name);
+        }
+        taskCount.increment();
+        if (tryAcquire()) {
+            if (shutdown) {
+                release();
+                rejected();
+                throw ThreadsLogger.ROOT_LOGGER.executorShutDown(name);
+            }
+            startThread(task);
+        } else {
+            queue.add(task);
+            queueSize.incrementAndGet();
+            // A running task may have finished since the permit was refused, in which case nothing would pick up the
+            // queued task
+            if (tryAcquire()) {
+                try {
+                    startThread(null);
+                } catch (RejectedExecutionException e) {
+                    if (queue.remove(task)) {
+                        queueSize.decrementAndGet();
+                        rejected();
+                        throw e;
+                    }
+                    // Already taken by another thread
+                }
+            }
+        }
+    }
+
+    private void rejected() {
+        taskCount.decrement();
+        rejectedCount.increment();
+    }
+
+    private boolean tryAcquire() {
+        for (;;) {
+            final int count = threadCount.get();
+            final int max = maxConcurrency;
+            if (max > 0 && count >= max) {
+                return false;
+            }
+            if (threadCount.compareAndSet(count, count + 1)) {
+                int largest;
+                do {
+                    largest = largestThreadCount.get();
+                } while (count + 1 > largest && !largestThreadCount.compareAndSet(largest, count + 1));
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        if (threadCount.decrementAndGet() == 0 && shutdown && queueSize.get() == 0) {
+            terminate();
+        }
+    }
+
+    private void startThread(final Runnable task) {
+        final Thread thread;
+        try {
+            thread = threadFactory.newThread(new Worker(task));
+            if (thread == null) {
+                throw ThreadsLogger.ROOT_LOGGER.threadStartFailed(name, null);
+            }
+            thread.start();
+        } catch (RejectedExecutionException e) {
+            release();
+            if (task != null) {
+                rejected();
+            }
+            throw e;
+        } catch (Throwable t) {
+            // Typically running out of memory for the thread's stack
+            release();
+            if (task != null) {
+                rejected();
+            }
+            throw ThreadsLogger.ROOT_LOGGER.threadStartFailed(name, t);
+        }
+    }
+
+    private Runnable pollQueue() {
+        final Runnable task = queue.poll();
+        if (task != null) {
+            queueSize.decrementAndGet();
+        }
+        return task;
+    }
+
+    private void runTask(final Runnable task) {
+        activeCount.incrementAndGet();
+        try {
+            task.run();
+        } catch (Throwable t) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        } finally {
+            activeCount.decrementAndGet();
+            completedTaskCount.increment();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (threadCount.get() == 0 && queueSize.get() == 0) {
+            terminate();
+        }
+    }
+
+    /**
+     * Shuts the executor down and removes the queued tasks. Running tasks are not interrupted.
+     *
+     * @return the tasks that were queued and will not be run
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        final List<Runnable> tasks = new ArrayList<>();
+        Runnable task;
+        while ((task = pollQueue()) != null) {
+            tasks.add(task);
+        }
+        if (threadCount.get() == 0) {
+            terminate();
+        }
+        return tasks;
+    }
+
+    private void terminate() {
+        final List<Runnable> tasks;
+        synchronized (terminationTasks) {
+            if (terminated.getCount() == 0) {
+                return;
+            }
+            terminated.countDown();
+            tasks = new ArrayList<>(terminationTasks);
+            terminationTasks.clear();
+        }
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    /**
+     * Adds a task to run once the executor has terminated. If it has already terminated the task is run immediately.
+     *
+     * @param task the task
+     */
+    public void addTerminationTask(final Runnable task) {
+        synchronized (terminationTasks) {
+            if (terminated.getCount() != 0) {
+                terminationTasks.add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of tasks running at once. Lowering the limit doesn't affect tasks that are already
+     * running.
+     *
+     * @param maxConcurrency the limit, or {@code 0} for no limit
+     */
+    public void setMaxConcurrency(final int maxConcurrency) {
+        Assert.checkMinimumParameter("maxConcurrency", 0, maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        // Start threads for queued tasks that are now allowed to run
+        while (queueSize.get() > 0 && tryAcquire()) {
+            startThread(null);
+        }
+    }
+
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    public int getCurrentThreadCount() {
+        return threadCount.get();
+    }
+
+    public int getLargestThreadCount() {
+        return largestThreadCount.get();
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    public long getTaskCount() {
+        return taskCount.sum();
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTaskCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    private final class Worker implements Runnable {
+        private Runnable task;
+
+        Worker(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            Runnable task = this.task;
+            this.task = null;
+            for (;;) {
+                if (task == null) {
+                    task = pollQueue();
+                    if (task == null) {
+                        release();
+                        // Pick up a task queued after the poll that couldn't get a permit, as nothing else will
+                        if (queueSize.get() == 0 || !tryAcquire()) {
+                            return;
+                        }
+                        continue;
+                    }
+                }
+                runTask(task);
+                task = null;
+            }
+        }
+    }
+}
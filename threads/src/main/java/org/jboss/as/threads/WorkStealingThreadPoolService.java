@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service responsible for creating, starting and stopping a work-stealing thread pool, where each thread has its own
+ * queue of tasks and idle threads take tasks from the queues of busy ones.
+ * <p/>
+ * The pool's threads have to be {@link ForkJoinWorkerThread}s, so they can't be created by the injected thread factory;
+ * instead each is given the name, priority and daemon status configured for the factory. They stay in the thread group
+ * of the thread that created them, as a {@code ForkJoinWorkerThread} can't be placed in another one.
+ */
+public final class WorkStealingThreadPoolService implements Service<ManagedWorkStealingExecutorService> {
+
+    private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+
+    private ManagedWorkStealingExecutorService executor;
+
+    private final int maxThreads;
+
+    public WorkStealingThreadPoolService(final int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public void start(final StartContext context) throws StartException {
+        // Tasks are independent rather than forked subtasks, so run them in submission order
+        final ForkJoinPool pool = new ForkJoinPool(Math.max(1, maxThreads), new WorkerThreadFactory(threadFactoryValue.getValue()),
+                null, true);
+        final ManagedWorkStealingExecutorService executorService = new ManagedWorkStealingExecutorService(pool);
+        synchronized (this) {
+            executor = executorService;
+        }
+    }
+
+    public void stop(final StopContext context) {
+        final ManagedWorkStealingExecutorService executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+        executor.internalShutdown();
+        if (executor.isInternallyTerminated()) {
+            return;
+        }
+        // A ForkJoinPool can't notify us when it terminates, so wait for it on a separate thread
+        context.asynchronous();
+        final Thread thread = threadFactoryValue.getValue().newThread(() -> {
+            try {
+                executor.awaitInternalTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                context.complete();
+            }
+        });
+        if (thread == null) {
+            context.complete();
+        } else {
+            thread.start();
+        }
+    }
+
+    public synchronized ManagedWorkStealingExecutorService getValue() throws IllegalStateException {
+        final ManagedWorkStealingExecutorService value = this.executor;
+        if (value == null) {
+            throw ThreadsLogger.ROOT_LOGGER.workStealingThreadPoolExecutorUninitialized();
+        }
+        return value;
+    }
+
+    public Injector<ThreadFactory> getThreadFactoryInjector() {
+        return threadFactoryValue;
+    }
+
+    public int getActiveCount() {
+        return getValue().getActiveCount();
+    }
+
+    public long getCompletedTaskCount() {
+        return getValue().getCompletedTaskCount();
+    }
+
+    public int getCurrentThreadCount() {
+        return getValue().getCurrentThreadCount();
+    }
+
+    public int getQueueSize() {
+        return getValue().getQueueSize();
+    }
+
+    public long getStealCount() {
+        return getValue().getStealCount();
+    }
+
+    public long getRejectedCount() {
+        return getValue().getRejectedCount();
+    }
+
+    static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final ThreadFactory threadFactory;
+
+        WorkerThreadFactory(final ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = new WorkerThread(pool);
+            if (threadFactory instanceof ConfiguredThreadFactory) {
+                ((ConfiguredThreadFactory) threadFactory).configure(thread);
+            }
+            return thread;
+        }
+    }
+
+    private static final class WorkerThread extends ForkJoinWorkerThread {
+        WorkerThread(final ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+}
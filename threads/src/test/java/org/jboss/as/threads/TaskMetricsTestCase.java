@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link TaskMetrics}.
+ */
+public class TaskMetricsTestCase {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private ScheduledThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        assertEquals(0, TaskMetrics.bucket(0));
+        assertEquals(0, TaskMetrics.bucket(MILLIS));
+        assertEquals(1, TaskMetrics.bucket(MILLIS + 1));
+        assertEquals(1, TaskMetrics.bucket(5 * MILLIS));
+        assertEquals(2, TaskMetrics.bucket(5 * MILLIS + 1));
+        assertEquals(TaskMetrics.TIME_BUCKETS.length - 1, TaskMetrics.bucket(10000 * MILLIS));
+        assertEquals(TaskMetrics.TIME_BUCKETS.length, TaskMetrics.bucket(10000 * MILLIS + 1));
+        assertEquals(TaskMetrics.TIME_BUCKETS.length, TaskMetrics.bucket(Long.MAX_VALUE));
+
+        final TaskMetrics metrics = new TaskMetrics();
+        assertEquals(TaskMetrics.TIME_BUCKETS.length + 1, metrics.getQueueWaitTimeHistogram().length);
+        assertEquals(TaskMetrics.TIME_BUCKETS.length + 1, metrics.getExecutionTimeHistogram().length);
+    }
+
+    @Test
+    public void testSubmittedTask() throws Exception {
+        final TaskMetrics metrics = new TaskMetrics();
+        final Runnable task = metrics.wrap(() -> sleep(20));
+        sleep(20);
+        task.run();
+
+        assertEquals(1, metrics.getCompletedCount());
+        assertTrue(metrics.getQueueWaitTime() >= 20 * MILLIS);
+        assertTrue(metrics.getExecutionTime() >= 20 * MILLIS);
+        // both took more than 10ms, so neither is in the first three buckets
+        assertEquals(1, count(metrics.getQueueWaitTimeHistogram(), 3));
+        assertEquals(1, count(metrics.getExecutionTimeHistogram(), 3));
+    }
+
+    @Test
+    public void testFailedTask() {
+        final TaskMetrics metrics = new TaskMetrics();
+        try {
+            metrics.wrap((Runnable) () -> {
+                throw new IllegalStateException();
+            }).run();
+            fail();
+        } catch (IllegalStateException expected) {
+            // the task's failure is passed on
+        }
+        assertEquals(1, metrics.getCompletedCount());
+    }
+
+    @Test
+    public void testScheduledTask() throws Exception {
+        final ManagedScheduledExecutorService managed = new ManagedScheduledExecutorService(executor);
+        final TaskMetrics metrics = managed.getTaskMetrics();
+        managed.schedule(() -> { }, 200, TimeUnit.MILLISECONDS).get();
+        managed.schedule(() -> "done", 200, TimeUnit.MILLISECONDS).get();
+
+        awaitCompleted(metrics, 2);
+        // the delay isn't time spent waiting for a thread
+        assertTrue(metrics.getQueueWaitTime() < 200 * MILLIS);
+    }
+
+    @Test
+    public void testFixedRateTask() throws Exception {
+        final ManagedScheduledExecutorService managed = new ManagedScheduledExecutorService(executor);
+        final TaskMetrics metrics = managed.getTaskMetrics();
+        final CountDownLatch runs = new CountDownLatch(3);
+        final ScheduledFuture<?> future = managed.scheduleAtFixedRate(runs::countDown, 0, 100, TimeUnit.MILLISECONDS);
+        assertTrue(runs.await(10, TimeUnit.SECONDS));
+        future.cancel(false);
+
+        final long completed = awaitCompleted(metrics, 3);
+        // each run waits from when it was due, not from when the task was first scheduled
+        assertTrue(metrics.getQueueWaitTime() / completed < 50 * MILLIS);
+    }
+
+    @Test
+    public void testFixedDelayTask() throws Exception {
+        final ManagedScheduledExecutorService managed = new ManagedScheduledExecutorService(executor);
+        final TaskMetrics metrics = managed.getTaskMetrics();
+        final CountDownLatch runs = new CountDownLatch(3);
+        final ScheduledFuture<?> future = managed.scheduleWithFixedDelay(() -> {
+            sleep(100);
+            runs.countDown();
+        }, 0, 50, TimeUnit.MILLISECONDS);
+        assertTrue(runs.await(10, TimeUnit.SECONDS));
+        future.cancel(false);
+
+        final long completed = awaitCompleted(metrics, 3);
+        // each run is due a delay after the previous one ended, so its execution time isn't counted as waiting
+        assertTrue(metrics.getQueueWaitTime() / completed < 50 * MILLIS);
+        assertTrue(metrics.getExecutionTime() >= completed * 100 * MILLIS);
+    }
+
+    @Test
+    public void testRejectedTasks() {
+        final ManagedScheduledExecutorService managed = new ManagedScheduledExecutorService(executor);
+        managed.internalShutdown();
+        try {
+            managed.execute(() -> { });
+            fail();
+        } catch (RejectedExecutionException expected) {
+            // counted below
+        }
+        try {
+            managed.schedule(() -> { }, 1, TimeUnit.SECONDS);
+            fail();
+        } catch (RejectedExecutionException expected) {
+            // counted below
+        }
+        assertEquals(2, managed.getRejectedCount());
+        assertEquals(0, managed.getTaskMetrics().getCompletedCount());
+        assertArrayEquals(new long[TaskMetrics.TIME_BUCKETS.length + 1], managed.getTaskMetrics().getQueueWaitTimeHistogram());
+    }
+
+    /**
+     * Waits for the metrics of task runs, which are recorded after the task itself has returned.
+     */
+    private static long awaitCompleted(final TaskMetrics metrics, final long count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        long completed = metrics.getCompletedCount();
+        while (completed < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            completed = metrics.getCompletedCount();
+        }
+        assertTrue(completed >= count);
+        return completed;
+    }
+
+    private static long count(final long[] histogram, final int fromBucket) {
+        long count = 0;
+        for (int i = fromBucket; i < histogram.length; i++) {
+            count += histogram[i];
+        }
+        return count;
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.StopContext;
+import org.junit.Test;
+
+/**
+ * Tests of {@link WorkStealingThreadPoolService}.
+ */
+public class WorkStealingThreadPoolServiceTestCase {
+
+    @Test
+    public void testWorkerThreadConfiguration() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final ThreadFactory delegate = r -> {
+            created.incrementAndGet();
+            return new Thread(r);
+        };
+        final ThreadGroup group = new ThreadGroup("test-threads");
+        final ConfiguredThreadFactory threadFactory = new ConfiguredThreadFactory(delegate, group, Thread.NORM_PRIORITY - 1, "%G - %t");
+        final ForkJoinPool pool = new ForkJoinPool(1, new WorkStealingThreadPoolService.WorkerThreadFactory(threadFactory), null, true);
+        try {
+            final Thread worker = pool.submit(Thread::currentThread).get();
+            assertEquals("test-threads - 1", worker.getName());
+            assertEquals(Thread.NORM_PRIORITY - 1, worker.getPriority());
+            assertFalse(worker.isDaemon());
+            // workers are configured without creating a thread from the factory
+            assertEquals(0, created.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWorkerThreadNames() {
+        final ThreadGroup group = new ThreadGroup("test-threads");
+        final Thread thread = new Thread(group, "unnamed");
+        final ConfiguredThreadFactory threadFactory = new ConfiguredThreadFactory(Thread::new, group, null, "%G-%t-%%-%i%");
+        assertEquals("test-threads-1-%-" + thread.getId(), threadFactory.formatName(thread));
+        assertEquals("test-threads-2-%-" + thread.getId(), threadFactory.formatName(thread));
+        assertTrue(new ConfiguredThreadFactory(Thread::new, group, null, "%p").formatName(thread).endsWith(":test-threads"));
+        assertTrue(new ConfiguredThreadFactory(Thread::new, group, null, null).formatName(thread).matches("pool-\\d+-thread-1"));
+        // without a thread group of its own the factory names threads after the group they are in
+        assertEquals("test-threads", new ConfiguredThreadFactory(Thread::new, null, null, "%G").formatName(thread));
+    }
+
+    @Test
+    public void testStartAndStop() throws Exception {
+        final WorkStealingThreadPoolService service = new WorkStealingThreadPoolService(2);
+        service.getThreadFactoryInjector().inject(new ConfiguredThreadFactory(Thread::new, null, null, "pool-%t"));
+        service.start(null);
+        final ManagedWorkStealingExecutorService executor = service.getValue();
+        assertEquals(2, executor.getMaxThreads());
+
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<?> task = executor.submit(() -> {
+            running.countDown();
+            release.await();
+            return null;
+        });
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        // the pool is stopped asynchronously, once the running task has completed
+        final TestStopContext stopContext = new TestStopContext();
+        service.stop(stopContext);
+        assertTrue(stopContext.asynchronous);
+        assertFalse(stopContext.completed.await(100, TimeUnit.MILLISECONDS));
+        try {
+            service.getValue();
+            fail();
+        } catch (IllegalStateException expected) {
+            // no longer available once stopping
+        }
+        try {
+            executor.execute(() -> { });
+            fail();
+        } catch (RejectedExecutionException expected) {
+            assertEquals(1, executor.getRejectedCount());
+        }
+
+        release.countDown();
+        task.get(10, TimeUnit.SECONDS);
+        assertTrue(stopContext.completed.await(10, TimeUnit.SECONDS));
+        assertTrue(executor.isInternallyTerminated());
+        assertEquals(1, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void testStopIdle() throws Exception {
+        final WorkStealingThreadPoolService service = new WorkStealingThreadPoolService(1);
+        service.getThreadFactoryInjector().inject(new ConfiguredThreadFactory(Thread::new, null, null, null));
+        service.start(null);
+        final ManagedWorkStealingExecutorService executor = service.getValue();
+
+        final TestStopContext stopContext = new TestStopContext();
+        service.stop(stopContext);
+        if (stopContext.asynchronous) {
+            assertTrue(stopContext.completed.await(10, TimeUnit.SECONDS));
+        }
+        assertTrue(executor.isInternallyTerminated());
+    }
+
+    private static final class TestStopContext implements StopContext {
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile boolean asynchronous;
+
+        @Override
+        public void asynchronous() {
+            asynchronous = true;
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        @Override
+        public long getElapsedTime() {
+            return 0;
+        }
+
+        @Override
+        public ServiceController<?> getController() {
+            return null;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    }
+}